@@ -37,7 +37,7 @@ const Admin = () => {
 
     const fetchUsers = async () => {
         try {
-            const response = await userAPI.getLeaderboard();
+            const response = await userAPI.getAll();
             setUsers(response.data);
         } catch (err) {
             setError('Failed to load users');
@@ -6,6 +6,8 @@ import { Chess } from 'chess.js';
 
 const Dashboard = () => {
     const [leaderboard, setLeaderboard] = useState([]);
+    const [myRank, setMyRank] = useState(null);
+    const [myStats, setMyStats] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
     const user = authService.getUser();
@@ -27,6 +29,12 @@ const Dashboard = () => {
         try {
             const response = await userAPI.getLeaderboard();
             setLeaderboard(response.data);
+            if (user?.id) {
+                const rank = await userAPI.getRank(user.id);
+                setMyRank(rank.data);
+                const stats = await userAPI.getStats(user.id);
+                setMyStats(stats.data);
+            }
         } catch (err) {
             setError('Failed to load leaderboard');
         } finally {
@@ -151,6 +159,16 @@ const Dashboard = () => {
                         </div>
                     </div>
                 </div>
+                {myStats && (
+                    <div style={{marginTop: '1rem', color: 'var(--gray)'}}>
+                        W/D/L: <strong>{myStats.wins}/{myStats.draws}/{myStats.losses}</strong>
+                        {' '}(white {myStats.whiteWins}/{myStats.whiteDraws}/{myStats.whiteLosses},
+                        {' '}black {myStats.blackWins}/{myStats.blackDraws}/{myStats.blackLosses})
+                        {' '}· Peak rating: <strong>{myStats.peakRating}</strong>
+                        {myStats.averageOpponentRating != null && <> · Avg. opponent: <strong>{myStats.averageOpponentRating}</strong></>}
+                        {myStats.currentStreak !== 0 && <> · Streak: <strong>{myStats.currentStreak > 0 ? `${myStats.currentStreak}W` : `${-myStats.currentStreak}L`}</strong></>}
+                    </div>
+                )}
             </div>
 
             <div style={{display: 'grid', gridTemplateColumns: '1fr 1fr', gap: '2rem'}}>
@@ -227,6 +245,12 @@ const Dashboard = () => {
                 <div className="card">
                     <h2 className="card-title">Leaderboard - Top Players</h2>
                     {error && <div className="alert alert-error">{error}</div>}
+                    {myRank && (
+                        <p style={{color: 'var(--gray)'}}>
+                            Your rank: <strong>#{myRank.player.rank}</strong> of {myRank.totalPlayers}
+                            {' '}(top {Math.max(1, Math.ceil(100 - myRank.percentile))}%)
+                        </p>
+                    )}
                     <div style={{maxHeight: '500px', overflowY: 'auto'}}>
                         <table className="table">
                             <thead>
@@ -238,9 +262,9 @@ const Dashboard = () => {
                             </tr>
                             </thead>
                             <tbody>
-                            {leaderboard.map((player, index) => (
+                            {leaderboard.map(player => (
                                 <tr key={player.id} style={{background: player.id === user?.id ? 'rgba(220, 20, 60, 0.05)' : 'transparent'}}>
-                                    <td style={{fontWeight: '600'}}>{index + 1}</td>
+                                    <td style={{fontWeight: '600'}}>{player.rank}</td>
                                     <td>
                                         {player.fullName}
                                         {player.id === user?.id && <span style={{marginLeft: '0.5rem', color: 'var(--primary-red)', fontSize: '0.875rem'}}>(You)</span>}
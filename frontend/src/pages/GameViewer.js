@@ -1,7 +1,6 @@
 import React, { useState, useEffect, useMemo } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { Chessboard } from 'react-chessboard';
-import { Chess } from 'chess.js';
 import { gameAPI } from '../services/api';
 
 const GameViewer = () => {
@@ -21,12 +20,16 @@ const GameViewer = () => {
 
     const fetchGame = async () => {
         try {
-            const response = await gameAPI.getById(id);
-            setGame(response.data);
-
-            if (response.data.s3Key) {
-                await loadPGN(response.data.s3Key);
-            }
+            const [gameResponse, timelineResponse] = await Promise.all([
+                gameAPI.getById(id),
+                gameAPI.getTimeline(id)
+            ]);
+            setGame(gameResponse.data);
+
+            const { startFen, plies } = timelineResponse.data;
+            setMoveHistory(plies);
+            setFenHistory(startFen ? [startFen, ...plies.map(ply => ply.fen)] : []);
+            setCurrentMoveIndex(-1);
         } catch (err) {
             setError('Failed to load games');
         } finally {
@@ -34,42 +37,6 @@ const GameViewer = () => {
         }
     };
 
-    const loadPGN = async (s3Key) => {
-        try {
-            const url = `https://netchess-pgn-files-01.s3.eu-north-1.amazonaws.com/${s3Key}`;
-            const response = await fetch(url);
-            let pgnContent = await response.text();
-
-            const eventMatches = [...pgnContent.matchAll(/\[Event[^\]]*\]/g)];
-            if (eventMatches.length > 1) {
-                const secondEventPos = eventMatches[1].index;
-                pgnContent = pgnContent.substring(0, secondEventPos).trim();
-            }
-
-            const tempChess = new Chess();
-            tempChess.loadPgn(pgnContent);
-
-            const history = tempChess.history({ verbose: true });
-            setMoveHistory(history);
-
-            const replayChess = new Chess();
-            const fens = [];
-
-            fens.push(replayChess.fen());
-
-            history.forEach(move => {
-                replayChess.move(move.san);
-                fens.push(replayChess.fen());
-            });
-
-            setFenHistory(fens);
-            setCurrentMoveIndex(-1);
-
-        } catch (err) {
-            setError('Failed to parse PGN: ' + err.message);
-        }
-    };
-
     const currentPosition = useMemo(() => {
         if (fenHistory.length === 0) return 'start';
         const fenIndex = currentMoveIndex + 1;
@@ -103,7 +70,7 @@ const GameViewer = () => {
                             <div>
                                 <div style={{fontSize: '0.875rem', color: 'var(--gray)', marginBottom: '0.5rem'}}>White</div>
                                 <div style={{fontWeight: '700', fontSize: '1.5rem', color: 'var(--text-dark)'}}>
-                                    {game.whitePlayer?.fullName || 'N/A'}
+                                    {game.whitePlayer || 'N/A'}
                                 </div>
                                 <div style={{fontSize: '0.875rem', color: 'var(--gray)', marginTop: '0.25rem'}}>
                                     Rating: {game.whitePlayer?.nccElo || 1200}
@@ -112,7 +79,7 @@ const GameViewer = () => {
                             <div>
                                 <div style={{fontSize: '0.875rem', color: 'var(--gray)', marginBottom: '0.5rem'}}>Black</div>
                                 <div style={{fontWeight: '700', fontSize: '1.5rem', color: 'var(--text-dark)'}}>
-                                    {game.blackPlayer?.fullName || 'N/A'}
+                                    {game.blackPlayer || 'N/A'}
                                 </div>
                                 <div style={{fontSize: '0.875rem', color: 'var(--gray)', marginTop: '0.25rem'}}>
                                     Rating: {game.blackPlayer?.nccElo || 1200}
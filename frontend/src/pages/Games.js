@@ -5,6 +5,9 @@ import { authService } from '../services/auth';
 
 const Games = () => {
     const [games, setGames] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [query, setQuery] = useState('');
+    const [activeQuery, setActiveQuery] = useState('');
     const [users, setUsers] = useState([]);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
@@ -26,10 +29,13 @@ const Games = () => {
         fetchUsers();
     }, []);
 
-    const fetchGames = async () => {
+    const fetchGames = async (cursor, search = activeQuery) => {
         try {
-            const response = await gameAPI.getAll();
-            setGames(response.data);
+            const response = search
+                ? await gameAPI.search(search, cursor)
+                : await gameAPI.getAll(cursor);
+            setGames(cursor ? [...games, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (err) {
             setError('Failed to load games');
         } finally {
@@ -37,9 +43,16 @@ const Games = () => {
         }
     };
 
+    const handleSearch = (e) => {
+        e.preventDefault();
+        const search = query.trim();
+        setActiveQuery(search);
+        fetchGames(null, search);
+    };
+
     const fetchUsers = async () => {
         try {
-            const response = await userAPI.getLeaderboard();
+            const response = await userAPI.getAll();
             setUsers(response.data);
         } catch (err) {
             console.error('Failed to load users');
@@ -75,6 +88,20 @@ const Games = () => {
         }
     };
 
+    const handleDownload = async (game) => {
+        try {
+            const response = await gameAPI.downloadPgn(game.id);
+            const url = URL.createObjectURL(response.data);
+            const link = document.createElement('a');
+            link.href = url;
+            link.download = `${game.whitePlayer || 'white'}-${game.blackPlayer || 'black'}.pgn`;
+            link.click();
+            URL.revokeObjectURL(url);
+        } catch (err) {
+            setError('Download failed');
+        }
+    };
+
     const handleApprove = async (gameId) => {
         setError('');
         setSuccess('');
@@ -192,6 +219,17 @@ const Games = () => {
                     </div>
                 )}
 
+                <form onSubmit={handleSearch} style={{display: 'flex', gap: '0.5rem', marginBottom: '1rem'}}>
+                    <input
+                        type="text"
+                        className="form-control"
+                        placeholder="Search players, event, site, ECO, round"
+                        value={query}
+                        onChange={(e) => setQuery(e.target.value)}
+                    />
+                    <button type="submit" className="btn btn-secondary">Search</button>
+                </form>
+
                 <table className="table">
                     <thead>
                     <tr>
@@ -211,8 +249,8 @@ const Games = () => {
                     ) : (
                         games.map(game => (
                             <tr key={game.id}>
-                                <td>{game.whitePlayer?.fullName || 'N/A'}</td>
-                                <td>{game.blackPlayer?.fullName || 'N/A'}</td>
+                                <td>{game.whitePlayer || 'N/A'}</td>
+                                <td>{game.blackPlayer || 'N/A'}</td>
                                 <td style={{fontWeight: '600'}}>{game.result || 'N/A'}</td>
                                 <td>{game.gameDate || 'N/A'}</td>
                                 <td>
@@ -222,24 +260,18 @@ const Games = () => {
                                 </td>
                                 <td>
                                     <div style={{display: 'flex', gap: '0.5rem', flexWrap: 'wrap'}}>
-                                        {game.s3Key && (
-                                            <>
-                                                <Link
-                                                    to={`/games/${game.id}/view`}
-                                                    className="btn btn-secondary"
-                                                    style={{padding: '0.5rem 1rem', fontSize: '0.875rem'}}>
-                                                    View
-                                                </Link>
-                                                <a href={`https://netchess-pgn-files-01.s3.eu-north-1.amazonaws.com/${game.s3Key}`}
-                                                   target="_blank"
-                                                   rel="noopener noreferrer"
-                                                   download
-                                                   className="btn btn-secondary"
-                                                   style={{padding: '0.5rem 1rem', fontSize: '0.875rem'}}>
-                                                    Download
-                                                </a>
-                                            </>
-                                        )}
+                                        <Link
+                                            to={`/games/${game.id}/view`}
+                                            className="btn btn-secondary"
+                                            style={{padding: '0.5rem 1rem', fontSize: '0.875rem'}}>
+                                            View
+                                        </Link>
+                                        <button
+                                            onClick={() => handleDownload(game)}
+                                            className="btn btn-secondary"
+                                            style={{padding: '0.5rem 1rem', fontSize: '0.875rem'}}>
+                                            Download
+                                        </button>
                                         {canManage && !game.approved && (
                                             <>
                                                 <button
@@ -263,6 +295,13 @@ const Games = () => {
                     )}
                     </tbody>
                 </table>
+                {nextCursor && (
+                    <div style={{textAlign: 'center', marginTop: '1rem'}}>
+                        <button onClick={() => fetchGames(nextCursor)} className="btn btn-secondary">
+                            Load more
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -14,8 +14,8 @@ const Manager = () => {
 
     const fetchPendingGames = async () => {
         try {
-            const response = await gameAPI.getAll();
-            setGames(response.data.filter(game => !game.approved));
+            const response = await gameAPI.getPending();
+            setGames(response.data.items);
         } catch (err) {
             setError('Failed to load games');
         } finally {
@@ -35,6 +35,18 @@ const Manager = () => {
         }
     };
 
+    const handleApproveAll = async () => {
+        setError('');
+        setSuccess('');
+        try {
+            const response = await gameAPI.approveAll(games.map(game => game.id));
+            setSuccess(response.data.message);
+            fetchPendingGames();
+        } catch (err) {
+            setError(err.response?.data?.message || 'Approval failed');
+        }
+    };
+
     const handleReject = async (gameId) => {
         setError('');
         setSuccess('');
@@ -52,7 +64,15 @@ const Manager = () => {
     return (
         <div className="container">
             <div className="card">
-                <h2 className="card-title">Game Approval - Manager Panel</h2>
+                <div style={{display: 'flex', justifyContent: 'space-between', alignItems: 'center'}}>
+                    <h2 className="card-title">Game Approval - Manager Panel</h2>
+                    {games.length > 1 && (
+                        <button onClick={handleApproveAll} className="btn btn-primary"
+                                style={{padding: '0.5rem 1rem'}}>
+                            Approve All ({games.length})
+                        </button>
+                    )}
+                </div>
                 {error && <div className="alert alert-error">{error}</div>}
                 {success && <div className="alert alert-success">{success}</div>}
 
@@ -76,23 +96,21 @@ const Manager = () => {
                         <tbody>
                         {games.map(game => (
                             <tr key={game.id}>
-                                <td>{game.whitePlayer?.fullName || 'N/A'}</td>
-                                <td>{game.blackPlayer?.fullName || 'N/A'}</td>
+                                <td>{game.whitePlayer || 'N/A'}</td>
+                                <td>{game.blackPlayer || 'N/A'}</td>
                                 <td style={{fontWeight: '600'}}>{game.result || 'N/A'}</td>
                                 <td>{game.gameDate || 'N/A'}</td>
-                                <td>{game.uploadedBy?.username || 'N/A'}</td>
+                                <td>{game.uploadedBy || 'N/A'}</td>
                                 <td>
-                                    {game.s3Key && (
-                                        <Link
-                                            to={`/games/${game.id}/view`}
-                                            style={{
-                                                color: 'var(--primary-red)',
-                                                textDecoration: 'none',
-                                                fontWeight: 500
-                                            }}>
-                                            View Game
-                                        </Link>
-                                    )}
+                                    <Link
+                                        to={`/games/${game.id}/view`}
+                                        style={{
+                                            color: 'var(--primary-red)',
+                                            textDecoration: 'none',
+                                            fontWeight: 500
+                                        }}>
+                                        View Game
+                                    </Link>
                                 </td>
                                 <td>
                                     <div style={{display: 'flex', gap: '0.5rem'}}>
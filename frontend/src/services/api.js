@@ -39,20 +39,36 @@ export const authAPI = {
 };
 
 export const userAPI = {
-    getLeaderboard: () => api.get('/users/leaderboard'),
+    getAll: () => api.get('/users'),
+    getLeaderboard: (offset = 0, limit = 10) => api.get('/users/leaderboard', { params: { offset, limit } }),
+    getRank: (id) => api.get(`/users/leaderboard/${id}/rank`),
+    getStats: (id) => api.get(`/users/${id}/stats`),
     getProfile: (id) => api.get(`/users/${id}`),
     updateRole: (userId, role) => api.patch(`/users/${userId}/role`, { role }),
     createUser: (data) => api.post('/users', data),
     updateUser: (userId, data) => api.put(`/users/${userId}`, data),
     deleteUser: (userId) => api.delete(`/users/${userId}`),
 };
+export const playerAPI = {
+    headToHead: (a, b, last = 10) => api.get(`/players/${a}/vs/${b}`, { params: { last } }),
+};
+
 export const gameAPI = {
-    getAll: () => api.get('/games'),
+    getAll: (cursor) => api.get('/games', { params: { cursor } }),
+    getPending: (cursor) => api.get('/games/pending', { params: { cursor } }),
+    search: (q, cursor) => api.get('/games/search', { params: { q, cursor } }),
     getById: (id) => api.get(`/games/${id}`),
+    getTimeline: (id) => api.get(`/games/${id}/timeline`),
+    downloadPgn: (id) => api.get(`/games/${id}/pgn`, { responseType: 'blob' }),
     uploadFile: (formData) => api.post('/games/upload-file', formData, {
         headers: { 'Content-Type': 'multipart/form-data' }
     }),
+    importFile: (file, tournamentId) => api.post('/games/import', file, {
+        params: { tournamentId },
+        headers: { 'Content-Type': 'application/x-chess-pgn' }
+    }),
     approve: (id) => api.patch(`/games/${id}/approve`),
+    approveAll: (gameIds) => api.patch('/games/approve', { gameIds }),
     reject: (id) => api.patch(`/games/${id}/reject`),
 };
 
@@ -61,6 +77,11 @@ export const tournamentAPI = {
     getById: (id) => api.get(`/tournaments/${id}`),
     create: (data) => api.post('/tournaments', data),
     register: (id) => api.post(`/tournaments/${id}/register`),
+    pairNextRound: (id) => api.post(`/tournaments/${id}/rounds`),
+    scheduleRoundRobin: (id, data) => api.post(`/tournaments/${id}/schedule/round-robin`, data),
+    getRound: (id, number) => api.get(`/tournaments/${id}/rounds/${number}`),
+    recordResult: (id, number, board, result) =>
+        api.patch(`/tournaments/${id}/rounds/${number}/pairings/${board}`, { result }),
     delete: (id) => api.delete(`/tournaments/${id}`),
 };
 
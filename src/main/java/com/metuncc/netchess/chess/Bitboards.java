@@ -0,0 +1,191 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Precomputed attack tables. Sliding attacks are looked up through magic bitboards,
+ * so every attack query is a multiply, a shift and an array read.
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = steps(sq, knightSteps);
+            KING_ATTACKS[sq] = steps(sq, kingSteps);
+            PAWN_ATTACKS[Piece.WHITE][sq] = steps(sq, new int[][]{{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[Piece.BLACK][sq] = steps(sq, new int[][]{{-1, -1}, {1, -1}});
+        }
+        initMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE, 0x2545F4914F6CDD1DL);
+        initMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE, 0x9E3779B97F4A7C15L);
+    }
+
+    private Bitboards() {
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[square][index];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[square][index];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static long steps(int square, int[][] deltas) {
+        long attacks = 0;
+        int file = Square.file(square);
+        int rank = Square.rank(square);
+        for (int[] d : deltas) {
+            int f = file + d[0];
+            int r = rank + d[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                attacks |= bit(Square.of(f, r));
+            }
+        }
+        return attacks;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] d : directions) {
+            int f = Square.file(square) + d[0];
+            int r = Square.rank(square) + d[1];
+            while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                long b = bit(Square.of(f, r));
+                attacks |= b;
+                if ((occupied & b) != 0) {
+                    break;
+                }
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] d : directions) {
+            int f = Square.file(square) + d[0];
+            int r = Square.rank(square) + d[1];
+            while (f + d[0] >= 0 && f + d[0] < 8 && r + d[1] >= 0 && r + d[1] < 8) {
+                mask |= bit(Square.of(f, r));
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Finds magic multipliers with a seeded sparse random search, so the tables are
+     * identical on every start without shipping a list of hard-coded constants.
+     */
+    private static void initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts,
+                                   long[][] tables, long seed) {
+        long[] occupancies = new long[4096];
+        long[] attacks = new long[4096];
+        int[] epoch = new int[4096];
+        long state = seed;
+        int attempt = 0;
+
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = relevantMask(sq, directions);
+            int bits = Long.bitCount(mask);
+            int size = 1 << bits;
+
+            int n = 0;
+            long subset = 0;
+            do {
+                occupancies[n] = subset;
+                attacks[n] = slidingAttacks(sq, subset, directions);
+                n++;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            long[] table = new long[size];
+            while (true) {
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                long a = state;
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                long b = state;
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                long magic = a & b & state;
+                if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                    continue;
+                }
+
+                attempt++;
+                boolean ok = true;
+                for (int i = 0; i < n && ok; i++) {
+                    int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                    if (epoch[index] != attempt) {
+                        epoch[index] = attempt;
+                        table[index] = attacks[i];
+                    } else if (table[index] != attacks[i]) {
+                        ok = false;
+                    }
+                }
+                if (ok) {
+                    masks[sq] = mask;
+                    magics[sq] = magic;
+                    shifts[sq] = 64 - bits;
+                    tables[sq] = table;
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.metuncc.netchess.chess;
+
+public final class Fen {
+
+    private Fen() {
+    }
+
+    public static Position parse(String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN is required");
+        }
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("Invalid FEN: expected 4 to 6 fields");
+        }
+
+        Position position = new Position();
+        parsePlacement(position, fields[0]);
+
+        switch (fields[1]) {
+            case "w" -> position.setSideToMove(Piece.WHITE);
+            case "b" -> position.setSideToMove(Piece.BLACK);
+            default -> throw new IllegalArgumentException("Invalid FEN: side to move must be 'w' or 'b'");
+        }
+
+        position.setCastlingRights(sanitizeCastling(position, parseCastling(fields[2])));
+
+        if (!fields[3].equals("-")) {
+            int ep = fields[3].length() == 2 ? Square.parse(fields[3], 0) : Square.NONE;
+            int expectedRank = position.sideToMove() == Piece.WHITE ? 5 : 2;
+            if (ep == Square.NONE || Square.rank(ep) != expectedRank) {
+                throw new IllegalArgumentException("Invalid FEN: bad en passant square " + fields[3]);
+            }
+            position.setEpSquare(ep);
+        }
+
+        try {
+            position.setHalfmoveClock(fields.length > 4 ? Integer.parseInt(fields[4]) : 0);
+            position.setFullmoveNumber(fields.length > 5 ? Math.max(1, Integer.parseInt(fields[5])) : 1);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN: move counters must be numbers");
+        }
+
+        if (Long.bitCount(position.pieces(Piece.WHITE, Piece.KING)) != 1
+                || Long.bitCount(position.pieces(Piece.BLACK, Piece.KING)) != 1) {
+            throw new IllegalArgumentException("Invalid FEN: each side needs exactly one king");
+        }
+        long pawns = position.pieces(Piece.WHITE, Piece.PAWN) | position.pieces(Piece.BLACK, Piece.PAWN);
+        if ((pawns & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+            throw new IllegalArgumentException("Invalid FEN: pawns on the first or last rank");
+        }
+        if (position.isAttacked(position.kingSquare(1 - position.sideToMove()), position.sideToMove())) {
+            throw new IllegalArgumentException("Invalid FEN: side not to move is in check");
+        }
+        position.recomputeHash();
+        return position;
+    }
+
+    public static String format(Position position) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = position.pieceAt(Square.of(file, rank));
+                if (piece == Piece.NONE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(Piece.symbol(piece));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (rank > 0) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(position.sideToMove() == Piece.WHITE ? " w " : " b ");
+
+        int rights = position.castlingRights();
+        if (rights == 0) {
+            sb.append('-');
+        } else {
+            if ((rights & Position.WHITE_KINGSIDE) != 0) sb.append('K');
+            if ((rights & Position.WHITE_QUEENSIDE) != 0) sb.append('Q');
+            if ((rights & Position.BLACK_KINGSIDE) != 0) sb.append('k');
+            if ((rights & Position.BLACK_QUEENSIDE) != 0) sb.append('q');
+        }
+
+        sb.append(' ').append(position.epSquare() == Square.NONE ? "-" : Square.name(position.epSquare()));
+        sb.append(' ').append(position.halfmoveClock());
+        sb.append(' ').append(position.fullmoveNumber());
+        return sb.toString();
+    }
+
+    private static void parsePlacement(Position position, String placement) {
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Invalid FEN: expected 8 ranks");
+        }
+        for (int i = 0; i < 8; i++) {
+            int rank = 7 - i;
+            int file = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    file += c - '0';
+                } else {
+                    int piece = Piece.fromSymbol(c);
+                    if (piece < 0 || file > 7) {
+                        throw new IllegalArgumentException("Invalid FEN: bad rank '" + ranks[i] + "'");
+                    }
+                    position.putPiece(Square.of(file, rank), piece);
+                    file++;
+                }
+            }
+            if (file != 8) {
+                throw new IllegalArgumentException("Invalid FEN: bad rank '" + ranks[i] + "'");
+            }
+        }
+    }
+
+    private static int sanitizeCastling(Position position, int rights) {
+        if (position.pieceAt(Square.of(4, 0)) != Piece.of(Piece.WHITE, Piece.KING)) {
+            rights &= ~(Position.WHITE_KINGSIDE | Position.WHITE_QUEENSIDE);
+        }
+        if (position.pieceAt(Square.of(7, 0)) != Piece.of(Piece.WHITE, Piece.ROOK)) {
+            rights &= ~Position.WHITE_KINGSIDE;
+        }
+        if (position.pieceAt(Square.of(0, 0)) != Piece.of(Piece.WHITE, Piece.ROOK)) {
+            rights &= ~Position.WHITE_QUEENSIDE;
+        }
+        if (position.pieceAt(Square.of(4, 7)) != Piece.of(Piece.BLACK, Piece.KING)) {
+            rights &= ~(Position.BLACK_KINGSIDE | Position.BLACK_QUEENSIDE);
+        }
+        if (position.pieceAt(Square.of(7, 7)) != Piece.of(Piece.BLACK, Piece.ROOK)) {
+            rights &= ~Position.BLACK_KINGSIDE;
+        }
+        if (position.pieceAt(Square.of(0, 7)) != Piece.of(Piece.BLACK, Piece.ROOK)) {
+            rights &= ~Position.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static int parseCastling(String field) {
+        if (field.equals("-")) {
+            return 0;
+        }
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            switch (c) {
+                case 'K' -> rights |= Position.WHITE_KINGSIDE;
+                case 'Q' -> rights |= Position.WHITE_QUEENSIDE;
+                case 'k' -> rights |= Position.BLACK_KINGSIDE;
+                case 'q' -> rights |= Position.BLACK_QUEENSIDE;
+                default -> throw new IllegalArgumentException("Invalid FEN: bad castling field " + field);
+            }
+        }
+        return rights;
+    }
+}
@@ -0,0 +1,8 @@
+package com.metuncc.netchess.chess;
+
+public class IllegalMoveException extends IllegalArgumentException {
+
+    public IllegalMoveException(String message) {
+        super(message);
+    }
+}
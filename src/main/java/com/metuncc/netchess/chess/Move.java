@@ -0,0 +1,56 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Moves are packed into the low 16 bits of an int: origin (bits 0-5), destination
+ * (bits 6-11), promotion piece (bits 12-13, knight to queen) and move kind (bits 14-15).
+ * Castling moves are encoded as the king's two-square step.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int PROMOTION = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 3;
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, int kind) {
+        return from | (to << 6) | (kind << 14);
+    }
+
+    public static int promotion(int from, int to, int pieceType) {
+        return from | (to << 6) | ((pieceType - Piece.KNIGHT) << 12) | (PROMOTION << 14);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int kind(int move) {
+        return (move >>> 14) & 0x3;
+    }
+
+    public static int promotionType(int move) {
+        return ((move >>> 12) & 0x3) + Piece.KNIGHT;
+    }
+
+    public static String toUci(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        sb.append(Square.name(from(move))).append(Square.name(to(move)));
+        if (kind(move) == PROMOTION) {
+            sb.append(Character.toLowerCase(Piece.sanLetter(promotionType(move))));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Legal move generation into caller-supplied buffers. Pseudo-legal moves are generated
+ * from bitboards and then filtered by playing each one and testing the own king.
+ */
+public final class MoveGenerator {
+
+    public static final int MAX_MOVES = 256;
+
+    private MoveGenerator() {
+    }
+
+    public static int generateLegal(Position position, int[] moves) {
+        int count = generatePseudoLegal(position, moves);
+        int us = position.sideToMove();
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            position.makeMove(move);
+            if (!position.isAttacked(position.kingSquare(us), 1 - us)) {
+                moves[legal++] = move;
+            }
+            position.unmakeMove(move);
+        }
+        return legal;
+    }
+
+    public static boolean hasLegalMove(Position position) {
+        int[] moves = new int[MAX_MOVES];
+        return generateLegal(position, moves) > 0;
+    }
+
+    public static int generatePseudoLegal(Position position, int[] moves) {
+        int us = position.sideToMove();
+        int them = 1 - us;
+        long own = position.occupancy(us);
+        long enemy = position.occupancy(them);
+        long occupied = own | enemy;
+        long targets = ~own;
+        int n = 0;
+
+        n = generatePawnMoves(position, moves, n, us, enemy, occupied);
+
+        long knights = position.pieces(us, Piece.KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            n = addMoves(moves, n, from, Bitboards.knightAttacks(from) & targets);
+        }
+
+        long bishops = position.pieces(us, Piece.BISHOP) | position.pieces(us, Piece.QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            n = addMoves(moves, n, from, Bitboards.bishopAttacks(from, occupied) & targets);
+        }
+
+        long rooks = position.pieces(us, Piece.ROOK) | position.pieces(us, Piece.QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            n = addMoves(moves, n, from, Bitboards.rookAttacks(from, occupied) & targets);
+        }
+
+        int king = position.kingSquare(us);
+        n = addMoves(moves, n, king, Bitboards.kingAttacks(king) & targets);
+        n = generateCastling(position, moves, n, us, occupied);
+        return n;
+    }
+
+    private static int generatePawnMoves(Position position, int[] moves, int n, int us, long enemy, long occupied) {
+        long pawns = position.pieces(us, Piece.PAWN);
+        long empty = ~occupied;
+        int forward = us == Piece.WHITE ? 8 : -8;
+        long promotionRank = us == Piece.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+
+        long single;
+        long dbl;
+        if (us == Piece.WHITE) {
+            single = (pawns << 8) & empty;
+            dbl = ((single & (Bitboards.RANK_1 << 16)) << 8) & empty;
+        } else {
+            single = (pawns >>> 8) & empty;
+            dbl = ((single & (Bitboards.RANK_1 << 40)) >>> 8) & empty;
+        }
+
+        long quiet = single & ~promotionRank;
+        while (quiet != 0) {
+            int to = Long.numberOfTrailingZeros(quiet);
+            quiet &= quiet - 1;
+            moves[n++] = Move.of(to - forward, to);
+        }
+        long promotions = single & promotionRank;
+        while (promotions != 0) {
+            int to = Long.numberOfTrailingZeros(promotions);
+            promotions &= promotions - 1;
+            n = addPromotions(moves, n, to - forward, to);
+        }
+        while (dbl != 0) {
+            int to = Long.numberOfTrailingZeros(dbl);
+            dbl &= dbl - 1;
+            moves[n++] = Move.of(to - 2 * forward, to);
+        }
+
+        long attackers = pawns;
+        int ep = position.epSquare();
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            long attacks = Bitboards.pawnAttacks(us, from);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if ((Bitboards.bit(to) & promotionRank) != 0) {
+                    n = addPromotions(moves, n, from, to);
+                } else {
+                    moves[n++] = Move.of(from, to);
+                }
+            }
+            if (ep != Square.NONE && (attacks & Bitboards.bit(ep)) != 0) {
+                moves[n++] = Move.of(from, ep, Move.EN_PASSANT);
+            }
+        }
+        return n;
+    }
+
+    private static int generateCastling(Position position, int[] moves, int n, int us, long occupied) {
+        int rights = position.castlingRights();
+        int them = 1 - us;
+        int kingside = us == Piece.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+        int queenside = us == Piece.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0) {
+            return n;
+        }
+
+        int king = us == Piece.WHITE ? Square.of(4, 0) : Square.of(4, 7);
+        if (position.isAttacked(king, them)) {
+            return n;
+        }
+        if ((rights & kingside) != 0
+                && (occupied & (Bitboards.bit(king + 1) | Bitboards.bit(king + 2))) == 0
+                && !position.isAttacked(king + 1, them)) {
+            moves[n++] = Move.of(king, king + 2, Move.CASTLING);
+        }
+        if ((rights & queenside) != 0
+                && (occupied & (Bitboards.bit(king - 1) | Bitboards.bit(king - 2) | Bitboards.bit(king - 3))) == 0
+                && !position.isAttacked(king - 1, them)) {
+            moves[n++] = Move.of(king, king - 2, Move.CASTLING);
+        }
+        return n;
+    }
+
+    private static int addMoves(int[] moves, int n, int from, long targets) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[n++] = Move.of(from, to);
+        }
+        return n;
+    }
+
+    private static int addPromotions(int[] moves, int n, int from, int to) {
+        moves[n++] = Move.promotion(from, to, Piece.QUEEN);
+        moves[n++] = Move.promotion(from, to, Piece.ROOK);
+        moves[n++] = Move.promotion(from, to, Piece.BISHOP);
+        moves[n++] = Move.promotion(from, to, Piece.KNIGHT);
+        return n;
+    }
+}
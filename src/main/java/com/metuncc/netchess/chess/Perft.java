@@ -0,0 +1,36 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Counts leaf nodes of the legal move tree, the standard correctness and speed check
+ * for a move generator.
+ */
+public final class Perft {
+
+    private final int[][] buffers;
+
+    public Perft(int maxDepth) {
+        buffers = new int[Math.max(1, maxDepth)][MoveGenerator.MAX_MOVES];
+    }
+
+    public long count(Position position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return count(position, depth, 0);
+    }
+
+    private long count(Position position, int depth, int level) {
+        int[] moves = buffers[level];
+        int n = MoveGenerator.generateLegal(position, moves);
+        if (depth == 1) {
+            return n;
+        }
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            position.makeMove(moves[i]);
+            nodes += count(position, depth - 1, level + 1);
+            position.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,319 @@
+package com.metuncc.netchess.chess;
+
+import java.util.Arrays;
+
+/**
+ * Mutable bitboard position. {@link #makeMove(int)} and {@link #unmakeMove(int)} keep
+ * their undo information in preallocated arrays, so playing through a game or a perft
+ * tree does not allocate.
+ */
+public class Position {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[Square.of(4, 0)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[Square.of(7, 0)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[Square.of(0, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[Square.of(4, 7)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[Square.of(7, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[Square.of(0, 7)] &= ~BLACK_QUEENSIDE;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private final int[] board = new int[64];
+
+    private int sideToMove;
+    private int castlingRights;
+    private int epSquare = Square.NONE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash;
+
+    private int ply;
+    private int[] undoCaptured = new int[256];
+    private int[] undoCastling = new int[256];
+    private int[] undoEpSquare = new int[256];
+    private int[] undoHalfmove = new int[256];
+    private long[] undoHash = new long[256];
+
+    public Position() {
+        Arrays.fill(board, Piece.NONE);
+    }
+
+    public static Position startingPosition() {
+        return Fen.parse(START_FEN);
+    }
+
+    public static Position fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    public Position copy() {
+        return Fen.parse(toFen());
+    }
+
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[Piece.of(color, type)];
+    }
+
+    public long occupancy(int color) {
+        return colors[color];
+    }
+
+    public long occupancy() {
+        return colors[Piece.WHITE] | colors[Piece.BLACK];
+    }
+
+    public int pieceAt(int square) {
+        return board[square];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    public int epSquare() {
+        return epSquare;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Zobrist hash of the position. The en passant file only contributes when a pawn can
+     * actually capture there, and the move counters never do, so transpositions hash
+     * equally.
+     */
+    public long hash() {
+        return hash;
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[Piece.of(color, Piece.KING)]);
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare(sideToMove), 1 - sideToMove);
+    }
+
+    public boolean isAttacked(int square, int byColor) {
+        long occupied = occupancy();
+        return (Bitboards.pawnAttacks(1 - byColor, square) & pieces(byColor, Piece.PAWN)) != 0
+                || (Bitboards.knightAttacks(square) & pieces(byColor, Piece.KNIGHT)) != 0
+                || (Bitboards.kingAttacks(square) & pieces(byColor, Piece.KING)) != 0
+                || (Bitboards.bishopAttacks(square, occupied)
+                        & (pieces(byColor, Piece.BISHOP) | pieces(byColor, Piece.QUEEN))) != 0
+                || (Bitboards.rookAttacks(square, occupied)
+                        & (pieces(byColor, Piece.ROOK) | pieces(byColor, Piece.QUEEN))) != 0;
+    }
+
+    public boolean isCapture(int move) {
+        return board[Move.to(move)] != Piece.NONE || Move.kind(move) == Move.EN_PASSANT;
+    }
+
+    public void makeMove(int move) {
+        if (ply == undoCaptured.length) {
+            growUndoStack();
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        int piece = board[from];
+        int us = sideToMove;
+        int captured = board[to];
+
+        undoCastling[ply] = castlingRights;
+        undoEpSquare[ply] = epSquare;
+        undoHalfmove[ply] = halfmoveClock;
+        undoHash[ply] = hash;
+
+        hash ^= Zobrist.castling(castlingRights) ^ epKey();
+        halfmoveClock++;
+        epSquare = Square.NONE;
+
+        if (kind == Move.CASTLING) {
+            movePiece(from, to);
+            if (to > from) {
+                movePiece(from + 3, from + 1);
+            } else {
+                movePiece(from - 4, from - 1);
+            }
+        } else {
+            if (kind == Move.EN_PASSANT) {
+                int capturedSquare = us == Piece.WHITE ? to - 8 : to + 8;
+                captured = board[capturedSquare];
+                removePiece(capturedSquare);
+            } else if (captured != Piece.NONE) {
+                removePiece(to);
+            }
+            movePiece(from, to);
+            if (kind == Move.PROMOTION) {
+                removePiece(to);
+                putPiece(to, Piece.of(us, Move.promotionType(move)));
+            }
+            if (Piece.type(piece) == Piece.PAWN) {
+                halfmoveClock = 0;
+                if (Math.abs(to - from) == 16) {
+                    epSquare = (from + to) >>> 1;
+                }
+            }
+            if (captured != Piece.NONE) {
+                halfmoveClock = 0;
+            }
+        }
+
+        undoCaptured[ply] = captured;
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        if (us == Piece.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = 1 - us;
+        hash ^= Zobrist.castling(castlingRights) ^ epKey() ^ Zobrist.side();
+        ply++;
+    }
+
+    public void unmakeMove(int move) {
+        ply--;
+        sideToMove = 1 - sideToMove;
+        int us = sideToMove;
+        if (us == Piece.BLACK) {
+            fullmoveNumber--;
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        int captured = undoCaptured[ply];
+
+        if (kind == Move.CASTLING) {
+            movePiece(to, from);
+            if (to > from) {
+                movePiece(from + 1, from + 3);
+            } else {
+                movePiece(from - 1, from - 4);
+            }
+        } else {
+            if (kind == Move.PROMOTION) {
+                removePiece(to);
+                putPiece(to, Piece.of(us, Piece.PAWN));
+            }
+            movePiece(to, from);
+            if (kind == Move.EN_PASSANT) {
+                putPiece(us == Piece.WHITE ? to - 8 : to + 8, captured);
+            } else if (captured != Piece.NONE) {
+                putPiece(to, captured);
+            }
+        }
+
+        castlingRights = undoCastling[ply];
+        epSquare = undoEpSquare[ply];
+        halfmoveClock = undoHalfmove[ply];
+        hash = undoHash[ply];
+    }
+
+    void putPiece(int square, int piece) {
+        long b = Bitboards.bit(square);
+        board[square] = piece;
+        pieces[piece] |= b;
+        colors[Piece.color(piece)] |= b;
+        hash ^= Zobrist.piece(piece, square);
+    }
+
+    void recomputeHash() {
+        long h = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if (board[sq] != Piece.NONE) {
+                h ^= Zobrist.piece(board[sq], sq);
+            }
+        }
+        h ^= Zobrist.castling(castlingRights) ^ epKey();
+        if (sideToMove == Piece.BLACK) {
+            h ^= Zobrist.side();
+        }
+        hash = h;
+    }
+
+    void setSideToMove(int sideToMove) {
+        this.sideToMove = sideToMove;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    void setEpSquare(int epSquare) {
+        this.epSquare = epSquare;
+    }
+
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    private void removePiece(int square) {
+        int piece = board[square];
+        long b = Bitboards.bit(square);
+        board[square] = Piece.NONE;
+        pieces[piece] &= ~b;
+        colors[Piece.color(piece)] &= ~b;
+        hash ^= Zobrist.piece(piece, square);
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = board[from];
+        long fromTo = Bitboards.bit(from) | Bitboards.bit(to);
+        board[from] = Piece.NONE;
+        board[to] = piece;
+        pieces[piece] ^= fromTo;
+        colors[Piece.color(piece)] ^= fromTo;
+        hash ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+    }
+
+    private long epKey() {
+        if (epSquare == Square.NONE
+                || (Bitboards.pawnAttacks(1 - sideToMove, epSquare) & pieces(sideToMove, Piece.PAWN)) == 0) {
+            return 0;
+        }
+        return Zobrist.epFile(Square.file(epSquare));
+    }
+
+    private void growUndoStack() {
+        int size = undoCaptured.length * 2;
+        undoCaptured = Arrays.copyOf(undoCaptured, size);
+        undoCastling = Arrays.copyOf(undoCastling, size);
+        undoEpSquare = Arrays.copyOf(undoEpSquare, size);
+        undoHalfmove = Arrays.copyOf(undoHalfmove, size);
+        undoHash = Arrays.copyOf(undoHash, size);
+    }
+}
@@ -0,0 +1,158 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Conversion between moves and Standard Algebraic Notation for a given position.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    public static String format(Position position, int move) {
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, legal);
+        StringBuilder sb = new StringBuilder(8);
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        int type = Piece.type(position.pieceAt(from));
+
+        if (kind == Move.CASTLING) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == Piece.PAWN) {
+            if (position.isCapture(move)) {
+                sb.append((char) ('a' + Square.file(from))).append('x');
+            }
+            sb.append(Square.name(to));
+            if (kind == Move.PROMOTION) {
+                sb.append('=').append(Piece.sanLetter(Move.promotionType(move)));
+            }
+        } else {
+            sb.append(Piece.sanLetter(type));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            for (int i = 0; i < count; i++) {
+                int other = legal[i];
+                int otherFrom = Move.from(other);
+                if (otherFrom != from && Move.to(other) == to
+                        && Piece.type(position.pieceAt(otherFrom)) == type) {
+                    ambiguous = true;
+                    sameFile |= Square.file(otherFrom) == Square.file(from);
+                    sameRank |= Square.rank(otherFrom) == Square.rank(from);
+                }
+            }
+            if (ambiguous) {
+                if (!sameFile) {
+                    sb.append((char) ('a' + Square.file(from)));
+                } else if (!sameRank) {
+                    sb.append((char) ('1' + Square.rank(from)));
+                } else {
+                    sb.append(Square.name(from));
+                }
+            }
+            if (position.isCapture(move)) {
+                sb.append('x');
+            }
+            sb.append(Square.name(to));
+        }
+
+        position.makeMove(move);
+        if (position.inCheck()) {
+            sb.append(MoveGenerator.generateLegal(position, legal) == 0 ? '#' : '+');
+        }
+        position.unmakeMove(move);
+        return sb.toString();
+    }
+
+    public static int parse(Position position, String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            throw new IllegalMoveException("Invalid move '" + san + "'");
+        }
+
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, legal);
+
+        String core = san.substring(0, end).replace('0', 'O');
+        if (core.equals("O-O") || core.equals("O-O-O")) {
+            boolean kingside = core.equals("O-O");
+            for (int i = 0; i < count; i++) {
+                int move = legal[i];
+                if (Move.kind(move) == Move.CASTLING && (Move.to(move) > Move.from(move)) == kingside) {
+                    return move;
+                }
+            }
+            throw new IllegalMoveException("Illegal move '" + san + "'");
+        }
+
+        int type = Piece.PAWN;
+        int start = 0;
+        char first = core.charAt(0);
+        if ("NBRQK".indexOf(first) >= 0) {
+            type = Piece.fromSymbol(first);
+            start = 1;
+        }
+
+        int promotion = 0;
+        int stop = core.length();
+        char last = core.charAt(stop - 1);
+        if ("NBRQ".indexOf(last) >= 0 && type == Piece.PAWN) {
+            promotion = Piece.fromSymbol(last);
+            stop--;
+            if (core.charAt(stop - 1) == '=') {
+                stop--;
+            }
+        }
+        if (stop - start < 2) {
+            throw new IllegalMoveException("Invalid move '" + san + "'");
+        }
+
+        int to = Square.parse(core, stop - 2);
+        if (to == Square.NONE) {
+            throw new IllegalMoveException("Invalid move '" + san + "'");
+        }
+
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < stop - 2; i++) {
+            char c = core.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != '-') {
+                throw new IllegalMoveException("Invalid move '" + san + "'");
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = legal[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.kind(move) == Move.CASTLING
+                    || Piece.type(position.pieceAt(from)) != type
+                    || (fromFile >= 0 && Square.file(from) != fromFile)
+                    || (fromRank >= 0 && Square.rank(from) != fromRank)) {
+                continue;
+            }
+            boolean isPromotion = Move.kind(move) == Move.PROMOTION;
+            if (isPromotion != (promotion != 0)
+                    || (isPromotion && Move.promotionType(move) != promotion)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalMoveException("Ambiguous move '" + san + "'");
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalMoveException("Illegal move '" + san + "'");
+        }
+        return found;
+    }
+}
@@ -0,0 +1,37 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Squares are numbered 0 (a1) to 63 (h8), rank by rank.
+ */
+public final class Square {
+
+    public static final int NONE = -1;
+
+    private Square() {
+    }
+
+    public static int of(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+
+    public static String name(int square) {
+        return new String(new char[]{(char) ('a' + file(square)), (char) ('1' + rank(square))});
+    }
+
+    public static int parse(CharSequence s, int offset) {
+        char file = s.charAt(offset);
+        char rank = s.charAt(offset + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return NONE;
+        }
+        return of(file - 'a', rank - '1');
+    }
+}
@@ -0,0 +1,58 @@
+package com.metuncc.netchess.chess;
+
+/**
+ * Zobrist keys. The generator is seeded, so hashes are stable across restarts and can
+ * be persisted.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EP_FILE = new long[8];
+    private static final long SIDE;
+
+    static {
+        long state = 0x6E6574636865737AL;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                state += 0x9E3779B97F4A7C15L;
+                PIECE_SQUARE[piece][sq] = mix(state);
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            CASTLING[i] = mix(state);
+        }
+        for (int i = 0; i < 8; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            EP_FILE[i] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    static long epFile(int file) {
+        return EP_FILE[file];
+    }
+
+    static long side() {
+        return SIDE;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
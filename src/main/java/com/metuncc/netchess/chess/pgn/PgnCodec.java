@@ -0,0 +1,146 @@
+package com.metuncc.netchess.chess.pgn;
+
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Compact binary form of a game: a tag block followed by the moves as 16-bit
+ * {@link com.metuncc.netchess.chess.Move} codes. Comments and variations are not kept.
+ *
+ * <pre>
+ * u8      format version
+ * varint  tag count, then per tag: varint length + UTF-8 name, varint length + UTF-8 value
+ * u8      result (0 = *, 1 = 1-0, 2 = 0-1, 3 = 1/2-1/2)
+ * varint  move count, then per move: u16 big-endian
+ * </pre>
+ */
+public final class PgnCodec {
+
+    private static final int VERSION = 1;
+    private static final String[] RESULTS = { "*", "1-0", "0-1", "1/2-1/2" };
+
+    private PgnCodec() {
+    }
+
+    public static byte[] encode(PgnGame pgn, int[] moves) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + moves.length * 2);
+        out.write(VERSION);
+        writeVarint(out, pgn.getTags().size());
+        for (Map.Entry<String, String> tag : pgn.getTags().entrySet()) {
+            writeString(out, tag.getKey());
+            writeString(out, tag.getValue());
+        }
+        out.write(resultCode(pgn.getResult()));
+        writeVarint(out, moves.length);
+        for (int move : moves) {
+            out.write(move >>> 8);
+            out.write(move);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a game and regenerates its SAN movetext. The encoded moves are kept on the
+     * returned game so callers that only need move codes do not parse SAN again.
+     */
+    public static PgnGame decode(byte[] data) {
+        Cursor in = new Cursor(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new PgnParseException("Unsupported move data version " + version);
+        }
+
+        PgnGame pgn = new PgnGame();
+        int tagCount = in.readVarint();
+        for (int i = 0; i < tagCount; i++) {
+            String name = in.readString();
+            pgn.getTags().put(name, in.readString());
+        }
+        int result = in.readByte();
+        if (result >= RESULTS.length) {
+            throw new PgnParseException("Invalid result code " + result);
+        }
+        pgn.setResult(RESULTS[result]);
+
+        int[] moves = new int[in.readVarint()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (in.readByte() << 8) | in.readByte();
+        }
+
+        String fen = pgn.getTag("FEN");
+        Position position = fen != null ? Fen.parse(fen) : Position.startingPosition();
+        for (int move : moves) {
+            pgn.getMoves().add(San.format(position, move));
+            position.makeMove(move);
+        }
+        pgn.setEncodedMoves(moves);
+        return pgn;
+    }
+
+    private static int resultCode(String result) {
+        for (int i = 1; i < RESULTS.length; i++) {
+            if (RESULTS[i].equals(result)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static final class Cursor {
+
+        private final byte[] data;
+        private int pos;
+
+        Cursor(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (pos >= data.length) {
+                throw new PgnParseException("Truncated move data");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new PgnParseException("Malformed varint in move data");
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length > data.length - pos) {
+                throw new PgnParseException("Truncated move data");
+            }
+            String value = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.metuncc.netchess.chess.pgn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PgnGame {
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final List<String> moves = new ArrayList<>();
+    private String result = "*";
+    private String rawText;
+    private int[] encodedMoves;
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getRawText() {
+        return rawText;
+    }
+
+    public void setRawText(String rawText) {
+        this.rawText = rawText;
+    }
+
+    public int[] getEncodedMoves() {
+        return encodedMoves;
+    }
+
+    public void setEncodedMoves(int[] encodedMoves) {
+        this.encodedMoves = encodedMoves;
+    }
+}
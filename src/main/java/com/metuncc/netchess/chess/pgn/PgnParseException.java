@@ -0,0 +1,20 @@
+package com.metuncc.netchess.chess.pgn;
+
+public class PgnParseException extends RuntimeException {
+
+    private final int line;
+
+    public PgnParseException(String message, int line) {
+        super(message + " (line " + line + ")");
+        this.line = line;
+    }
+
+    public PgnParseException(String message) {
+        super(message);
+        this.line = 0;
+    }
+
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,285 @@
+package com.metuncc.netchess.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams games out of PGN text one at a time. Movetext is checked for SAN syntax,
+ * balanced variations and a sane termination; move legality is not checked here.
+ */
+public class PgnReader implements Closeable {
+
+    private final Reader reader;
+    private final PgnTokenizer tokenizer;
+    private final boolean captureRawText;
+
+    public PgnReader(Reader reader, boolean captureRawText) {
+        this.reader = reader;
+        this.tokenizer = new PgnTokenizer(reader);
+        this.captureRawText = captureRawText;
+    }
+
+    public PgnReader(InputStream in, boolean captureRawText) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8), captureRawText);
+    }
+
+    public PgnGame next() throws IOException {
+        if (tokenizer.peek() == -1) {
+            return null;
+        }
+
+        PgnGame game = new PgnGame();
+        if (captureRawText) {
+            tokenizer.beginCapture();
+        }
+
+        while (tokenizer.peek() == '[') {
+            readTag(game);
+        }
+        readMovetext(game);
+
+        if (game.getTags().isEmpty() && game.getMoves().isEmpty() && "*".equals(game.getResult())) {
+            throw new PgnParseException("Empty game", tokenizer.line());
+        }
+
+        game.setRawText(tokenizer.endCapture());
+        return game;
+    }
+
+    /**
+     * Whether a tag section follows, as another game would start, looking no further
+     * than the next significant character.
+     */
+    public boolean hasNextGame() throws IOException {
+        return tokenizer.peek() == '[';
+    }
+
+    /**
+     * Abandons the game that failed to parse so that reading can resume with the next one.
+     */
+    public void skipToNextGame() throws IOException {
+        tokenizer.skipToNextGame();
+    }
+
+    private void readTag(PgnGame game) throws IOException {
+        tokenizer.next();
+        expect(PgnTokenizer.SYMBOL, "Expected tag name");
+        String name = tokenizer.text().toString();
+        expect(PgnTokenizer.STRING, "Expected value for tag " + name);
+        String value = tokenizer.text().toString();
+        expect(PgnTokenizer.RIGHT_BRACKET, "Expected ']' after tag " + name);
+        game.getTags().put(name, value);
+    }
+
+    private void readMovetext(PgnGame game) throws IOException {
+        int depth = 0;
+        while (true) {
+            int c = tokenizer.peek();
+            if (c == -1 || (c == '[' && depth == 0)) {
+                break;
+            }
+
+            int token = tokenizer.next();
+            if (token == PgnTokenizer.PERIOD || token == PgnTokenizer.NAG) {
+                continue;
+            }
+            if (token == PgnTokenizer.LEFT_PAREN) {
+                depth++;
+                continue;
+            }
+            if (token == PgnTokenizer.RIGHT_PAREN) {
+                if (depth == 0) {
+                    throw new PgnParseException("Unbalanced ')' in movetext", tokenizer.line());
+                }
+                depth--;
+                continue;
+            }
+            if (token == PgnTokenizer.ASTERISK && depth == 0) {
+                game.setResult("*");
+                return;
+            }
+            if (token != PgnTokenizer.SYMBOL) {
+                throw new PgnParseException("Unexpected token in movetext", tokenizer.line());
+            }
+
+            CharSequence symbol = tokenizer.text();
+            if (isResult(symbol)) {
+                if (depth > 0) {
+                    throw new PgnParseException("Game result inside a variation", tokenizer.line());
+                }
+                game.setResult(symbol.toString());
+                return;
+            }
+            if (isMoveNumber(symbol) || isAnnotation(symbol)) {
+                continue;
+            }
+
+            int length = sanLength(symbol);
+            if (length < 0) {
+                throw new PgnParseException("Invalid move '" + symbol + "'", tokenizer.line());
+            }
+            if (depth == 0) {
+                game.getMoves().add(normalize(symbol, length));
+            }
+        }
+
+        if (depth != 0) {
+            throw new PgnParseException("Unterminated variation", tokenizer.line());
+        }
+    }
+
+    private void expect(int type, String message) throws IOException {
+        if (tokenizer.next() != type) {
+            throw new PgnParseException(message, tokenizer.line());
+        }
+    }
+
+    private static boolean isResult(CharSequence s) {
+        return contentEquals(s, "1-0") || contentEquals(s, "0-1") || contentEquals(s, "1/2-1/2");
+    }
+
+    private static boolean isMoveNumber(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAnnotation(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '!' && c != '?') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the length of the SAN move once trailing "!" / "?" annotations are dropped,
+     * or -1 when the symbol is not syntactically a SAN move.
+     */
+    static int sanLength(CharSequence s) {
+        int end = s.length();
+        while (end > 0 && (s.charAt(end - 1) == '!' || s.charAt(end - 1) == '?')) {
+            end--;
+        }
+        int core = end;
+        if (core > 0 && (s.charAt(core - 1) == '+' || s.charAt(core - 1) == '#')) {
+            core--;
+        }
+        if (core < 2) {
+            return -1;
+        }
+
+        if (isCastling(s, core)) {
+            return end;
+        }
+
+        char first = s.charAt(0);
+        if (first == 'K' || first == 'Q' || first == 'R' || first == 'B' || first == 'N') {
+            if (!isSquare(s, core - 2)) {
+                return -1;
+            }
+            int i = 1;
+            int middleEnd = core - 2;
+            if (middleEnd > i && s.charAt(middleEnd - 1) == 'x') {
+                middleEnd--;
+            }
+            if (i < middleEnd && isFile(s.charAt(i))) {
+                i++;
+            }
+            if (i < middleEnd && isRank(s.charAt(i))) {
+                i++;
+            }
+            return i == middleEnd ? end : -1;
+        }
+
+        if (!isFile(first)) {
+            return -1;
+        }
+        boolean promotion = false;
+        if (isPromotionPiece(s.charAt(core - 1))) {
+            promotion = true;
+            core--;
+            if (s.charAt(core - 1) == '=') {
+                core--;
+            }
+        }
+        if (core == 2) {
+            if (!isSquare(s, 0)) {
+                return -1;
+            }
+        } else if (core == 4) {
+            if (s.charAt(1) != 'x' || !isSquare(s, 2)) {
+                return -1;
+            }
+        } else {
+            return -1;
+        }
+        char rank = s.charAt(core - 1);
+        boolean lastRank = rank == '1' || rank == '8';
+        return promotion == lastRank ? end : -1;
+    }
+
+    private static boolean isCastling(CharSequence s, int core) {
+        if (core != 3 && core != 5) {
+            return false;
+        }
+        for (int i = 0; i < core; i++) {
+            char c = s.charAt(i);
+            boolean ok = (i % 2 == 0) ? (c == 'O' || c == '0') : c == '-';
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSquare(CharSequence s, int index) {
+        return index >= 0 && index + 1 < s.length() && isFile(s.charAt(index)) && isRank(s.charAt(index + 1));
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static boolean isPromotionPiece(char c) {
+        return c == 'Q' || c == 'R' || c == 'B' || c == 'N';
+    }
+
+    private static String normalize(CharSequence s, int length) {
+        if (s.charAt(0) == '0') {
+            return s.subSequence(0, length).toString().replace('0', 'O');
+        }
+        return s.subSequence(0, length).toString();
+    }
+
+    private static boolean contentEquals(CharSequence s, String expected) {
+        if (s.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
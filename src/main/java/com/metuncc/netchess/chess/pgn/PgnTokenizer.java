@@ -0,0 +1,252 @@
+package com.metuncc.netchess.chess.pgn;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Single pass PGN lexer over a {@link Reader}. Token text is written into one reused
+ * buffer, so the only per-token allocation happens when the caller decides to keep it.
+ */
+final class PgnTokenizer {
+
+    static final int EOF = 0;
+    static final int LEFT_BRACKET = 1;
+    static final int RIGHT_BRACKET = 2;
+    static final int LEFT_PAREN = 3;
+    static final int RIGHT_PAREN = 4;
+    static final int PERIOD = 5;
+    static final int ASTERISK = 6;
+    static final int STRING = 7;
+    static final int SYMBOL = 8;
+    static final int NAG = 9;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder text = new StringBuilder(64);
+    private StringBuilder raw;
+    private int position;
+    private int limit;
+    private int line = 1;
+    private boolean lineStart = true;
+    private boolean blankLine = true;
+    private boolean previousLineBlank = true;
+
+    PgnTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    int line() {
+        return line;
+    }
+
+    CharSequence text() {
+        return text;
+    }
+
+    void beginCapture() {
+        if (raw == null) {
+            raw = new StringBuilder(1024);
+        }
+        raw.setLength(0);
+    }
+
+    String endCapture() {
+        if (raw == null) {
+            return null;
+        }
+        String captured = raw.toString();
+        raw = null;
+        return captured;
+    }
+
+    /**
+     * Drops input up to the next tag section that follows an empty line, which is where
+     * the next game starts in any export that follows the PGN layout conventions.
+     */
+    void skipToNextGame() throws IOException {
+        raw = null;
+        boolean sawBlankLine = false;
+        while (true) {
+            int c = peekChar();
+            if (c == -1 || (c == '[' && lineStart && sawBlankLine)) {
+                return;
+            }
+            read();
+            if (lineStart && previousLineBlank) {
+                sawBlankLine = true;
+            }
+        }
+    }
+
+    /**
+     * Skips whitespace, comments and escape lines and returns the next significant
+     * character without consuming it, or -1 at end of input.
+     */
+    int peek() throws IOException {
+        skipInsignificant();
+        return peekChar();
+    }
+
+    int next() throws IOException {
+        skipInsignificant();
+        int c = read();
+        switch (c) {
+            case -1:
+                return EOF;
+            case '[':
+                return LEFT_BRACKET;
+            case ']':
+                return RIGHT_BRACKET;
+            case '(':
+                return LEFT_PAREN;
+            case ')':
+                return RIGHT_PAREN;
+            case '.':
+                return PERIOD;
+            case '*':
+                return ASTERISK;
+            case '"':
+                readString();
+                return STRING;
+            case '$':
+                readNag();
+                return NAG;
+            default:
+                if (isSymbolStart(c)) {
+                    readSymbol((char) c);
+                    return SYMBOL;
+                }
+                throw new PgnParseException("Unexpected character '" + (char) c + "'", line);
+        }
+    }
+
+    private void skipInsignificant() throws IOException {
+        while (true) {
+            int c = peekChar();
+            if (c == -1) {
+                return;
+            }
+            if (c == '%' && lineStart) {
+                skipLine();
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '{') {
+                skipBraceComment();
+            } else if (Character.isWhitespace(c) || c == '\uFEFF') {
+                read();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != '\n');
+    }
+
+    private void skipBraceComment() throws IOException {
+        int startLine = line;
+        read();
+        int c;
+        do {
+            c = read();
+            if (c == -1) {
+                throw new PgnParseException("Unterminated comment", startLine);
+            }
+        } while (c != '}');
+    }
+
+    private void readString() throws IOException {
+        text.setLength(0);
+        int startLine = line;
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n') {
+                throw new PgnParseException("Unterminated tag value", startLine);
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                int escaped = read();
+                if (escaped == -1) {
+                    throw new PgnParseException("Unterminated tag value", startLine);
+                }
+                c = escaped;
+            }
+            text.append((char) c);
+        }
+    }
+
+    private void readNag() throws IOException {
+        text.setLength(0);
+        while (isDigit(peekChar())) {
+            text.append((char) read());
+        }
+        if (text.length() == 0) {
+            throw new PgnParseException("Empty numeric annotation glyph", line);
+        }
+    }
+
+    private void readSymbol(char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        while (isSymbolPart(peekChar())) {
+            text.append((char) read());
+        }
+    }
+
+    private int peekChar() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        if (raw != null) {
+            raw.append(c);
+        }
+        if (c == '\n') {
+            line++;
+            previousLineBlank = blankLine;
+            blankLine = true;
+            lineStart = true;
+        } else {
+            lineStart = false;
+            if (!Character.isWhitespace(c)) {
+                blankLine = false;
+            }
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSymbolStart(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '!' || c == '?';
+    }
+
+    private static boolean isSymbolPart(int c) {
+        return isSymbolStart(c) || c == '_' || c == '+' || c == '#' || c == '=' || c == ':' || c == '-' || c == '/';
+    }
+}
@@ -0,0 +1,76 @@
+package com.metuncc.netchess.chess.pgn;
+
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.Piece;
+import com.metuncc.netchess.chess.Position;
+
+import java.util.Map;
+
+/**
+ * Export-format PGN: tag pairs, a blank line and movetext wrapped at 80 columns.
+ */
+public final class PgnWriter {
+
+    private static final int LINE_WIDTH = 80;
+
+    private PgnWriter() {
+    }
+
+    public static String write(PgnGame pgn) {
+        StringBuilder sb = new StringBuilder(256 + pgn.getMoves().size() * 6);
+        write(pgn, sb);
+        return sb.toString();
+    }
+
+    public static void write(PgnGame pgn, StringBuilder sb) {
+        for (Map.Entry<String, String> tag : pgn.getTags().entrySet()) {
+            sb.append('[').append(tag.getKey()).append(" \"");
+            String value = tag.getValue();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+            sb.append("\"]\n");
+        }
+        sb.append('\n');
+
+        String fen = pgn.getTag("FEN");
+        Position start = fen != null ? Fen.parse(fen) : null;
+        int moveNumber = start != null ? start.fullmoveNumber() : 1;
+        boolean white = start == null || start.sideToMove() == Piece.WHITE;
+
+        int lineStart = sb.length();
+        boolean first = true;
+        for (String san : pgn.getMoves()) {
+            if (white) {
+                lineStart = token(sb, lineStart, moveNumber + ".");
+            } else if (first) {
+                lineStart = token(sb, lineStart, moveNumber + "...");
+            }
+            lineStart = token(sb, lineStart, san);
+            if (!white) {
+                moveNumber++;
+            }
+            white = !white;
+            first = false;
+        }
+        token(sb, lineStart, pgn.getResult());
+        sb.append("\n\n");
+    }
+
+    private static int token(StringBuilder sb, int lineStart, String token) {
+        if (sb.length() > lineStart) {
+            if (sb.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                sb.append('\n');
+                lineStart = sb.length();
+            } else {
+                sb.append(' ');
+            }
+        }
+        sb.append(token);
+        return lineStart;
+    }
+}
@@ -4,6 +4,7 @@ import com.metuncc.netchess.dto.*;
 import com.metuncc.netchess.entity.User;
 import com.metuncc.netchess.repository.UserRepository;
 import com.metuncc.netchess.security.JwtTokenProvider;
+import com.metuncc.netchess.service.leaderboard.LeaderboardService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,15 +26,18 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final LeaderboardService leaderboardService;
 
     public AuthController(AuthenticationManager authenticationManager,
                           UserRepository userRepository,
                           PasswordEncoder passwordEncoder,
-                          JwtTokenProvider tokenProvider) {
+                          JwtTokenProvider tokenProvider,
+                          LeaderboardService leaderboardService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenProvider = tokenProvider;
+        this.leaderboardService = leaderboardService;
     }
 
     @PostMapping("/register")
@@ -67,6 +71,7 @@ public class AuthController {
         user.setActive(true);
 
         userRepository.save(user);
+        leaderboardService.update(user);
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully"));
     }
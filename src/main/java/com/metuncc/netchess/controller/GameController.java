@@ -1,67 +1,214 @@
 package com.metuncc.netchess.controller;
 
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.dto.CursorPage;
+import com.metuncc.netchess.dto.GameApprovalRequest;
+import com.metuncc.netchess.dto.GameImportReport;
+import com.metuncc.netchess.dto.GameSearchResult;
+import com.metuncc.netchess.dto.GameSummary;
+import com.metuncc.netchess.dto.GameTimeline;
 import com.metuncc.netchess.dto.GameUploadRequest;
 import com.metuncc.netchess.dto.MessageResponse;
+import com.metuncc.netchess.dto.PositionMatch;
 import com.metuncc.netchess.entity.Game;
 import com.metuncc.netchess.entity.Tournament;
 import com.metuncc.netchess.entity.User;
+import com.metuncc.netchess.exception.ConflictException;
 import com.metuncc.netchess.exception.ResourceNotFoundException;
 import com.metuncc.netchess.repository.GameRepository;
 import com.metuncc.netchess.repository.TournamentRepository;
 import com.metuncc.netchess.repository.UserRepository;
+import com.metuncc.netchess.service.GameApprovalService;
+import com.metuncc.netchess.service.GameArchiveService;
+import com.metuncc.netchess.service.GameExportService;
+import com.metuncc.netchess.service.GameImportService;
+import com.metuncc.netchess.service.GameListingService;
+import com.metuncc.netchess.service.GameSearchService;
+import com.metuncc.netchess.service.GameTimelineService;
+import com.metuncc.netchess.service.OpeningExplorerService;
+import com.metuncc.netchess.service.PgnDownloadService;
+import com.metuncc.netchess.service.PgnService;
+import com.metuncc.netchess.service.PlayerResolver;
+import com.metuncc.netchess.service.PlayerStatsService;
+import com.metuncc.netchess.service.PositionIndexService;
+import com.metuncc.netchess.service.RatingRecomputeService;
+import com.metuncc.netchess.service.StorageCleanupService;
 import com.metuncc.netchess.service.StorageService;
+import com.metuncc.netchess.service.storage.GzipCodec;
+import com.metuncc.netchess.service.storage.StagedUpload;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/games")
 public class GameController {
 
+    private static final Logger log = LoggerFactory.getLogger(GameController.class);
+
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final TournamentRepository tournamentRepository;
-    private final StorageService storageService;
+    private final PgnService pgnService;
+    private final GameImportService gameImportService;
+    private final PositionIndexService positionIndexService;
+    private final OpeningExplorerService openingExplorerService;
+    private final GameArchiveService gameArchiveService;
+    private final GameListingService gameListingService;
+    private final GameExportService gameExportService;
+    private final GameSearchService gameSearchService;
+    private final GameTimelineService gameTimelineService;
+    private final PgnDownloadService pgnDownloadService;
+    private final StorageCleanupService storageCleanupService;
+    private final GameApprovalService gameApprovalService;
+    private final PlayerStatsService playerStatsService;
+    private final RatingRecomputeService ratingRecomputeService;
+    private final PlayerResolver playerResolver;
 
     public GameController(GameRepository gameRepository,
                          UserRepository userRepository,
                          TournamentRepository tournamentRepository,
-                         StorageService storageService) {
+                         PgnService pgnService,
+                         GameImportService gameImportService,
+                         PositionIndexService positionIndexService,
+                         OpeningExplorerService openingExplorerService,
+                         GameArchiveService gameArchiveService,
+                         GameListingService gameListingService,
+                         GameExportService gameExportService,
+                         GameSearchService gameSearchService,
+                         GameTimelineService gameTimelineService,
+                         PgnDownloadService pgnDownloadService,
+                         StorageCleanupService storageCleanupService,
+                         GameApprovalService gameApprovalService,
+                         PlayerStatsService playerStatsService,
+                         RatingRecomputeService ratingRecomputeService,
+                         PlayerResolver playerResolver) {
         this.gameRepository = gameRepository;
         this.userRepository = userRepository;
         this.tournamentRepository = tournamentRepository;
-        this.storageService = storageService;
+        this.pgnService = pgnService;
+        this.gameImportService = gameImportService;
+        this.positionIndexService = positionIndexService;
+        this.openingExplorerService = openingExplorerService;
+        this.gameArchiveService = gameArchiveService;
+        this.gameListingService = gameListingService;
+        this.gameExportService = gameExportService;
+        this.gameSearchService = gameSearchService;
+        this.gameTimelineService = gameTimelineService;
+        this.pgnDownloadService = pgnDownloadService;
+        this.storageCleanupService = storageCleanupService;
+        this.gameApprovalService = gameApprovalService;
+        this.playerStatsService = playerStatsService;
+        this.ratingRecomputeService = ratingRecomputeService;
+        this.playerResolver = playerResolver;
     }
 
     @GetMapping
-    public ResponseEntity<List<Game>> getAllGames() {
-        List<Game> games = gameRepository.findAll();
-        return ResponseEntity.ok(games);
+    public ResponseEntity<CursorPage<GameSummary>> getAllGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameListingService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(gameListingService.all(cursor, size));
     }
 
     @GetMapping("/approved")
-    public ResponseEntity<List<Game>> getApprovedGames() {
-        List<Game> games = gameRepository.findByApprovedTrue();
-        return ResponseEntity.ok(games);
+    public ResponseEntity<CursorPage<GameSummary>> getApprovedGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameListingService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(gameListingService.byApproved(true, cursor, size));
     }
 
     @GetMapping("/pending")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Game>> getPendingGames() {
-        List<Game> games = gameRepository.findByApprovedFalse();
-        return ResponseEntity.ok(games);
+    public ResponseEntity<CursorPage<GameSummary>> getPendingGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameListingService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(gameListingService.byApproved(false, cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<GameSearchResult>> searchGames(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameSearchService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(gameSearchService.search(q, cursor, size));
+    }
+
+    @GetMapping("/by-position")
+    public ResponseEntity<?> getGamesByPosition(@RequestParam String fen,
+                                                @RequestParam(defaultValue = "50") int limit) {
+        try {
+            List<PositionMatch> matches = positionIndexService.findGames(fen, Math.min(Math.max(limit, 1), 200));
+            return ResponseEntity.ok(matches);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/positions/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> backfillPositionIndex() {
+        if (!positionIndexService.startBackfill()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Position index backfill is already running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Position index backfill started"));
+    }
+
+    @PostMapping("/compact")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> compactGames() {
+        int compacted = gameArchiveService.compact();
+        return ResponseEntity.ok(new MessageResponse("Compacted " + compacted + " games"));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportGames(
+            @RequestParam(required = false) UUID tournamentId,
+            @RequestParam(required = false) UUID playerId) {
+
+        if (tournamentId != null) {
+            Tournament tournament = tournamentRepository.findById(tournamentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Tournament not found"));
+            return pgnArchive("tournament-" + tournament.getId() + ".pgn.gz",
+                    out -> gameExportService.exportTournament(tournament.getId(), out));
+        }
+        if (playerId != null) {
+            User player = userRepository.findById(playerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            return pgnArchive(player.getUsername() + ".pgn.gz",
+                    out -> gameExportService.exportPlayer(player, out));
+        }
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Either tournamentId or playerId is required"));
+    }
+
+    @GetMapping("/export/all")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllGames() {
+        return pgnArchive("games.pgn.gz", gameExportService::exportAll);
     }
 
     @GetMapping("/{id}")
@@ -71,6 +218,115 @@ public class GameController {
         return ResponseEntity.ok(game);
     }
 
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<GameTimeline> getGameTimeline(@PathVariable UUID id, WebRequest request) {
+        // looked up first, so a deleted game answers 404 rather than 304
+        Game game = gameRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
+        // the moves of a stored game never change, so the id alone identifies the timeline
+        String etag = "\"timeline-" + id + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate())
+                .body(gameTimelineService.getTimeline(game));
+    }
+
+    @GetMapping("/{id}/pgn")
+    public ResponseEntity<StreamingResponseBody> downloadPgn(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) throws IOException {
+        Game game = gameRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
+
+        // stored files are gzip, so their tag is known without fetching them from S3
+        boolean stored = pgnDownloadService.isStored(game);
+        boolean gzipAccepted = acceptsGzip(acceptEncoding);
+        String etag = stored ? pgnDownloadService.etag(game, gzipAccepted) : null;
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        PgnDownloadService.PgnContent content = pgnDownloadService.open(game);
+        if (etag == null) {
+            etag = pgnDownloadService.etag(content);
+            if (request.checkNotModified(etag)) {
+                content.close();
+                return null;
+            }
+        }
+        // stored gzip goes out untouched to clients that accept it
+        boolean passThrough = content.isCompressed() && gzipAccepted;
+        CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate();
+        MediaType pgnType = MediaType.parseMediaType("application/x-chess-pgn");
+
+        if (content.isCompressed() && !passThrough) {
+            StreamingResponseBody body = out -> {
+                try (content) {
+                    content.writeDecodedTo(out);
+                }
+            };
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(pgnType)
+                    .body(body);
+        }
+
+        long length = content.length();
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        // a malformed, multi-range or stale If-Range request gets the whole file
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1 && ranges.get(0).getRangeStart(length) < length) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                partial = true;
+            } else if (ranges.size() == 1) {
+                content.close();
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+        }
+
+        long position = start;
+        long count = end - start + 1;
+        StreamingResponseBody body = out -> {
+            try (content) {
+                content.writeTo(out, position, count);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(pgnType)
+                .contentLength(count);
+        if (passThrough) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GzipCodec.ENCODING);
+        }
+        if (stored) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        return response.body(body);
+    }
+
     @PostMapping
     public ResponseEntity<?> uploadGame(@Valid @RequestBody GameUploadRequest request,
                                        Authentication authentication) {
@@ -84,15 +340,21 @@ public class GameController {
                     .orElseThrow(() -> new ResourceNotFoundException("Tournament not found"));
         }
 
+        PgnGame pgn = pgnService.parseSingle(request.getPgnContent());
+
         Game game = new Game();
         game.setId(UUID.randomUUID());
-        game.setPgnContent(request.getPgnContent());
+        pgnService.applyHeaders(game, pgn);
+        gameArchiveService.fingerprint(game, pgn);
+        rejectDuplicate(game);
+        gameArchiveService.store(game, pgn);
         game.setUploadedBy(uploader);
         game.setTournament(tournament);
         game.setApproved(false);
         game.setCreatedAt(LocalDateTime.now());
+        playerResolver.resolve(List.of(game));
 
-        gameRepository.save(game);
+        saveNew(game);
 
         return ResponseEntity.ok(game);
     }
@@ -123,27 +385,69 @@ public class GameController {
                         .orElseThrow(() -> new ResourceNotFoundException("Tournament not found"));
             }
 
-            String pgnContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-
-            String s3Key = storageService.uploadFile(file);
+            // one read of the upload feeds the parser while it is hashed and staged,
+            // compressed, for the background write
+            try (StagedUpload upload = gameArchiveService.stage(file.getInputStream())) {
+                PgnGame pgn = pgnService.parseSingle(upload.stream());
+                String sha256 = upload.finish();
+
+                Game game = new Game();
+                game.setId(UUID.randomUUID());
+                pgnService.applyHeaders(game, pgn);
+                game.setWhitePlayer(displayName(whitePlayer));
+                game.setBlackPlayer(displayName(blackPlayer));
+                game.setWhitePlayerId(whitePlayer.getId());
+                game.setBlackPlayerId(blackPlayer.getId());
+                game.setResult(result);
+                if (playedAt != null) {
+                    game.setGameDate(playedAt);
+                } else if (game.getGameDate() == null) {
+                    game.setGameDate(LocalDate.now());
+                }
+                gameArchiveService.fingerprint(game, pgn);
+                rejectDuplicate(game);
+
+                game.setContentSha256(sha256);
+                game.setS3Key(StorageService.contentKey(sha256));
+                game.setStorageStatus(Game.StorageStatus.PENDING);
+                gameArchiveService.store(game, pgn);
+                game.setUploadedBy(uploader);
+                game.setTournament(tournament);
+                game.setApproved(false);
+                game.setCreatedAt(LocalDateTime.now());
+
+                saveNew(game);
+                gameArchiveService.storeAsync(game, upload, file.getContentType());
+                return ResponseEntity.ok(game);
+            }
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to read file: " + e.getMessage()));
+        }
+    }
 
-            Game game = new Game();
-            game.setId(UUID.randomUUID());
-            game.setS3Key(s3Key);
-            game.setPgnContent(pgnContent);
-            game.setWhitePlayer(whitePlayer.toString());
-            game.setBlackPlayer(blackPlayer.toString());
-            game.setResult(result);
-            game.setGameDate(playedAt != null ? playedAt : LocalDate.now());
-            game.setUploadedBy(uploader);
-            game.setTournament(tournament);
-            game.setApproved(false);
-            game.setCreatedAt(LocalDateTime.now());
+    // the body is the PGN file itself, read as it arrives; as a multipart upload it would
+    // be held to spring.servlet.multipart.max-file-size, which club archives outgrow
+    @PostMapping(value = "/import", consumes = { "application/x-chess-pgn", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<?> importGames(
+            InputStream body,
+            @RequestParam(required = false) UUID tournamentId,
+            Authentication authentication) {
 
-            gameRepository.save(game);
+        String username = authentication.getName();
+        User uploader = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-            return ResponseEntity.ok(game);
+        Tournament tournament = null;
+        if (tournamentId != null) {
+            tournament = tournamentRepository.findById(tournamentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Tournament not found"));
+        }
 
+        try (InputStream in = body) {
+            GameImportReport report = gameImportService.importGames(in, uploader, tournament);
+            return ResponseEntity.ok(report);
         } catch (IOException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Failed to read file: " + e.getMessage()));
@@ -156,40 +460,133 @@ public class GameController {
         Game game = gameRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
 
-        game.setApproved(true);
-        gameRepository.save(game);
+        if (Boolean.TRUE.equals(game.getApproved()) || gameApprovalService.approve(List.of(id)).isEmpty()) {
+            return ResponseEntity.ok(new MessageResponse("Game is already approved"));
+        }
+        indexApproved(game);
 
         return ResponseEntity.ok(new MessageResponse("Game approved successfully"));
     }
 
+    /**
+     * Approves a batch of games, such as a whole tournament round, and rates them together
+     * in play order.
+     */
+    @PatchMapping("/approve")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> approveGames(@Valid @RequestBody GameApprovalRequest request) {
+        List<UUID> approved = gameApprovalService.approve(request.getGameIds());
+        for (Game game : gameRepository.findAllById(approved)) {
+            indexApproved(game);
+        }
+        return ResponseEntity.ok(new MessageResponse(approved.size() + " games approved successfully"));
+    }
+
+    private void indexApproved(Game game) {
+        try {
+            PgnGame pgn = gameArchiveService.load(game);
+            if (pgn != null) {
+                positionIndexService.indexGame(game.getId(), pgn);
+                openingExplorerService.addGame(pgn, game.getResult());
+                gameTimelineService.warm(game.getId(), pgn);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not index positions of game {}: {}", game.getId(), e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<?> deleteGame(@PathVariable UUID id) {
         Game game = gameRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
 
-        if (game.getS3Key() != null) {
-            storageService.deleteFile(game.getS3Key());
+        // a rated game takes a replay of all ratings with it, which also recounts statistics
+        boolean replayed = ratingRecomputeService.deleteGame(game.getId());
+        if (!replayed && Boolean.TRUE.equals(game.getApproved()) && game.getWhitePlayerId() != null
+                && game.getBlackPlayerId() != null) {
+            playerStatsService.rebuildPlayers(List.of(game.getWhitePlayerId(), game.getBlackPlayerId()));
+        }
+
+        if (Boolean.TRUE.equals(game.getApproved())) {
+            try {
+                PgnGame pgn = gameArchiveService.load(game);
+                if (pgn != null) {
+                    openingExplorerService.removeGame(pgn, game.getResult());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not remove game {} from the opening tree: {}", game.getId(), e.getMessage());
+            }
         }
 
-        gameRepository.delete(game);
+        // uploads are content-addressed, so other games may share the object
+        if (game.getS3Key() != null && !gameRepository.existsByS3KeyAndIdNot(game.getS3Key(), game.getId())) {
+            storageCleanupService.enqueue(game.getS3Key());
+        }
+        gameTimelineService.evict(game.getId());
 
         return ResponseEntity.ok(new MessageResponse("Game deleted successfully"));
     }
 
     @GetMapping("/tournament/{tournamentId}")
-    public ResponseEntity<List<Game>> getGamesByTournament(@PathVariable UUID tournamentId) {
-        List<Game> games = gameRepository.findByTournamentId(tournamentId);
-        return ResponseEntity.ok(games);
+    public ResponseEntity<CursorPage<GameSummary>> getGamesByTournament(
+            @PathVariable UUID tournamentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameListingService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(gameListingService.byTournament(tournamentId, cursor, size));
     }
 
     @GetMapping("/my-games")
-    public ResponseEntity<List<Game>> getMyGames(Authentication authentication) {
+    public ResponseEntity<CursorPage<GameSummary>> getMyGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + GameListingService.DEFAULT_PAGE_SIZE) int size,
+            Authentication authentication) {
         String username = authentication.getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        List<Game> games = gameRepository.findByUploadedBy(user);
-        return ResponseEntity.ok(games);
+        return ResponseEntity.ok(gameListingService.byUploader(user.getId(), cursor, size));
+    }
+
+    private void rejectDuplicate(Game game) {
+        if (gameRepository.existsByMoveHash(game.getMoveHash())) {
+            throw new ConflictException("This game has already been uploaded");
+        }
+    }
+
+    private void saveNew(Game game) {
+        try {
+            gameRepository.save(game);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("This game has already been uploaded");
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> pgnArchive(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private String displayName(User user) {
+        if (user.getFullName() != null && !user.getFullName().isBlank()) {
+            return user.getFullName();
+        }
+        return user.getUsername();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.metuncc.netchess.controller;
+
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+import com.metuncc.netchess.dto.MessageResponse;
+import com.metuncc.netchess.service.OpeningExplorerService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/openings")
+public class OpeningController {
+
+    private final OpeningExplorerService openingExplorerService;
+
+    public OpeningController(OpeningExplorerService openingExplorerService) {
+        this.openingExplorerService = openingExplorerService;
+    }
+
+    @GetMapping("/tree")
+    public ResponseEntity<?> getTree(@RequestParam(required = false) String fen,
+                                     @RequestParam(required = false) String moves) {
+        Position position;
+        try {
+            position = fen != null && !fen.isBlank() ? Fen.parse(fen) : Position.startingPosition();
+            if (moves != null) {
+                for (String san : moves.split("[\\s,]+")) {
+                    if (!san.isEmpty()) {
+                        position.makeMove(San.parse(position, san));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+        return ResponseEntity.ok(openingExplorerService.tree(position));
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuild() {
+        int games = openingExplorerService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Opening tree rebuilt from " + games + " games"));
+    }
+}
@@ -0,0 +1,27 @@
+package com.metuncc.netchess.controller;
+
+import com.metuncc.netchess.dto.HeadToHead;
+import com.metuncc.netchess.service.HeadToHeadService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/players")
+public class PlayerController {
+
+    private final HeadToHeadService headToHeadService;
+
+    public PlayerController(HeadToHeadService headToHeadService) {
+        this.headToHeadService = headToHeadService;
+    }
+
+    @GetMapping("/{a}/vs/{b}")
+    public ResponseEntity<HeadToHead> getHeadToHead(
+            @PathVariable UUID a,
+            @PathVariable UUID b,
+            @RequestParam(defaultValue = "" + HeadToHeadService.DEFAULT_LAST_GAMES) int last) {
+        return ResponseEntity.ok(headToHeadService.get(a, b, last));
+    }
+}
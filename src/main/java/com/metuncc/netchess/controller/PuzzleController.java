@@ -1,5 +1,9 @@
 package com.metuncc.netchess.controller;
 
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+import com.metuncc.netchess.dto.MessageResponse;
 import com.metuncc.netchess.entity.DailyPuzzle;
 import com.metuncc.netchess.exception.ResourceNotFoundException;
 import com.metuncc.netchess.repository.DailyPuzzleRepository;
@@ -31,7 +35,11 @@ public class PuzzleController {
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
-    public ResponseEntity<DailyPuzzle> createPuzzle(@RequestBody DailyPuzzle puzzle) {
+    public ResponseEntity<?> createPuzzle(@RequestBody DailyPuzzle puzzle) {
+        String error = validatePuzzle(puzzle);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new MessageResponse(error));
+        }
         puzzle.setCreatedAt(java.time.LocalDateTime.now());
         DailyPuzzle saved = puzzleRepository.save(puzzle);
         return ResponseEntity.ok(saved);
@@ -46,10 +54,15 @@ public class PuzzleController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
-    public ResponseEntity<DailyPuzzle> updatePuzzle(@PathVariable UUID id, @RequestBody DailyPuzzle puzzle) {
+    public ResponseEntity<?> updatePuzzle(@PathVariable UUID id, @RequestBody DailyPuzzle puzzle) {
         DailyPuzzle existing = puzzleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Puzzle not found"));
 
+        String error = validatePuzzle(puzzle);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new MessageResponse(error));
+        }
+
         existing.setPuzzleDate(puzzle.getPuzzleDate());
         existing.setFenPosition(puzzle.getFenPosition());
         existing.setSolution(puzzle.getSolution());
@@ -67,4 +80,19 @@ public class PuzzleController {
         puzzleRepository.deleteById(id);
         return ResponseEntity.ok(Map.of("message", "Puzzle deleted successfully"));
     }
+
+    private String validatePuzzle(DailyPuzzle puzzle) {
+        if (puzzle.getFenPosition() == null || puzzle.getSolution() == null) {
+            return "FEN position and solution are required";
+        }
+        try {
+            Position position = Fen.parse(puzzle.getFenPosition());
+            for (String san : puzzle.getSolution().split("\\|")) {
+                position.makeMove(San.parse(position, san.trim()));
+            }
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
 }
\ No newline at end of file
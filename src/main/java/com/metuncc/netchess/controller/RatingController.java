@@ -1,11 +1,23 @@
 package com.metuncc.netchess.controller;
 
+import com.metuncc.netchess.dto.MessageResponse;
+import com.metuncc.netchess.dto.RatingPeriodReport;
+import com.metuncc.netchess.dto.RatingRecomputeReport;
+import com.metuncc.netchess.dto.RatingSeries;
+import com.metuncc.netchess.entity.AuditLog;
 import com.metuncc.netchess.entity.RatingHistory;
 import com.metuncc.netchess.entity.User;
 import com.metuncc.netchess.exception.ResourceNotFoundException;
 import com.metuncc.netchess.repository.RatingHistoryRepository;
 import com.metuncc.netchess.repository.UserRepository;
+import com.metuncc.netchess.service.AuditService;
+import com.metuncc.netchess.service.PlayerStatsService;
+import com.metuncc.netchess.service.RatingPeriodService;
+import com.metuncc.netchess.service.RatingRecomputeService;
+import com.metuncc.netchess.service.RatingSeriesService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,11 +29,26 @@ public class RatingController {
 
     private final RatingHistoryRepository ratingHistoryRepository;
     private final UserRepository userRepository;
+    private final RatingRecomputeService ratingRecomputeService;
+    private final RatingPeriodService ratingPeriodService;
+    private final RatingSeriesService ratingSeriesService;
+    private final PlayerStatsService playerStatsService;
+    private final AuditService auditService;
 
     public RatingController(RatingHistoryRepository ratingHistoryRepository,
-                           UserRepository userRepository) {
+                           UserRepository userRepository,
+                           RatingRecomputeService ratingRecomputeService,
+                           RatingPeriodService ratingPeriodService,
+                           RatingSeriesService ratingSeriesService,
+                           PlayerStatsService playerStatsService,
+                           AuditService auditService) {
         this.ratingHistoryRepository = ratingHistoryRepository;
         this.userRepository = userRepository;
+        this.ratingRecomputeService = ratingRecomputeService;
+        this.ratingPeriodService = ratingPeriodService;
+        this.ratingSeriesService = ratingSeriesService;
+        this.playerStatsService = playerStatsService;
+        this.auditService = auditService;
     }
 
     @GetMapping("/player/{playerId}")
@@ -29,13 +56,58 @@ public class RatingController {
         User player = userRepository.findById(playerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Player not found"));
 
-        List<RatingHistory> history = ratingHistoryRepository.findByPlayerOrderByChangedAtDesc(player);
+        List<RatingHistory> history = ratingHistoryRepository.findByPlayerOrderBySeqDesc(player);
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/player/{playerId}/series")
+    public ResponseEntity<RatingSeries> getPlayerRatingSeries(
+            @PathVariable UUID playerId,
+            @RequestParam(defaultValue = "" + RatingSeriesService.DEFAULT_POINTS) int points) {
+        if (!userRepository.existsById(playerId)) {
+            throw new ResourceNotFoundException("Player not found");
+        }
+        return ResponseEntity.ok(ratingSeriesService.series(playerId, points));
+    }
+
     @GetMapping("/game/{gameId}")
     public ResponseEntity<List<RatingHistory>> getRatingChangesByGame(@PathVariable UUID gameId) {
         List<RatingHistory> history = ratingHistoryRepository.findByGameId(gameId);
         return ResponseEntity.ok(history);
     }
-}
\ No newline at end of file
+
+    /**
+     * Closes the current rating period now instead of waiting for the schedule.
+     */
+    @PostMapping("/periods")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingPeriodReport> closePeriod(Authentication authentication) {
+        RatingPeriodReport report = ratingPeriodService.closePeriod();
+        User admin = userRepository.findByUsername(authentication.getName()).orElse(null);
+        auditService.log(AuditLog.ActionType.RATING_UPDATE, admin, String.format(
+                "Rating period %d closed with %s: %d games, %d players rated", report.getPeriodId(),
+                report.getRatingSystem(), report.getGamesRated(), report.getPlayersRated()));
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingRecomputeReport> recompute(@RequestParam(defaultValue = "true") boolean dryRun,
+                                                           Authentication authentication) {
+        RatingRecomputeReport report = ratingRecomputeService.recompute(dryRun);
+        if (!dryRun) {
+            User admin = userRepository.findByUsername(authentication.getName()).orElse(null);
+            auditService.log(AuditLog.ActionType.RATING_RECOMPUTE, admin, String.format(
+                    "Ratings recomputed from %d games, %d players changed",
+                    report.getGamesReplayed(), report.getPlayersChanged()));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildStats() {
+        int players = playerStatsService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Statistics rebuilt for " + players + " players"));
+    }
+}
@@ -1,7 +1,11 @@
 package com.metuncc.netchess.controller;
 
 import com.metuncc.netchess.dto.MessageResponse;
+import com.metuncc.netchess.dto.PairingResponse;
+import com.metuncc.netchess.dto.PairingResultRequest;
+import com.metuncc.netchess.dto.RoundRobinRequest;
 import com.metuncc.netchess.dto.TournamentRequest;
+import com.metuncc.netchess.dto.TournamentRoundResponse;
 import com.metuncc.netchess.entity.Room;
 import com.metuncc.netchess.entity.Tournament;
 import com.metuncc.netchess.entity.User;
@@ -10,6 +14,7 @@ import com.metuncc.netchess.repository.RoomRepository;
 import com.metuncc.netchess.repository.TournamentRepository;
 import com.metuncc.netchess.repository.UserRepository;
 import com.metuncc.netchess.service.AuditService;
+import com.metuncc.netchess.service.TournamentPairingService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -29,15 +34,18 @@ public class TournamentController {
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final TournamentPairingService tournamentPairingService;
 
     public TournamentController(TournamentRepository tournamentRepository,
                                RoomRepository roomRepository,
                                UserRepository userRepository,
-                               AuditService auditService) {
+                               AuditService auditService,
+                               TournamentPairingService tournamentPairingService) {
         this.tournamentRepository = tournamentRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
         this.auditService = auditService;
+        this.tournamentPairingService = tournamentPairingService;
     }
 
     @GetMapping
@@ -72,6 +80,10 @@ public class TournamentController {
             return ResponseEntity.badRequest().body(new MessageResponse("Start date must be before end date"));
         }
 
+        if (!seatsEveryone(room, request.getMaxParticipants())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Room seats only " + room.getCapacity() + " players"));
+        }
+
         Tournament tournament = new Tournament();
         tournament.setId(UUID.randomUUID());
         tournament.setName(request.getName());
@@ -110,6 +122,11 @@ public class TournamentController {
             tournament.setRoom(room);
         }
 
+        if (!seatsEveryone(tournament.getRoom(), request.getMaxParticipants())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Room seats only " + tournament.getRoom().getCapacity() + " players"));
+        }
+
         tournament.setName(request.getName());
         tournament.setDescription(request.getDescription());
         tournament.setStartDate(request.getStartDate());
@@ -139,4 +156,46 @@ public class TournamentController {
         List<Tournament> tournaments = tournamentRepository.findByStatus(tournamentStatus);
         return ResponseEntity.ok(tournaments);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{id}/register")
+    public ResponseEntity<MessageResponse> register(@PathVariable UUID id, Authentication authentication) {
+        User player = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        tournamentPairingService.register(id, player.getId());
+        return ResponseEntity.ok(new MessageResponse("Registered for the tournament"));
+    }
+
+    @PostMapping("/{id}/rounds")
+    @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
+    public ResponseEntity<TournamentRoundResponse> pairNextRound(@PathVariable UUID id) {
+        return ResponseEntity.ok(tournamentPairingService.pairNextRound(id));
+    }
+
+    @PostMapping("/{id}/schedule/round-robin")
+    @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
+    public ResponseEntity<List<TournamentRoundResponse>> scheduleRoundRobin(
+            @PathVariable UUID id,
+            @Valid @RequestBody(required = false) RoundRobinRequest request) {
+        RoundRobinRequest options = request != null ? request : new RoundRobinRequest();
+        return ResponseEntity.ok(tournamentPairingService.scheduleRoundRobin(id, options.isDoubleRound(),
+                options.getRoomIds()));
+    }
+
+    @GetMapping("/{id}/rounds/{number}")
+    public ResponseEntity<TournamentRoundResponse> getRound(@PathVariable UUID id, @PathVariable int number) {
+        return ResponseEntity.ok(tournamentPairingService.getRound(id, number));
+    }
+
+    @PatchMapping("/{id}/rounds/{number}/pairings/{board}")
+    @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
+    public ResponseEntity<PairingResponse> recordResult(@PathVariable UUID id,
+                                                        @PathVariable int number,
+                                                        @PathVariable int board,
+                                                        @Valid @RequestBody PairingResultRequest request) {
+        return ResponseEntity.ok(tournamentPairingService.recordResult(id, number, board, request.getResult()));
+    }
+
+    private static boolean seatsEveryone(Room room, Integer maxParticipants) {
+        return room == null || maxParticipants == null || maxParticipants <= room.getCapacity();
+    }
+}
@@ -1,13 +1,16 @@
 package com.metuncc.netchess.controller;
 
+import com.metuncc.netchess.dto.LeaderboardEntry;
 import com.metuncc.netchess.dto.MessageResponse;
+import com.metuncc.netchess.dto.PlayerRank;
+import com.metuncc.netchess.dto.PlayerStats;
 import com.metuncc.netchess.dto.RegisterRequest;
 import com.metuncc.netchess.dto.UserResponse;
 import com.metuncc.netchess.entity.User;
 import com.metuncc.netchess.exception.ResourceNotFoundException;
 import com.metuncc.netchess.repository.UserRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import com.metuncc.netchess.service.PlayerStatsService;
+import com.metuncc.netchess.service.leaderboard.LeaderboardService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -24,10 +27,15 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LeaderboardService leaderboardService;
+    private final PlayerStatsService playerStatsService;
 
-    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          LeaderboardService leaderboardService, PlayerStatsService playerStatsService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.leaderboardService = leaderboardService;
+        this.playerStatsService = playerStatsService;
     }
 
     @GetMapping("/me")
@@ -50,14 +58,20 @@ public class UserController {
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<UserResponse>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<User> topPlayers = userRepository.findTopPlayersByRating(pageable);
-        List<UserResponse> response = topPlayers.stream()
-                .map(UserResponse::new)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(@RequestParam(defaultValue = "0") int offset,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.page(offset, limit));
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/leaderboard/{id}/rank")
+    public ResponseEntity<PlayerRank> getRank(@PathVariable UUID id) {
+        return ResponseEntity.ok(leaderboardService.rank(id));
+    }
+
+    @GetMapping("/leaderboard/{id}/around")
+    public ResponseEntity<List<LeaderboardEntry>> getPlayersAround(@PathVariable UUID id,
+                                                                   @RequestParam(defaultValue = "5") int radius) {
+        return ResponseEntity.ok(leaderboardService.around(id, radius));
     }
 
     @GetMapping("/{id}")
@@ -68,6 +82,11 @@ public class UserController {
         return ResponseEntity.ok(new UserResponse(user));
     }
 
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<PlayerStats> getUserStats(@PathVariable UUID id) {
+        return ResponseEntity.ok(playerStatsService.get(id));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> createUser(@RequestBody RegisterRequest request) {
@@ -108,6 +127,7 @@ public class UserController {
         user.setActive(true);
 
         userRepository.save(user);
+        leaderboardService.update(user);
 
         return ResponseEntity.ok(user);
     }
@@ -116,6 +136,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable UUID id) {
         userRepository.deleteById(id);
+        leaderboardService.remove(id);
         return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
     }
 
@@ -153,6 +174,7 @@ public class UserController {
 
         user.setUpdatedAt(LocalDateTime.now());
         User updated = userRepository.save(user);
+        leaderboardService.update(updated);
         return ResponseEntity.ok(updated);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.metuncc.netchess.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class GameApprovalRequest {
+
+    @NotEmpty(message = "At least one game is required")
+    @Size(max = 1000)
+    private List<UUID> gameIds;
+
+    public List<UUID> getGameIds() {
+        return gameIds;
+    }
+
+    public void setGameIds(List<UUID> gameIds) {
+        this.gameIds = gameIds;
+    }
+}
@@ -0,0 +1,43 @@
+package com.metuncc.netchess.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameImportReport {
+
+    private final List<GameImportResult> games = new ArrayList<>();
+
+    public void add(GameImportResult result) {
+        games.add(result);
+    }
+
+    public int getTotal() {
+        return games.size();
+    }
+
+    public int getImported() {
+        return count(GameImportResult.Status.IMPORTED);
+    }
+
+    public int getRejected() {
+        return count(GameImportResult.Status.REJECTED);
+    }
+
+    public int getFailed() {
+        return count(GameImportResult.Status.FAILED);
+    }
+
+    public List<GameImportResult> getGames() {
+        return games;
+    }
+
+    private int count(GameImportResult.Status status) {
+        int n = 0;
+        for (GameImportResult game : games) {
+            if (game.getStatus() == status) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,81 @@
+package com.metuncc.netchess.dto;
+
+import java.util.UUID;
+
+public class GameImportResult {
+
+    public enum Status {
+        IMPORTED,
+        REJECTED,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private UUID gameId;
+    private String whitePlayer;
+    private String blackPlayer;
+    private String result;
+    private String message;
+
+    public GameImportResult(int index, Status status) {
+        this.index = index;
+        this.status = status;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    public void setWhitePlayer(String whitePlayer) {
+        this.whitePlayer = whitePlayer;
+    }
+
+    public String getBlackPlayer() {
+        return blackPlayer;
+    }
+
+    public void setBlackPlayer(String blackPlayer) {
+        this.blackPlayer = blackPlayer;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
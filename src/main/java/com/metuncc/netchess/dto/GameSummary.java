@@ -0,0 +1,180 @@
+package com.metuncc.netchess.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Game listing row without the PGN body. Built by JPQL constructor expressions in
+ * {@link com.metuncc.netchess.repository.GameRepository}.
+ */
+public class GameSummary {
+
+    private UUID id;
+    private String event;
+    private String site;
+    private LocalDate gameDate;
+    private String round;
+    private String whitePlayer;
+    private String blackPlayer;
+    private String result;
+    private String eco;
+    private String s3Key;
+    private Boolean approved;
+    private String uploadedBy;
+    private UUID tournamentId;
+    private String tournamentName;
+    private LocalDateTime createdAt;
+
+    public GameSummary(UUID id,
+                       String event,
+                       String site,
+                       LocalDate gameDate,
+                       String round,
+                       String whitePlayer,
+                       String blackPlayer,
+                       String result,
+                       String eco,
+                       String s3Key,
+                       Boolean approved,
+                       String uploadedBy,
+                       UUID tournamentId,
+                       String tournamentName,
+                       LocalDateTime createdAt) {
+        this.id = id;
+        this.event = event;
+        this.site = site;
+        this.gameDate = gameDate;
+        this.round = round;
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.result = result;
+        this.eco = eco;
+        this.s3Key = s3Key;
+        this.approved = approved;
+        this.uploadedBy = uploadedBy;
+        this.tournamentId = tournamentId;
+        this.tournamentName = tournamentName;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public void setEvent(String event) {
+        this.event = event;
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public void setSite(String site) {
+        this.site = site;
+    }
+
+    public LocalDate getGameDate() {
+        return gameDate;
+    }
+
+    public void setGameDate(LocalDate gameDate) {
+        this.gameDate = gameDate;
+    }
+
+    public String getRound() {
+        return round;
+    }
+
+    public void setRound(String round) {
+        this.round = round;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    public void setWhitePlayer(String whitePlayer) {
+        this.whitePlayer = whitePlayer;
+    }
+
+    public String getBlackPlayer() {
+        return blackPlayer;
+    }
+
+    public void setBlackPlayer(String blackPlayer) {
+        this.blackPlayer = blackPlayer;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getEco() {
+        return eco;
+    }
+
+    public void setEco(String eco) {
+        this.eco = eco;
+    }
+
+    public String getS3Key() {
+        return s3Key;
+    }
+
+    public void setS3Key(String s3Key) {
+        this.s3Key = s3Key;
+    }
+
+    public Boolean getApproved() {
+        return approved;
+    }
+
+    public void setApproved(Boolean approved) {
+        this.approved = approved;
+    }
+
+    public String getUploadedBy() {
+        return uploadedBy;
+    }
+
+    public void setUploadedBy(String uploadedBy) {
+        this.uploadedBy = uploadedBy;
+    }
+
+    public UUID getTournamentId() {
+        return tournamentId;
+    }
+
+    public void setTournamentId(UUID tournamentId) {
+        this.tournamentId = tournamentId;
+    }
+
+    public String getTournamentName() {
+        return tournamentName;
+    }
+
+    public void setTournamentName(String tournamentName) {
+        this.tournamentName = tournamentName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.metuncc.netchess.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class GameTimeline {
+
+    private UUID gameId;
+    private String startFen;
+    private String result;
+    private List<TimelinePly> plies;
+
+    public GameTimeline(UUID gameId, String startFen, String result, List<TimelinePly> plies) {
+        this.gameId = gameId;
+        this.startFen = startFen;
+        this.result = result;
+        this.plies = plies;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getStartFen() {
+        return startFen;
+    }
+
+    public void setStartFen(String startFen) {
+        this.startFen = startFen;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public List<TimelinePly> getPlies() {
+        return plies;
+    }
+
+    public void setPlies(List<TimelinePly> plies) {
+        this.plies = plies;
+    }
+}
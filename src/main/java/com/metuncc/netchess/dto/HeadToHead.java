@@ -0,0 +1,105 @@
+package com.metuncc.netchess.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One player's record against another, from the first player's side.
+ */
+public class HeadToHead {
+
+    private UUID playerId;
+    private UUID opponentId;
+    private int games;
+    private int wins;
+    private int draws;
+    private int losses;
+    private int ratingChange;
+    private int opponentRatingChange;
+    private LocalDateTime lastPlayedAt;
+    private List<HeadToHeadGame> lastGames;
+
+    public HeadToHead() {
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    public UUID getOpponentId() {
+        return opponentId;
+    }
+
+    public void setOpponentId(UUID opponentId) {
+        this.opponentId = opponentId;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public void setWins(int wins) {
+        this.wins = wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public void setDraws(int draws) {
+        this.draws = draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public void setLosses(int losses) {
+        this.losses = losses;
+    }
+
+    public int getRatingChange() {
+        return ratingChange;
+    }
+
+    public void setRatingChange(int ratingChange) {
+        this.ratingChange = ratingChange;
+    }
+
+    public int getOpponentRatingChange() {
+        return opponentRatingChange;
+    }
+
+    public void setOpponentRatingChange(int opponentRatingChange) {
+        this.opponentRatingChange = opponentRatingChange;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public void setLastPlayedAt(LocalDateTime lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+
+    public List<HeadToHeadGame> getLastGames() {
+        return lastGames;
+    }
+
+    public void setLastGames(List<HeadToHeadGame> lastGames) {
+        this.lastGames = lastGames;
+    }
+}
@@ -0,0 +1,65 @@
+package com.metuncc.netchess.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class HeadToHeadGame {
+
+    private final UUID id;
+    private final String event;
+    private final LocalDate gameDate;
+    private final String whitePlayer;
+    private final String blackPlayer;
+    private final String result;
+    private final Integer ratingChange;
+    private final LocalDateTime createdAt;
+
+    public HeadToHeadGame(UUID id, String event, LocalDate gameDate, String whitePlayer, String blackPlayer,
+                          String result, Integer ratingChange, LocalDateTime createdAt) {
+        this.id = id;
+        this.event = event;
+        this.gameDate = gameDate;
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.result = result;
+        this.ratingChange = ratingChange;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public LocalDate getGameDate() {
+        return gameDate;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    public String getBlackPlayer() {
+        return blackPlayer;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * The first player's rating change from this game; null when it was not rated
+     * game by game.
+     */
+    public Integer getRatingChange() {
+        return ratingChange;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.metuncc.netchess.dto;
+
+import com.metuncc.netchess.service.leaderboard.LeaderboardPlayer;
+
+import java.util.UUID;
+
+public class LeaderboardEntry {
+
+    private final int rank;
+    private final UUID id;
+    private final String username;
+    private final String fullName;
+    private final int nccElo;
+    private final int gamesPlayed;
+
+    public LeaderboardEntry(int rank, LeaderboardPlayer player) {
+        this.rank = rank;
+        this.id = player.getId();
+        this.username = player.getUsername();
+        this.fullName = player.getFullName();
+        this.nccElo = player.getRating();
+        this.gamesPlayed = player.getGamesPlayed();
+    }
+
+    /**
+     * Players with equal ratings share a rank.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public int getNccElo() {
+        return nccElo;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+}
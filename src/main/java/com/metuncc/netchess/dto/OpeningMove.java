@@ -0,0 +1,68 @@
+package com.metuncc.netchess.dto;
+
+public class OpeningMove {
+
+    private String san;
+    private String uci;
+    private int games;
+    private double whitePercent;
+    private double drawPercent;
+    private double blackPercent;
+    private Integer averageElo;
+
+    public String getSan() {
+        return san;
+    }
+
+    public void setSan(String san) {
+        this.san = san;
+    }
+
+    public String getUci() {
+        return uci;
+    }
+
+    public void setUci(String uci) {
+        this.uci = uci;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public double getWhitePercent() {
+        return whitePercent;
+    }
+
+    public void setWhitePercent(double whitePercent) {
+        this.whitePercent = whitePercent;
+    }
+
+    public double getDrawPercent() {
+        return drawPercent;
+    }
+
+    public void setDrawPercent(double drawPercent) {
+        this.drawPercent = drawPercent;
+    }
+
+    public double getBlackPercent() {
+        return blackPercent;
+    }
+
+    public void setBlackPercent(double blackPercent) {
+        this.blackPercent = blackPercent;
+    }
+
+    public Integer getAverageElo() {
+        return averageElo;
+    }
+
+    public void setAverageElo(Integer averageElo) {
+        this.averageElo = averageElo;
+    }
+}
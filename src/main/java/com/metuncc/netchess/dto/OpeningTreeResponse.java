@@ -0,0 +1,40 @@
+package com.metuncc.netchess.dto;
+
+import java.util.List;
+
+public class OpeningTreeResponse {
+
+    private String fen;
+    private int games;
+    private List<OpeningMove> moves;
+
+    public OpeningTreeResponse(String fen, int games, List<OpeningMove> moves) {
+        this.fen = fen;
+        this.games = games;
+        this.moves = moves;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public void setFen(String fen) {
+        this.fen = fen;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public List<OpeningMove> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<OpeningMove> moves) {
+        this.moves = moves;
+    }
+}
@@ -0,0 +1,62 @@
+package com.metuncc.netchess.dto;
+
+import java.util.UUID;
+
+public class PairingResponse {
+
+    private final int board;
+    private final UUID whitePlayerId;
+    private final String whiteUsername;
+    private final UUID blackPlayerId;
+    private final String blackUsername;
+    private final String result;
+    private final UUID roomId;
+    private final String roomName;
+
+    public PairingResponse(int board, UUID whitePlayerId, String whiteUsername, UUID blackPlayerId,
+                           String blackUsername, String result, UUID roomId, String roomName) {
+        this.board = board;
+        this.whitePlayerId = whitePlayerId;
+        this.whiteUsername = whiteUsername;
+        this.blackPlayerId = blackPlayerId;
+        this.blackUsername = blackUsername;
+        this.result = result;
+        this.roomId = roomId;
+        this.roomName = roomName;
+    }
+
+    public int getBoard() {
+        return board;
+    }
+
+    public UUID getWhitePlayerId() {
+        return whitePlayerId;
+    }
+
+    public String getWhiteUsername() {
+        return whiteUsername;
+    }
+
+    /**
+     * Null when the white player has the bye.
+     */
+    public UUID getBlackPlayerId() {
+        return blackPlayerId;
+    }
+
+    public String getBlackUsername() {
+        return blackUsername;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public UUID getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.metuncc.netchess.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public class PairingResultRequest {
+
+    @NotNull(message = "Result is required")
+    @Pattern(regexp = "1-0|0-1|1/2-1/2", message = "Result must be 1-0, 0-1 or 1/2-1/2")
+    private String result;
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+}
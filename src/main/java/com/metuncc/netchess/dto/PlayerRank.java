@@ -0,0 +1,29 @@
+package com.metuncc.netchess.dto;
+
+public class PlayerRank {
+
+    private final LeaderboardEntry player;
+    private final int totalPlayers;
+    private final double percentile;
+
+    public PlayerRank(LeaderboardEntry player, int totalPlayers, double percentile) {
+        this.player = player;
+        this.totalPlayers = totalPlayers;
+        this.percentile = percentile;
+    }
+
+    public LeaderboardEntry getPlayer() {
+        return player;
+    }
+
+    public int getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    /**
+     * Share of the other players rated lower, from 0 to 100.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+}
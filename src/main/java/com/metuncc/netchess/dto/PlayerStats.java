@@ -0,0 +1,127 @@
+package com.metuncc.netchess.dto;
+
+import java.util.UUID;
+
+public class PlayerStats {
+
+    private UUID playerId;
+    private int whiteWins;
+    private int whiteDraws;
+    private int whiteLosses;
+    private int blackWins;
+    private int blackDraws;
+    private int blackLosses;
+    private int currentStreak;
+    private int bestWinStreak;
+    private int peakRating;
+    private Integer averageOpponentRating;
+
+    public PlayerStats() {
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    public int getWhiteWins() {
+        return whiteWins;
+    }
+
+    public void setWhiteWins(int whiteWins) {
+        this.whiteWins = whiteWins;
+    }
+
+    public int getWhiteDraws() {
+        return whiteDraws;
+    }
+
+    public void setWhiteDraws(int whiteDraws) {
+        this.whiteDraws = whiteDraws;
+    }
+
+    public int getWhiteLosses() {
+        return whiteLosses;
+    }
+
+    public void setWhiteLosses(int whiteLosses) {
+        this.whiteLosses = whiteLosses;
+    }
+
+    public int getBlackWins() {
+        return blackWins;
+    }
+
+    public void setBlackWins(int blackWins) {
+        this.blackWins = blackWins;
+    }
+
+    public int getBlackDraws() {
+        return blackDraws;
+    }
+
+    public void setBlackDraws(int blackDraws) {
+        this.blackDraws = blackDraws;
+    }
+
+    public int getBlackLosses() {
+        return blackLosses;
+    }
+
+    public void setBlackLosses(int blackLosses) {
+        this.blackLosses = blackLosses;
+    }
+
+    public int getWins() {
+        return whiteWins + blackWins;
+    }
+
+    public int getDraws() {
+        return whiteDraws + blackDraws;
+    }
+
+    public int getLosses() {
+        return whiteLosses + blackLosses;
+    }
+
+    /**
+     * Positive for a run of wins, negative for a run of losses, 0 after a draw.
+     */
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(int currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public int getBestWinStreak() {
+        return bestWinStreak;
+    }
+
+    public void setBestWinStreak(int bestWinStreak) {
+        this.bestWinStreak = bestWinStreak;
+    }
+
+    public int getPeakRating() {
+        return peakRating;
+    }
+
+    public void setPeakRating(int peakRating) {
+        this.peakRating = peakRating;
+    }
+
+    /**
+     * Null until the player has a rated game.
+     */
+    public Integer getAverageOpponentRating() {
+        return averageOpponentRating;
+    }
+
+    public void setAverageOpponentRating(Integer averageOpponentRating) {
+        this.averageOpponentRating = averageOpponentRating;
+    }
+}
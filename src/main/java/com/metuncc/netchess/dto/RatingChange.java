@@ -0,0 +1,47 @@
+package com.metuncc.netchess.dto;
+
+import java.util.UUID;
+
+public class RatingChange {
+
+    private final UUID playerId;
+    private final String username;
+    private final int currentRating;
+    private final int recomputedRating;
+    private final int currentGames;
+    private final int recomputedGames;
+
+    public RatingChange(UUID playerId, String username, int currentRating, int recomputedRating,
+                        int currentGames, int recomputedGames) {
+        this.playerId = playerId;
+        this.username = username;
+        this.currentRating = currentRating;
+        this.recomputedRating = recomputedRating;
+        this.currentGames = currentGames;
+        this.recomputedGames = recomputedGames;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getCurrentRating() {
+        return currentRating;
+    }
+
+    public int getRecomputedRating() {
+        return recomputedRating;
+    }
+
+    public int getCurrentGames() {
+        return currentGames;
+    }
+
+    public int getRecomputedGames() {
+        return recomputedGames;
+    }
+}
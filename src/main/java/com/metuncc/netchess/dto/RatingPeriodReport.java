@@ -0,0 +1,32 @@
+package com.metuncc.netchess.dto;
+
+public class RatingPeriodReport {
+
+    private final long periodId;
+    private final String ratingSystem;
+    private final int gamesRated;
+    private final int playersRated;
+
+    public RatingPeriodReport(long periodId, String ratingSystem, int gamesRated, int playersRated) {
+        this.periodId = periodId;
+        this.ratingSystem = ratingSystem;
+        this.gamesRated = gamesRated;
+        this.playersRated = playersRated;
+    }
+
+    public long getPeriodId() {
+        return periodId;
+    }
+
+    public String getRatingSystem() {
+        return ratingSystem;
+    }
+
+    public int getGamesRated() {
+        return gamesRated;
+    }
+
+    public int getPlayersRated() {
+        return playersRated;
+    }
+}
@@ -0,0 +1,32 @@
+package com.metuncc.netchess.dto;
+
+import java.util.List;
+
+public class RatingRecomputeReport {
+
+    private final boolean dryRun;
+    private final int gamesReplayed;
+    private final List<RatingChange> changes;
+
+    public RatingRecomputeReport(boolean dryRun, int gamesReplayed, List<RatingChange> changes) {
+        this.dryRun = dryRun;
+        this.gamesReplayed = gamesReplayed;
+        this.changes = changes;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public int getGamesReplayed() {
+        return gamesReplayed;
+    }
+
+    public int getPlayersChanged() {
+        return changes.size();
+    }
+
+    public List<RatingChange> getChanges() {
+        return changes;
+    }
+}
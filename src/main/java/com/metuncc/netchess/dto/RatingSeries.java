@@ -0,0 +1,34 @@
+package com.metuncc.netchess.dto;
+
+import java.util.UUID;
+
+public class RatingSeries {
+
+    private final UUID playerId;
+    private final int totalPoints;
+    private final int[][] points;
+
+    public RatingSeries(UUID playerId, int totalPoints, int[][] points) {
+        this.playerId = playerId;
+        this.totalPoints = totalPoints;
+        this.points = points;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * The number of rating changes before downsampling.
+     */
+    public int getTotalPoints() {
+        return totalPoints;
+    }
+
+    /**
+     * [epochDay, rating] pairs in time order.
+     */
+    public int[][] getPoints() {
+        return points;
+    }
+}
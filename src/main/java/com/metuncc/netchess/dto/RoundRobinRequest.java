@@ -0,0 +1,33 @@
+package com.metuncc.netchess.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class RoundRobinRequest {
+
+    private boolean doubleRound;
+
+    @Size(max = 50)
+    private List<UUID> roomIds;
+
+    public boolean isDoubleRound() {
+        return doubleRound;
+    }
+
+    public void setDoubleRound(boolean doubleRound) {
+        this.doubleRound = doubleRound;
+    }
+
+    /**
+     * Rooms to fill with boards in this order; the tournament's own room when empty.
+     */
+    public List<UUID> getRoomIds() {
+        return roomIds;
+    }
+
+    public void setRoomIds(List<UUID> roomIds) {
+        this.roomIds = roomIds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.metuncc.netchess.dto;
+
+public class TimelinePly {
+
+    private int ply;
+    private String san;
+    private String uci;
+    private String fen;
+
+    public TimelinePly(int ply, String san, String uci, String fen) {
+        this.ply = ply;
+        this.san = san;
+        this.uci = uci;
+        this.fen = fen;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
+
+    public String getSan() {
+        return san;
+    }
+
+    public void setSan(String san) {
+        this.san = san;
+    }
+
+    public String getUci() {
+        return uci;
+    }
+
+    public void setUci(String uci) {
+        this.uci = uci;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public void setFen(String fen) {
+        this.fen = fen;
+    }
+}
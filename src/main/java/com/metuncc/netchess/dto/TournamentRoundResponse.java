@@ -0,0 +1,36 @@
+package com.metuncc.netchess.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TournamentRoundResponse {
+
+    private final int roundNumber;
+    private final String pairingSystem;
+    private final LocalDateTime createdAt;
+    private final List<PairingResponse> pairings;
+
+    public TournamentRoundResponse(int roundNumber, String pairingSystem, LocalDateTime createdAt,
+                                   List<PairingResponse> pairings) {
+        this.roundNumber = roundNumber;
+        this.pairingSystem = pairingSystem;
+        this.createdAt = createdAt;
+        this.pairings = pairings;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    public String getPairingSystem() {
+        return pairingSystem;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<PairingResponse> getPairings() {
+        return pairings;
+    }
+}
@@ -14,6 +14,7 @@ public class UserResponse {
     private Set<User.Role> roles;
     private Integer nccElo;
     private Integer gamesPlayed;
+    private Double ratingDeviation;
     private LocalDateTime createdAt;
 
     public UserResponse(User user) {
@@ -24,6 +25,7 @@ public class UserResponse {
         this.roles = user.getRoles();
         this.nccElo = user.getNccElo();
         this.gamesPlayed = user.getGamesPlayed();
+        this.ratingDeviation = user.getRatingDeviation();
         this.createdAt = user.getCreatedAt();
     }
 
@@ -83,6 +85,14 @@ public class UserResponse {
         this.gamesPlayed = gamesPlayed;
     }
 
+    public Double getRatingDeviation() {
+        return ratingDeviation;
+    }
+
+    public void setRatingDeviation(Double ratingDeviation) {
+        this.ratingDeviation = ratingDeviation;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
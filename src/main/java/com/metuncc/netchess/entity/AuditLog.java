@@ -89,6 +89,7 @@ public class AuditLog {
 
     public enum ActionType {
         RATING_UPDATE,
+        RATING_RECOMPUTE,
         MEMBER_ADDED,
         MEMBER_REMOVED,
         TOURNAMENT_CREATED,
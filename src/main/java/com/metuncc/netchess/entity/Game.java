@@ -1,5 +1,6 @@
 package com.metuncc.netchess.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -34,6 +35,12 @@ public class Game {
 
     private String blackPlayer;
 
+    @Column(name = "white_player_id")
+    private UUID whitePlayerId;
+
+    @Column(name = "black_player_id")
+    private UUID blackPlayerId;
+
     private String result;
 
     private String eco;
@@ -43,6 +50,21 @@ public class Game {
 
     private String s3Key;
 
+    @JsonIgnore
+    @Column(name = "move_data")
+    private byte[] moveData;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    @JsonIgnore
+    @Column(name = "move_hash", length = 64)
+    private String moveHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_status", length = 16)
+    private StorageStatus storageStatus;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by", nullable = false)
     private User uploadedBy;
@@ -113,6 +135,22 @@ public class Game {
         this.blackPlayer = blackPlayer;
     }
 
+    public UUID getWhitePlayerId() {
+        return whitePlayerId;
+    }
+
+    public void setWhitePlayerId(UUID whitePlayerId) {
+        this.whitePlayerId = whitePlayerId;
+    }
+
+    public UUID getBlackPlayerId() {
+        return blackPlayerId;
+    }
+
+    public void setBlackPlayerId(UUID blackPlayerId) {
+        this.blackPlayerId = blackPlayerId;
+    }
+
     public String getResult() {
         return result;
     }
@@ -145,6 +183,38 @@ public class Game {
         this.s3Key = s3Key;
     }
 
+    public byte[] getMoveData() {
+        return moveData;
+    }
+
+    public void setMoveData(byte[] moveData) {
+        this.moveData = moveData;
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
+    public String getMoveHash() {
+        return moveHash;
+    }
+
+    public void setMoveHash(String moveHash) {
+        this.moveHash = moveHash;
+    }
+
+    public StorageStatus getStorageStatus() {
+        return storageStatus;
+    }
+
+    public void setStorageStatus(StorageStatus storageStatus) {
+        this.storageStatus = storageStatus;
+    }
+
     public User getUploadedBy() {
         return uploadedBy;
     }
@@ -176,4 +246,10 @@ public class Game {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public enum StorageStatus {
+        PENDING,
+        STORED,
+        FAILED
+    }
+}
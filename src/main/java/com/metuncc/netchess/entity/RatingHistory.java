@@ -44,6 +44,10 @@ public class RatingHistory {
     @Column(nullable = false, updatable = false)
     private LocalDateTime changedAt;
 
+    // assigned by the database in the order ratings are applied
+    @Column(insertable = false, updatable = false)
+    private Long seq;
+
     public UUID getId() {
         return id;
     }
@@ -107,4 +111,8 @@ public class RatingHistory {
     public void setChangedAt(LocalDateTime changedAt) {
         this.changedAt = changedAt;
     }
+
+    public Long getSeq() {
+        return seq;
+    }
 }
\ No newline at end of file
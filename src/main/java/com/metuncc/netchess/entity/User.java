@@ -65,9 +65,20 @@ public class User {
     @Column(nullable = false)
     private Integer gamesPlayed = 0;
 
+    @Column(nullable = false)
+    private Double ratingDeviation = 350.0;
+
+    @Column(nullable = false)
+    private Double ratingVolatility = 0.06;
+
     @Column(nullable = false)
     private Boolean active = true;
 
+    // bumped by rating writes too, so a stale entity cannot save over a new rating
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -141,6 +152,30 @@ public class User {
         this.gamesPlayed = gamesPlayed;
     }
 
+    public Double getRatingDeviation() {
+        return ratingDeviation;
+    }
+
+    public void setRatingDeviation(Double ratingDeviation) {
+        this.ratingDeviation = ratingDeviation;
+    }
+
+    public Double getRatingVolatility() {
+        return ratingVolatility;
+    }
+
+    public void setRatingVolatility(Double ratingVolatility) {
+        this.ratingVolatility = ratingVolatility;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Boolean getActive() {
         return active;
     }
@@ -1,6 +1,8 @@
 package com.metuncc.netchess.exception;
 
+import com.metuncc.netchess.chess.pgn.PgnParseException;
 import com.metuncc.netchess.dto.MessageResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -26,6 +28,24 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("The record was changed by someone else, please reload and try again"));
+    }
+
+    @ExceptionHandler(PgnParseException.class)
+    public ResponseEntity<MessageResponse> handlePgnParse(PgnParseException ex) {
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Invalid PGN: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<MessageResponse> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
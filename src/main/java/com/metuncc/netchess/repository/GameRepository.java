@@ -1,17 +1,53 @@
 package com.metuncc.netchess.repository;
 
+import com.metuncc.netchess.dto.GameSummary;
 import com.metuncc.netchess.entity.Game;
-import com.metuncc.netchess.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, UUID> {
-    List<Game> findByUploadedBy(User user);
-    List<Game> findByApprovedTrue();
-    List<Game> findByApprovedFalse();
-    List<Game> findByTournamentId(UUID tournamentId);
-}
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.metuncc.netchess.dto.GameSummary(" +
+            "g.id, g.event, g.site, g.gameDate, g.round, g.whitePlayer, g.blackPlayer, g.result, g.eco, " +
+            "g.s3Key, g.approved, u.username, t.id, t.name, g.createdAt) " +
+            "FROM Game g JOIN g.uploadedBy u LEFT JOIN g.tournament t ";
+
+    String BEFORE_CURSOR = "g.createdAt <= :createdAt AND (g.createdAt < :createdAt OR g.id < :id) ";
+
+    String NEWEST_FIRST = "ORDER BY g.createdAt DESC, g.id DESC";
+
+    boolean existsByMoveHash(String moveHash);
+
+    boolean existsByS3KeyAndIdNot(String s3Key, UUID id);
+
+    @Query(SUMMARY_SELECT + "WHERE " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameSummary> findPage(@Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") UUID id,
+                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE g.approved = :approved AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameSummary> findPageByApproved(@Param("approved") boolean approved,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :uploaderId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameSummary> findPageByUploader(@Param("uploaderId") UUID uploaderId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id = :tournamentId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameSummary> findPageByTournament(@Param("tournamentId") UUID tournamentId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+}
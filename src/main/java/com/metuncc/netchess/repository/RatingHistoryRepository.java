@@ -10,6 +10,6 @@ import java.util.UUID;
 
 @Repository
 public interface RatingHistoryRepository extends JpaRepository<RatingHistory, UUID> {
-    List<RatingHistory> findByPlayerOrderByChangedAtDesc(User player);
+    List<RatingHistory> findByPlayerOrderBySeqDesc(User player);
     List<RatingHistory> findByGameId(UUID gameId);
 }
\ No newline at end of file
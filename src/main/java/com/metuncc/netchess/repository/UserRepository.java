@@ -2,11 +2,8 @@ package com.metuncc.netchess.repository;
 
 import com.metuncc.netchess.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import org.springframework.data.domain.Pageable;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,7 +14,4 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
     Optional<User> findByStudentNumber(String studentNumber);
-
-    @Query("SELECT u FROM User u ORDER BY u.nccElo DESC")
-    List<User> findTopPlayersByRating(Pageable pageable);
 }
\ No newline at end of file
@@ -5,18 +5,26 @@ import com.metuncc.netchess.entity.User;
 import com.metuncc.netchess.repository.AuditLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 @Service
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public AuditService(AuditLogRepository auditLogRepository) {
+    public AuditService(AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate) {
         this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Transactional
@@ -30,10 +38,27 @@ public class AuditService {
         auditLogRepository.save(auditLog);
     }
 
+    /**
+     * Writes one entry per user in a single batch; userIds and details are parallel lists.
+     */
+    @Transactional
+    public void logAll(AuditLog.ActionType actionType, List<UUID> userIds, List<String> details) {
+        String ipAddress = getClientIpAddress();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            rows.add(new Object[] { UUID.randomUUID(), actionType.name(), userIds.get(i), details.get(i), ipAddress, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO audit_logs (id, action_type, user_id, details, ip_address, timestamp) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
     public void logRatingUpdate(User player, int oldRating, int newRating) {
-        String details = String.format("Rating changed from %d to %d (%+d)", 
-                oldRating, newRating, newRating - oldRating);
-        log(AuditLog.ActionType.RATING_UPDATE, player, details);
+        log(AuditLog.ActionType.RATING_UPDATE, player, ratingUpdateDetails(oldRating, newRating));
+    }
+
+    public static String ratingUpdateDetails(int oldRating, int newRating) {
+        return String.format("Rating changed from %d to %d (%+d)", oldRating, newRating, newRating - oldRating);
     }
 
     public void logMemberAdded(User admin, User newMember) {
@@ -1,99 +1,61 @@
 package com.metuncc.netchess.service;
 
-import com.metuncc.netchess.entity.Game;
-import com.metuncc.netchess.entity.RatingHistory;
-import com.metuncc.netchess.entity.User;
-import com.metuncc.netchess.repository.RatingHistoryRepository;
-import com.metuncc.netchess.repository.UserRepository;
-import lombok.extern.slf4j.Slf4j;
+import com.metuncc.netchess.service.rating.EloRatingSystem;
+import com.metuncc.netchess.service.rating.RatedGames;
+import com.metuncc.netchess.service.rating.RatingState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Rates games as soon as they are approved when Elo is the configured system; under
+ * other systems they wait for the next rating period. The players' rows are locked in id
+ * order for the rest of the transaction, so concurrent approvals of games with a common
+ * player run one after the other on fresh ratings, and however many games are approved
+ * together, the writes are a few batch statements.
+ */
 @Service
 public class EloRatingService {
 
-    private static final Logger log = LoggerFactory.getLogger(StorageService.class);
-
-    private final UserRepository userRepository;
-    private final RatingHistoryRepository ratingHistoryRepository;
-    private final AuditService auditService;
-
-    public EloRatingService(UserRepository userRepository, RatingHistoryRepository ratingHistoryRepository, AuditService auditService) {
-        this.userRepository = userRepository;
-        this.ratingHistoryRepository = ratingHistoryRepository;
-        this.auditService = auditService;
-    }
-
-    @Transactional
-    public void updateRatings(User winner, User loser, Game game) {
-        int kFactorWinner = getKFactor(winner);
-        int kFactorLoser = getKFactor(loser);
-
-        double expectedWinner = calculateExpectedScore(winner.getNccElo(), loser.getNccElo());
-        double expectedLoser = 1 - expectedWinner;
-
-        int newRatingWinner = calculateNewRating(winner.getNccElo(), kFactorWinner, 1.0, expectedWinner);
-        int newRatingLoser = calculateNewRating(loser.getNccElo(), kFactorLoser, 0.0, expectedLoser);
+    private static final Logger log = LoggerFactory.getLogger(EloRatingService.class);
 
-        updatePlayerRating(winner, newRatingWinner, kFactorWinner, game);
-        updatePlayerRating(loser, newRatingLoser, kFactorLoser, game);
+    private final JdbcTemplate jdbcTemplate;
+    private final RatingPeriodService ratingPeriodService;
 
-        log.info("Ratings updated - Winner: {} ({} -> {}), Loser: {} ({} -> {})",
-                winner.getUsername(), winner.getNccElo(), newRatingWinner,
-                loser.getUsername(), loser.getNccElo(), newRatingLoser);
+    public EloRatingService(JdbcTemplate jdbcTemplate, RatingPeriodService ratingPeriodService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ratingPeriodService = ratingPeriodService;
     }
 
+    /**
+     * Rates those of the given approved games that are not rated yet, in play order.
+     * Returns the number of games rated.
+     */
     @Transactional
-    public void updateRatingsForDraw(User player1, User player2, Game game) {
-        int kFactor1 = getKFactor(player1);
-        int kFactor2 = getKFactor(player2);
-
-        double expected1 = calculateExpectedScore(player1.getNccElo(), player2.getNccElo());
-        double expected2 = 1 - expected1;
-
-        int newRating1 = calculateNewRating(player1.getNccElo(), kFactor1, 0.5, expected1);
-        int newRating2 = calculateNewRating(player2.getNccElo(), kFactor2, 0.5, expected2);
-
-        updatePlayerRating(player1, newRating1, kFactor1, game);
-        updatePlayerRating(player2, newRating2, kFactor2, game);
-
-        log.info("Draw ratings updated - Player1: {} ({} -> {}), Player2: {} ({} -> {})",
-                player1.getUsername(), player1.getNccElo(), newRating1,
-                player2.getUsername(), player2.getNccElo(), newRating2);
-    }
-
-    private int getKFactor(User player) {
-        return player.getGamesPlayed() <= 30 ? 24 : 16;
-    }
-
-    private double calculateExpectedScore(int ratingPlayer, int ratingOpponent) {
-        return 1.0 / (1.0 + Math.pow(10, (ratingOpponent - ratingPlayer) / 400.0));
-    }
-
-    private int calculateNewRating(int currentRating, int kFactor, double score, double expectedScore) {
-        return (int) Math.round(currentRating + kFactor * (score - expectedScore));
-    }
-
-    private void updatePlayerRating(User player, int newRating, int kFactor, Game game) {
-        int oldRating = player.getNccElo();
-        int ratingChange = newRating - oldRating;
-
-        RatingHistory history = new RatingHistory();
-        history.setPlayer(player);
-        history.setOldRating(oldRating);
-        history.setNewRating(newRating);
-        history.setRatingChange(ratingChange);
-        history.setGame(game);
-        history.setkFactor(kFactor);
-
-        ratingHistoryRepository.save(history);
-
-        player.setNccElo(newRating);
-        player.setGamesPlayed(player.getGamesPlayed() + 1);
-        userRepository.save(player);
-
-        auditService.logRatingUpdate(player, oldRating, newRating);
+    public int rateApprovedGames(Collection<UUID> gameIds) {
+        if (gameIds.isEmpty() || !EloRatingSystem.NAME.equals(ratingPeriodService.getRatingSystem().name())) {
+            return 0;
+        }
+        String[] ids = gameIds.stream().map(UUID::toString).toArray(String[]::new);
+
+        // same order as rating periods and recomputation: the history table, then players
+        jdbcTemplate.execute("LOCK TABLE rating_history IN ROW EXCLUSIVE MODE");
+        RatingState players = ratingPeriodService.loadPlayers("WHERE u.id IN (" +
+                "SELECT white_player_id FROM games WHERE id = ANY(?::uuid[]) UNION " +
+                "SELECT black_player_id FROM games WHERE id = ANY(?::uuid[])) ORDER BY id FOR UPDATE", ids, ids);
+        RatedGames games = ratingPeriodService.loadGames(players,
+                "id = ANY(?::uuid[]) AND rating_period_id IS NULL AND ", (Object) ids);
+        if (games.count() == 0) {
+            return 0;
+        }
+
+        int rated = ratingPeriodService.rate(players, games).getGamesRated();
+        log.info("Rated {} approved games", rated);
+        return rated;
     }
-}
\ No newline at end of file
+}
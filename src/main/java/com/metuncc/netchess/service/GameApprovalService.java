@@ -0,0 +1,41 @@
+package com.metuncc.netchess.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class GameApprovalService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EloRatingService eloRatingService;
+    private final HeadToHeadService headToHeadService;
+
+    public GameApprovalService(JdbcTemplate jdbcTemplate, EloRatingService eloRatingService,
+                               HeadToHeadService headToHeadService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eloRatingService = eloRatingService;
+        this.headToHeadService = headToHeadService;
+    }
+
+    /**
+     * Approves the games that are still pending, rates them and adds them to the players'
+     * head-to-head records, all in the same transaction.
+     * Returns the ids approved by this call; games approved concurrently by someone else
+     * are left out, so each game is rated once.
+     */
+    @Transactional
+    public List<UUID> approve(Collection<UUID> gameIds) {
+        String[] ids = gameIds.stream().map(UUID::toString).toArray(String[]::new);
+        List<UUID> approved = jdbcTemplate.queryForList(
+                "UPDATE games SET approved = true WHERE id = ANY(?::uuid[]) AND approved = false RETURNING id",
+                UUID.class, (Object) ids);
+        eloRatingService.rateApprovedGames(approved);
+        headToHeadService.addGames(approved);
+        return approved;
+    }
+}
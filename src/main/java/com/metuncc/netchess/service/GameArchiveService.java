@@ -0,0 +1,207 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.pgn.PgnCodec;
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.chess.pgn.PgnWriter;
+import com.metuncc.netchess.entity.Game;
+import com.metuncc.netchess.service.storage.StagedUpload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Decides how a game's PGN is persisted. Every game gets the compact move_data
+ * encoding; the original text stays in pgn_content in "inline" mode and lives only in
+ * storage in "storage" mode.
+ */
+@Service
+public class GameArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameArchiveService.class);
+
+    private static final String PGN_CONTENT_TYPE = "application/x-chess-pgn";
+    private static final int COMPACT_CHUNK = 500;
+
+    private final PgnService pgnService;
+    private final StorageService storageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean storeExternally;
+
+    public GameArchiveService(PgnService pgnService,
+                              StorageService storageService,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${games.pgn-storage-mode:inline}") String storageMode) {
+        this.pgnService = pgnService;
+        this.storageService = storageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeExternally = "storage".equalsIgnoreCase(storageMode);
+    }
+
+    public void store(Game game, PgnGame pgn) {
+        game.setMoveData(PgnCodec.encode(pgn, pgnService.resolveMoves(pgn)));
+        if (game.getContentSha256() == null && pgn.getRawText() != null) {
+            byte[] raw = pgn.getRawText().getBytes(StandardCharsets.UTF_8);
+            game.setContentSha256(HexFormat.of().formatHex(StorageService.sha256().digest(raw)));
+        }
+        if (!storeExternally) {
+            game.setPgnContent(pgn.getRawText());
+            return;
+        }
+        if (game.getS3Key() == null) {
+            game.setS3Key(upload(pgn.getRawText()));
+            game.setStorageStatus(Game.StorageStatus.STORED);
+        }
+        // an upload still in flight keeps the text until storeAsync confirms the object
+        game.setPgnContent(game.getStorageStatus() == Game.StorageStatus.PENDING ? pgn.getRawText() : null);
+    }
+
+    /**
+     * Starts staging an uploaded file for {@link #storeAsync}.
+     */
+    public StagedUpload stage(InputStream in) throws IOException {
+        return storageService.stage(in);
+    }
+
+    /**
+     * Writes a staged upload under the game's s3Key in the background and records the
+     * outcome in storage_status. Call after the game row is saved; the upload's file is
+     * the write's to delete from here on.
+     */
+    public void storeAsync(Game game, StagedUpload upload, String contentType) throws IOException {
+        UUID id = game.getId();
+        String key = game.getS3Key();
+        storageService.uploadAsync(key, upload, contentType).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Could not store {} for game {}", key, id, error);
+                jdbcTemplate.update("UPDATE games SET storage_status = ? WHERE id = ?",
+                        Game.StorageStatus.FAILED.name(), id);
+            } else if (storeExternally) {
+                jdbcTemplate.update("UPDATE games SET storage_status = ?, pgn_content = NULL WHERE id = ?",
+                        Game.StorageStatus.STORED.name(), id);
+            } else {
+                jdbcTemplate.update("UPDATE games SET storage_status = ? WHERE id = ?",
+                        Game.StorageStatus.STORED.name(), id);
+            }
+        });
+    }
+
+    public PgnGame load(Game game) {
+        return load(game.getPgnContent(), game.getMoveData());
+    }
+
+    public PgnGame load(String pgnContent, byte[] moveData) {
+        if (moveData != null) {
+            return PgnCodec.decode(moveData);
+        }
+        if (pgnContent != null) {
+            return pgnService.parseSingle(pgnContent);
+        }
+        return null;
+    }
+
+    /**
+     * The PGN text of a game: the stored original when there is one, otherwise
+     * regenerated from the move encoding.
+     */
+    public String pgnText(Game game) {
+        if (game.getPgnContent() != null) {
+            return game.getPgnContent();
+        }
+        if (game.getS3Key() != null && game.getStorageStatus() != Game.StorageStatus.PENDING
+                && game.getStorageStatus() != Game.StorageStatus.FAILED
+                && (storageService.isRemote() || storageService.exists(game.getS3Key()))) {
+            return new String(storageService.downloadFile(game.getS3Key()), StandardCharsets.UTF_8);
+        }
+        if (game.getMoveData() != null) {
+            return PgnWriter.write(PgnCodec.decode(game.getMoveData()));
+        }
+        return null;
+    }
+
+    /**
+     * Encodes games stored before move_data existed and, in storage mode, moves their
+     * PGN text out of the table. Returns the number of games rewritten.
+     */
+    public int compact() {
+        String sql = "SELECT id, pgn_content, s3_key, storage_status FROM games WHERE pgn_content IS NOT NULL AND id > ? " +
+                (storeExternally ? "" : "AND move_data IS NULL ") +
+                "ORDER BY id LIMIT ?";
+        int rewritten = 0;
+        UUID after = new UUID(0, 0);
+        while (true) {
+            List<Object[]> chunk = jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+                    rs.getObject("id", UUID.class), rs.getString("pgn_content"), rs.getString("s3_key"),
+                    rs.getString("storage_status")
+            }, after, COMPACT_CHUNK);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                UUID id = (UUID) row[0];
+                String pgnContent = (String) row[1];
+                String s3Key = (String) row[2];
+                String storageStatus = (String) row[3];
+                try {
+                    PgnGame pgn = pgnService.parseSingle(pgnContent);
+                    byte[] moveData = PgnCodec.encode(pgn, pgnService.resolveMoves(pgn));
+                    if (storeExternally) {
+                        if (s3Key == null) {
+                            s3Key = upload(pgnContent);
+                            storageStatus = Game.StorageStatus.STORED.name();
+                        } else if (storageStatus != null && !Game.StorageStatus.STORED.name().equals(storageStatus)) {
+                            continue;
+                        }
+                        pgnContent = null;
+                    }
+                    updates.add(new Object[] { moveData, pgnContent, s3Key, storageStatus, id });
+                } catch (RuntimeException e) {
+                    log.warn("Could not compact game {}: {}", id, e.getMessage());
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE games SET move_data = ?, pgn_content = ?, s3_key = ?, storage_status = ? WHERE id = ?",
+                        updates);
+                rewritten += updates.size();
+            }
+            after = (UUID) chunk.get(chunk.size() - 1)[0];
+        }
+        log.info("Compacted {} games", rewritten);
+        return rewritten;
+    }
+
+    /**
+     * Hash identifying a game independent of its PGN formatting: players, date, round,
+     * start position and the move sequence. Set last, once the players are final.
+     */
+    public void fingerprint(Game game, PgnGame pgn) {
+        MessageDigest digest = StorageService.sha256();
+        for (String field : new String[] { game.getWhitePlayer(), game.getBlackPlayer(),
+                String.valueOf(game.getGameDate()), game.getRound(), pgn.getTag("FEN") }) {
+            String normalized = field == null ? "" : field.strip().toLowerCase(Locale.ROOT);
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        for (int move : pgnService.resolveMoves(pgn)) {
+            digest.update((byte) (move >>> 8));
+            digest.update((byte) move);
+        }
+        game.setMoveHash(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private String upload(String pgnText) {
+        return storageService.uploadBytes(pgnText.getBytes(StandardCharsets.UTF_8), PGN_CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,104 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.pgn.PgnCodec;
+import com.metuncc.netchess.chess.pgn.PgnWriter;
+import com.metuncc.netchess.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams approved games as one gzipped PGN file. Rows are read through a forward-only
+ * cursor inside a read-only transaction, so memory use does not depend on how many games
+ * are exported.
+ */
+@Service
+public class GameExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameExportService.class);
+
+    private static final int FETCH_SIZE = 200;
+    private static final String SELECT_SQL = "SELECT id, pgn_content, move_data FROM games WHERE approved = true ";
+    private static final String ORDER_BY = " ORDER BY game_date NULLS LAST, created_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public GameExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void exportTournament(UUID tournamentId, OutputStream out) throws IOException {
+        export("AND tournament_id = ?", List.of(tournamentId), out);
+    }
+
+    public void exportPlayer(User player, OutputStream out) throws IOException {
+        export("AND (white_player_id = ? OR black_player_id = ?)", List.of(player.getId(), player.getId()), out);
+    }
+
+    public void exportAll(OutputStream out) throws IOException {
+        export("", List.of(), out);
+    }
+
+    private void export(String filter, List<Object> params, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        StringBuilder pgn = new StringBuilder(2048);
+        int[] count = new int[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL + filter + ORDER_BY);
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                return ps;
+            }, rs -> {
+                pgn.setLength(0);
+                String text = rs.getString("pgn_content");
+                try {
+                    if (text != null) {
+                        pgn.append(text.strip()).append("\n\n");
+                    } else {
+                        byte[] moveData = rs.getBytes("move_data");
+                        if (moveData == null) {
+                            return;
+                        }
+                        PgnWriter.write(PgnCodec.decode(moveData), pgn);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Skipping game {} in export: {}", rs.getObject("id"), e.getMessage());
+                    return;
+                }
+                try {
+                    writer.append(pgn);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        gzip.finish();
+        log.debug("Exported {} games", count[0]);
+    }
+}
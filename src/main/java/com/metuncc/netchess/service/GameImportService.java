@@ -0,0 +1,202 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.chess.pgn.PgnParseException;
+import com.metuncc.netchess.chess.pgn.PgnReader;
+import com.metuncc.netchess.dto.GameImportReport;
+import com.metuncc.netchess.dto.GameImportResult;
+import com.metuncc.netchess.entity.Game;
+import com.metuncc.netchess.entity.Tournament;
+import com.metuncc.netchess.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class GameImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameImportService.class);
+
+    private static final String INSERT_GAME_SQL =
+            "INSERT INTO games (id, event, site, game_date, round, white_player, black_player, result, eco, " +
+            "pgn_content, move_data, s3_key, storage_status, content_sha256, move_hash, uploaded_by, tournament_id, approved, " +
+            "created_at, white_player_id, black_player_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgnService pgnService;
+    private final GameArchiveService gameArchiveService;
+    private final PlayerResolver playerResolver;
+    private final int batchSize;
+
+    public GameImportService(JdbcTemplate jdbcTemplate,
+                             PgnService pgnService,
+                             GameArchiveService gameArchiveService,
+                             PlayerResolver playerResolver,
+                             @Value("${games.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pgnService = pgnService;
+        this.gameArchiveService = gameArchiveService;
+        this.playerResolver = playerResolver;
+        this.batchSize = batchSize;
+    }
+
+    public GameImportReport importGames(InputStream in, User uploader, Tournament tournament) throws IOException {
+        GameImportReport report = new GameImportReport();
+        List<Game> pendingGames = new ArrayList<>(batchSize);
+        List<GameImportResult> pendingResults = new ArrayList<>(batchSize);
+        UUID tournamentId = tournament != null ? tournament.getId() : null;
+        Set<String> seenHashes = new HashSet<>();
+
+        try (PgnReader reader = new PgnReader(in, true)) {
+            int index = 0;
+            while (true) {
+                PgnGame pgn;
+                try {
+                    pgn = reader.next();
+                } catch (PgnParseException e) {
+                    report.add(rejected(++index, e));
+                    reader.skipToNextGame();
+                    continue;
+                }
+                if (pgn == null) {
+                    break;
+                }
+                try {
+                    pgnService.validateMoves(pgn);
+                } catch (PgnParseException e) {
+                    report.add(rejected(++index, e));
+                    continue;
+                }
+
+                Game game = new Game();
+                game.setId(UUID.randomUUID());
+                pgnService.applyHeaders(game, pgn);
+                gameArchiveService.fingerprint(game, pgn);
+                if (!seenHashes.add(game.getMoveHash())) {
+                    report.add(duplicate(++index));
+                    continue;
+                }
+                gameArchiveService.store(game, pgn);
+                game.setCreatedAt(LocalDateTime.now());
+
+                GameImportResult result = new GameImportResult(++index, GameImportResult.Status.IMPORTED);
+                result.setGameId(game.getId());
+                result.setWhitePlayer(game.getWhitePlayer());
+                result.setBlackPlayer(game.getBlackPlayer());
+                result.setResult(game.getResult());
+                report.add(result);
+
+                pendingGames.add(game);
+                pendingResults.add(result);
+                if (pendingGames.size() >= batchSize) {
+                    flush(pendingGames, pendingResults, uploader.getId(), tournamentId);
+                }
+            }
+        }
+        flush(pendingGames, pendingResults, uploader.getId(), tournamentId);
+
+        log.info("PGN import by {}: {} imported, {} rejected, {} failed",
+                uploader.getUsername(), report.getImported(), report.getRejected(), report.getFailed());
+        return report;
+    }
+
+    private GameImportResult rejected(int index, PgnParseException e) {
+        GameImportResult result = new GameImportResult(index, GameImportResult.Status.REJECTED);
+        result.setMessage(e.getMessage());
+        return result;
+    }
+
+    private GameImportResult duplicate(int index) {
+        GameImportResult result = new GameImportResult(index, GameImportResult.Status.REJECTED);
+        result.setMessage("Duplicate of an existing game");
+        return result;
+    }
+
+    private void flush(List<Game> games, List<GameImportResult> results, UUID uploaderId, UUID tournamentId) {
+        dropExisting(games, results);
+        if (games.isEmpty()) {
+            return;
+        }
+        playerResolver.resolve(games);
+        try {
+            jdbcTemplate.batchUpdate(INSERT_GAME_SQL, games, games.size(),
+                    (ps, game) -> bind(ps, game, uploaderId, tournamentId));
+        } catch (DataAccessException batchFailure) {
+            log.warn("Batch insert of {} games failed, retrying one by one", games.size(), batchFailure);
+            for (int i = 0; i < games.size(); i++) {
+                Game game = games.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_GAME_SQL, ps -> bind(ps, game, uploaderId, tournamentId));
+                } catch (DataAccessException e) {
+                    GameImportResult result = results.get(i);
+                    result.setStatus(GameImportResult.Status.FAILED);
+                    result.setGameId(null);
+                    result.setMessage(e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        games.clear();
+        results.clear();
+    }
+
+    private void dropExisting(List<Game> games, List<GameImportResult> results) {
+        if (games.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(games.size(), "?"));
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT move_hash FROM games WHERE move_hash IN (" + placeholders + ")",
+                String.class, games.stream().map(Game::getMoveHash).toArray()));
+        if (existing.isEmpty()) {
+            return;
+        }
+        for (int i = games.size() - 1; i >= 0; i--) {
+            if (existing.contains(games.get(i).getMoveHash())) {
+                GameImportResult result = results.remove(i);
+                result.setStatus(GameImportResult.Status.REJECTED);
+                result.setGameId(null);
+                result.setMessage("Duplicate of an existing game");
+                games.remove(i);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, Game game, UUID uploaderId, UUID tournamentId) throws SQLException {
+        ps.setObject(1, game.getId());
+        ps.setString(2, game.getEvent());
+        ps.setString(3, game.getSite());
+        ps.setObject(4, game.getGameDate());
+        ps.setString(5, game.getRound());
+        ps.setString(6, game.getWhitePlayer());
+        ps.setString(7, game.getBlackPlayer());
+        ps.setString(8, game.getResult());
+        ps.setString(9, game.getEco());
+        ps.setString(10, game.getPgnContent());
+        ps.setBytes(11, game.getMoveData());
+        ps.setString(12, game.getS3Key());
+        ps.setString(13, game.getStorageStatus() != null ? game.getStorageStatus().name() : null);
+        ps.setString(14, game.getContentSha256());
+        ps.setString(15, game.getMoveHash());
+        ps.setObject(16, uploaderId);
+        ps.setObject(17, tournamentId);
+        ps.setObject(18, game.getCreatedAt());
+        ps.setObject(19, game.getWhitePlayerId());
+        ps.setObject(20, game.getBlackPlayerId());
+    }
+}
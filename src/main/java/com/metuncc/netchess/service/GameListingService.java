@@ -0,0 +1,103 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.CursorPage;
+import com.metuncc.netchess.dto.GameSummary;
+import com.metuncc.netchess.repository.GameRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset pagination over games, newest first. The cursor is the (created_at, id) of the
+ * last row of the previous page, so every page is an index range scan regardless of how
+ * deep the client has scrolled.
+ */
+@Service
+public class GameListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID FIRST_PAGE_ID = new UUID(-1L, -1L);
+
+    private final GameRepository gameRepository;
+
+    public GameListingService(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    public CursorPage<GameSummary> all(String cursor, int size) {
+        return page(cursor, size, gameRepository::findPage);
+    }
+
+    public CursorPage<GameSummary> byApproved(boolean approved, String cursor, int size) {
+        return page(cursor, size, (createdAt, id, pageable) ->
+                gameRepository.findPageByApproved(approved, createdAt, id, pageable));
+    }
+
+    public CursorPage<GameSummary> byUploader(UUID uploaderId, String cursor, int size) {
+        return page(cursor, size, (createdAt, id, pageable) ->
+                gameRepository.findPageByUploader(uploaderId, createdAt, id, pageable));
+    }
+
+    public CursorPage<GameSummary> byTournament(UUID tournamentId, String cursor, int size) {
+        return page(cursor, size, (createdAt, id, pageable) ->
+                gameRepository.findPageByTournament(tournamentId, createdAt, id, pageable));
+    }
+
+    private CursorPage<GameSummary> page(String cursor, int size, PageQuery query) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime createdAt = FIRST_PAGE_CREATED_AT;
+        UUID id = FIRST_PAGE_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decode(cursor);
+            try {
+                createdAt = LocalDateTime.parse(parts[0]);
+                id = UUID.fromString(parts[1]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // one extra row tells whether another page exists
+        List<GameSummary> rows = query.fetch(createdAt, id, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<GameSummary> items = rows.subList(0, limit);
+        GameSummary last = items.get(limit - 1);
+        return new CursorPage<>(items, encode(last.getCreatedAt(), last.getId()));
+    }
+
+    private static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<GameSummary> fetch(LocalDateTime createdAt, UUID id, Pageable pageable);
+    }
+}
@@ -0,0 +1,83 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.CursorPage;
+import com.metuncc.netchess.dto.GameSearchResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Search over approved game metadata. Word matches come from the weighted search_vector
+ * column (players above event above site/ECO/round); misspelled player names are caught by
+ * trigram similarity. Both predicates are served by GIN indexes.
+ */
+@Service
+public class GameSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_OFFSET = 1000;
+
+    private static final String SEARCH_SQL =
+            "SELECT g.id, g.event, g.site, g.game_date, g.round, g.white_player, g.black_player, g.result, g.eco, " +
+            "g.s3_key, g.approved, ts_rank(g.search_vector, q.tsq) + " +
+            "greatest(similarity(g.white_player, q.term), similarity(g.black_player, q.term)) AS rank " +
+            "FROM games g, (SELECT websearch_to_tsquery('simple', ?) AS tsq, ?::text AS term) q " +
+            "WHERE g.approved = true " +
+            "AND (g.search_vector @@ q.tsq OR g.white_player % q.term OR g.black_player % q.term) " +
+            "ORDER BY rank DESC, g.id " +
+            "LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GameSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ranked results; the cursor is the offset of the next page.
+     */
+    public CursorPage<GameSearchResult> search(String query, String cursor, int size) {
+        String term = query == null ? "" : query.strip();
+        if (term.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (offset < 0 || offset > MAX_OFFSET) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<GameSearchResult> rows = jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> {
+            GameSearchResult result = new GameSearchResult();
+            result.setId(rs.getObject("id", UUID.class));
+            result.setEvent(rs.getString("event"));
+            result.setSite(rs.getString("site"));
+            result.setGameDate(rs.getObject("game_date", LocalDate.class));
+            result.setRound(rs.getString("round"));
+            result.setWhitePlayer(rs.getString("white_player"));
+            result.setBlackPlayer(rs.getString("black_player"));
+            result.setResult(rs.getString("result"));
+            result.setEco(rs.getString("eco"));
+            result.setS3Key(rs.getString("s3_key"));
+            result.setApproved(rs.getBoolean("approved"));
+            result.setRank(rs.getDouble("rank"));
+            return result;
+        }, term, term, limit + 1, offset);
+
+        if (rows.size() <= limit || offset + limit > MAX_OFFSET) {
+            return new CursorPage<>(rows.size() > limit ? rows.subList(0, limit) : rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, limit), String.valueOf(offset + limit));
+    }
+}
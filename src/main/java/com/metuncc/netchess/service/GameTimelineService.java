@@ -0,0 +1,100 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.Move;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.dto.GameTimeline;
+import com.metuncc.netchess.dto.TimelinePly;
+import com.metuncc.netchess.entity.Game;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ply-by-ply SAN, UCI and FEN for the game viewer. A game's moves never change once it
+ * is stored, so timelines are computed once and kept in an LRU cache bounded by the total
+ * number of plies it holds.
+ */
+@Service
+public class GameTimelineService {
+
+    private final GameArchiveService gameArchiveService;
+    private final PgnService pgnService;
+    private final int maxCachedPlies;
+
+    private final LinkedHashMap<UUID, GameTimeline> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private int cachedPlies;
+
+    public GameTimelineService(GameArchiveService gameArchiveService,
+                               PgnService pgnService,
+                               @Value("${games.timeline.cache-max-plies:200000}") int maxCachedPlies) {
+        this.gameArchiveService = gameArchiveService;
+        this.pgnService = pgnService;
+        this.maxCachedPlies = maxCachedPlies;
+    }
+
+    public GameTimeline getTimeline(Game game) {
+        GameTimeline timeline;
+        synchronized (cache) {
+            timeline = cache.get(game.getId());
+        }
+        if (timeline == null) {
+            PgnGame pgn = gameArchiveService.load(game);
+            timeline = pgn != null ? build(game.getId(), pgn) : new GameTimeline(game.getId(), null, game.getResult(), List.of());
+            put(timeline);
+        }
+        return timeline;
+    }
+
+    public void warm(UUID gameId, PgnGame pgn) {
+        put(build(gameId, pgn));
+    }
+
+    public void evict(UUID gameId) {
+        synchronized (cache) {
+            GameTimeline removed = cache.remove(gameId);
+            if (removed != null) {
+                cachedPlies -= removed.getPlies().size();
+            }
+        }
+    }
+
+    private GameTimeline build(UUID gameId, PgnGame pgn) {
+        int[] moves = pgnService.resolveMoves(pgn);
+        Position position = pgnService.startPosition(pgn);
+        String startFen = position.toFen();
+        List<TimelinePly> plies = new ArrayList<>(moves.length);
+        for (int i = 0; i < moves.length; i++) {
+            String san = San.format(position, moves[i]);
+            position.makeMove(moves[i]);
+            plies.add(new TimelinePly(i + 1, san, Move.toUci(moves[i]), position.toFen()));
+        }
+        return new GameTimeline(gameId, startFen, pgn.getResult(), plies);
+    }
+
+    private void put(GameTimeline timeline) {
+        synchronized (cache) {
+            GameTimeline previous = cache.put(timeline.getGameId(), timeline);
+            if (previous != null) {
+                cachedPlies -= previous.getPlies().size();
+            }
+            cachedPlies += timeline.getPlies().size();
+            Iterator<Map.Entry<UUID, GameTimeline>> eldest = cache.entrySet().iterator();
+            while (cachedPlies > maxCachedPlies && cache.size() > 1 && eldest.hasNext()) {
+                GameTimeline evicted = eldest.next().getValue();
+                if (evicted == timeline) {
+                    break;
+                }
+                cachedPlies -= evicted.getPlies().size();
+                eldest.remove();
+            }
+        }
+    }
+}
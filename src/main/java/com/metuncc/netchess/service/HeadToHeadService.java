@@ -0,0 +1,147 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.HeadToHead;
+import com.metuncc.netchess.dto.HeadToHeadGame;
+import com.metuncc.netchess.exception.ResourceNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records between pairs of members, kept in head_to_head under (player_low, player_high)
+ * with the smaller id first. Approving games adds them to their pairs' rows in one
+ * statement; deleting an approved game takes it back out.
+ */
+@Service
+public class HeadToHeadService {
+
+    public static final int DEFAULT_LAST_GAMES = 10;
+    public static final int MAX_LAST_GAMES = 50;
+
+    private static final String ADD_SQL = upsert("", "g.id = ANY(?::uuid[]) AND ");
+    private static final String REMOVE_SQL = upsert("-", "g.id = ? AND ");
+    private static final String REBUILD_SQL = upsert("", "");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HeadToHeadService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Folds the games into their pairs' records, sign being "" to add them or "-" to take
+     * them out. Rating changes are read from the games' history rows, so call this
+     * after the games are rated.
+     */
+    private static String upsert(String sign, String condition) {
+        return "INSERT INTO head_to_head (player_low, player_high, games, low_wins, draws, high_wins, " +
+                "low_rating_change, high_rating_change, last_played_at) " +
+                "SELECT LEAST(g.white_player_id, g.black_player_id), GREATEST(g.white_player_id, g.black_player_id), " +
+                sign + "count(*), " +
+                sign + "count(*) FILTER (WHERE (g.result = '1-0') = (g.white_player_id < g.black_player_id) " +
+                "AND g.result <> '1/2-1/2'), " +
+                sign + "count(*) FILTER (WHERE g.result = '1/2-1/2'), " +
+                sign + "count(*) FILTER (WHERE (g.result = '1-0') = (g.white_player_id > g.black_player_id) " +
+                "AND g.result <> '1/2-1/2'), " +
+                sign + "COALESCE(sum(CASE WHEN g.white_player_id < g.black_player_id " +
+                "THEN wh.rating_change ELSE bh.rating_change END), 0), " +
+                sign + "COALESCE(sum(CASE WHEN g.white_player_id < g.black_player_id " +
+                "THEN bh.rating_change ELSE wh.rating_change END), 0), " +
+                (sign.isEmpty() ? "max(g.created_at) " : "NULL::timestamp ") +
+                "FROM games g " +
+                "LEFT JOIN rating_history wh ON wh.game_id = g.id AND wh.player_id = g.white_player_id " +
+                "LEFT JOIN rating_history bh ON bh.game_id = g.id AND bh.player_id = g.black_player_id " +
+                "WHERE " + condition + RatingPeriodService.RATED_GAMES + " GROUP BY 1, 2 " +
+                "ON CONFLICT (player_low, player_high) DO UPDATE SET " +
+                "games = head_to_head.games + EXCLUDED.games, " +
+                "low_wins = head_to_head.low_wins + EXCLUDED.low_wins, " +
+                "draws = head_to_head.draws + EXCLUDED.draws, " +
+                "high_wins = head_to_head.high_wins + EXCLUDED.high_wins, " +
+                "low_rating_change = head_to_head.low_rating_change + EXCLUDED.low_rating_change, " +
+                "high_rating_change = head_to_head.high_rating_change + EXCLUDED.high_rating_change, " +
+                "last_played_at = GREATEST(head_to_head.last_played_at, EXCLUDED.last_played_at)";
+    }
+
+    /**
+     * Adds newly approved games; each game must be added once, which approval's
+     * pending-to-approved update guarantees.
+     */
+    public void addGames(Collection<UUID> gameIds) {
+        if (gameIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(ADD_SQL, (Object) gameIds.stream().map(UUID::toString).toArray(String[]::new));
+    }
+
+    /**
+     * Takes an approved game back out before it is deleted.
+     */
+    @Transactional
+    public void removeGame(UUID gameId) {
+        jdbcTemplate.update(REMOVE_SQL, gameId);
+        jdbcTemplate.update("DELETE FROM head_to_head h USING games g WHERE g.id = ? " +
+                "AND h.player_low = LEAST(g.white_player_id, g.black_player_id) " +
+                "AND h.player_high = GREATEST(g.white_player_id, g.black_player_id) AND h.games <= 0", gameId);
+    }
+
+    /**
+     * Rebuilds every record, for when rating history has been rewritten. Runs in the
+     * caller's transaction.
+     */
+    void rebuild() {
+        jdbcTemplate.update("DELETE FROM head_to_head");
+        jdbcTemplate.update(REBUILD_SQL);
+    }
+
+    public HeadToHead get(UUID playerId, UUID opponentId, int lastGames) {
+        if (playerId.equals(opponentId)) {
+            throw new IllegalArgumentException("A player has no record against themselves");
+        }
+        Integer found = jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id IN (?, ?)",
+                Integer.class, playerId, opponentId);
+        if (found == null || found < 2) {
+            throw new ResourceNotFoundException("Player not found");
+        }
+
+        HeadToHead record = new HeadToHead();
+        record.setPlayerId(playerId);
+        record.setOpponentId(opponentId);
+        // Postgres orders uuids by their bytes, which UUID.compareTo does not, so the
+        // database picks the low side
+        jdbcTemplate.query("SELECT player_low = ? AS player_is_low, games, low_wins, draws, high_wins, " +
+                "low_rating_change, high_rating_change, last_played_at FROM head_to_head " +
+                "WHERE player_low = LEAST(?::uuid, ?::uuid) AND player_high = GREATEST(?::uuid, ?::uuid)", rs -> {
+            boolean low = rs.getBoolean("player_is_low");
+            record.setGames(rs.getInt("games"));
+            record.setWins(rs.getInt(low ? "low_wins" : "high_wins"));
+            record.setDraws(rs.getInt("draws"));
+            record.setLosses(rs.getInt(low ? "high_wins" : "low_wins"));
+            record.setRatingChange(rs.getInt(low ? "low_rating_change" : "high_rating_change"));
+            record.setOpponentRatingChange(rs.getInt(low ? "high_rating_change" : "low_rating_change"));
+            Timestamp lastPlayed = rs.getTimestamp("last_played_at");
+            record.setLastPlayedAt(lastPlayed != null ? lastPlayed.toLocalDateTime() : null);
+        }, playerId, playerId, opponentId, playerId, opponentId);
+
+        int limit = Math.min(Math.max(lastGames, 0), MAX_LAST_GAMES);
+        List<HeadToHeadGame> games = jdbcTemplate.query("SELECT g.id, g.event, g.game_date, g.white_player, " +
+                "g.black_player, g.result, g.created_at, h.rating_change FROM games g " +
+                "LEFT JOIN rating_history h ON h.game_id = g.id AND h.player_id = ? " +
+                "WHERE LEAST(g.white_player_id, g.black_player_id) = LEAST(?::uuid, ?::uuid) " +
+                "AND GREATEST(g.white_player_id, g.black_player_id) = GREATEST(?::uuid, ?::uuid) " +
+                "AND g.approved = true ORDER BY g.created_at DESC LIMIT ?", (rs, rowNum) -> {
+            Date gameDate = rs.getDate("game_date");
+            return new HeadToHeadGame(rs.getObject("id", UUID.class), rs.getString("event"),
+                    gameDate != null ? gameDate.toLocalDate() : null, rs.getString("white_player"),
+                    rs.getString("black_player"), rs.getString("result"),
+                    rs.getObject("rating_change", Integer.class), rs.getTimestamp("created_at").toLocalDateTime());
+        }, playerId, playerId, opponentId, playerId, opponentId, limit);
+        record.setLastGames(games);
+        return record;
+    }
+}
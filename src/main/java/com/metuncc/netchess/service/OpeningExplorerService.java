@@ -0,0 +1,233 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.Move;
+import com.metuncc.netchess.chess.MoveGenerator;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.dto.OpeningMove;
+import com.metuncc.netchess.dto.OpeningTreeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Opening tree over approved games. Each (position, move) pair keeps running totals in
+ * opening_moves, updated when a game is approved or deleted, so reading a node is a
+ * primary key range scan. Positions are keyed by Zobrist hash, so transpositions share a
+ * node.
+ */
+@Service
+public class OpeningExplorerService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningExplorerService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO opening_moves (position_hash, move, games, white_wins, draws, black_wins, elo_sum, elo_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (position_hash, move) DO UPDATE SET " +
+            "games = opening_moves.games + EXCLUDED.games, " +
+            "white_wins = opening_moves.white_wins + EXCLUDED.white_wins, " +
+            "draws = opening_moves.draws + EXCLUDED.draws, " +
+            "black_wins = opening_moves.black_wins + EXCLUDED.black_wins, " +
+            "elo_sum = opening_moves.elo_sum + EXCLUDED.elo_sum, " +
+            "elo_count = opening_moves.elo_count + EXCLUDED.elo_count";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO opening_moves (position_hash, move, games, white_wins, draws, black_wins, elo_sum, elo_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String NODE_SQL =
+            "SELECT move, games, white_wins, draws, black_wins, elo_sum, elo_count " +
+            "FROM opening_moves WHERE position_hash = ? AND games > 0";
+
+    private static final int WRITE_BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgnService pgnService;
+    private final GameArchiveService gameArchiveService;
+    private final int maxPly;
+
+    public OpeningExplorerService(JdbcTemplate jdbcTemplate,
+                                  PgnService pgnService,
+                                  GameArchiveService gameArchiveService,
+                                  @Value("${games.openings.max-ply:30}") int maxPly) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pgnService = pgnService;
+        this.gameArchiveService = gameArchiveService;
+        this.maxPly = maxPly;
+    }
+
+    public void addGame(PgnGame pgn, String result) {
+        apply(pgn, result, 1);
+    }
+
+    public void removeGame(PgnGame pgn, String result) {
+        apply(pgn, result, -1);
+    }
+
+    public OpeningTreeResponse tree(Position position) {
+        List<long[]> rows = jdbcTemplate.query(NODE_SQL, (rs, rowNum) -> new long[] {
+                rs.getInt("move"), rs.getInt("games"), rs.getInt("white_wins"), rs.getInt("draws"),
+                rs.getInt("black_wins"), rs.getLong("elo_sum"), rs.getInt("elo_count")
+        }, position.hash());
+
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int legalCount = MoveGenerator.generateLegal(position, legal);
+        List<OpeningMove> moves = new ArrayList<>(rows.size());
+        int total = 0;
+        for (long[] row : rows) {
+            int move = (int) row[0];
+            if (!contains(legal, legalCount, move)) {
+                continue;
+            }
+            int games = (int) row[1];
+            OpeningMove entry = new OpeningMove();
+            entry.setSan(San.format(position, move));
+            entry.setUci(Move.toUci(move));
+            entry.setGames(games);
+            entry.setWhitePercent(percent(row[2], games));
+            entry.setDrawPercent(percent(row[3], games));
+            entry.setBlackPercent(percent(row[4], games));
+            entry.setAverageElo(row[6] > 0 ? (int) Math.round((double) row[5] / row[6]) : null);
+            moves.add(entry);
+            total += games;
+        }
+        moves.sort(Comparator.comparingInt(OpeningMove::getGames).reversed());
+        return new OpeningTreeResponse(position.toFen(), total, moves);
+    }
+
+    /**
+     * Recomputes the whole table from the approved games, streaming them with a cursor.
+     */
+    @Transactional
+    public int rebuild() {
+        Map<Key, long[]> totals = new HashMap<>();
+        int[] games = new int[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, pgn_content, move_data, result FROM games " +
+                    "WHERE approved = true AND (pgn_content IS NOT NULL OR move_data IS NOT NULL)");
+            ps.setFetchSize(500);
+            return ps;
+        }, rs -> {
+            try {
+                PgnGame pgn = gameArchiveService.load(rs.getString("pgn_content"), rs.getBytes("move_data"));
+                collect(pgn, rs.getString("result"), 1, totals);
+                games[0]++;
+            } catch (RuntimeException e) {
+                log.warn("Skipping game {} in opening tree: {}", rs.getObject("id"), e.getMessage());
+            }
+        });
+
+        jdbcTemplate.update("DELETE FROM opening_moves");
+        write(INSERT_SQL, totals);
+        log.info("Rebuilt opening tree from {} games ({} moves)", games[0], totals.size());
+        return games[0];
+    }
+
+    private void apply(PgnGame pgn, String result, int delta) {
+        // sorted so concurrent approvals lock rows in the same order
+        Map<Key, long[]> totals = new TreeMap<>();
+        collect(pgn, result, delta, totals);
+        write(UPSERT_SQL, totals);
+    }
+
+    private void collect(PgnGame pgn, String result, int delta, Map<Key, long[]> totals) {
+        int[] moves = pgnService.resolveMoves(pgn);
+        Position position = pgnService.startPosition(pgn);
+
+        String outcome = result != null ? result : pgn.getResult();
+        int white = "1-0".equals(outcome) ? delta : 0;
+        int draw = "1/2-1/2".equals(outcome) ? delta : 0;
+        int black = "0-1".equals(outcome) ? delta : 0;
+        long eloSum = 0;
+        int eloCount = 0;
+        for (String tag : new String[] { "WhiteElo", "BlackElo" }) {
+            int elo = parseElo(pgn.getTag(tag));
+            if (elo > 0) {
+                eloSum += elo;
+                eloCount++;
+            }
+        }
+
+        Set<Key> seen = new HashSet<>();
+        int plies = Math.min(moves.length, maxPly);
+        for (int ply = 0; ply < plies; ply++) {
+            Key key = new Key(position.hash(), moves[ply]);
+            position.makeMove(moves[ply]);
+            if (!seen.add(key)) {
+                continue;
+            }
+            long[] t = totals.computeIfAbsent(key, k -> new long[6]);
+            t[0] += delta;
+            t[1] += white;
+            t[2] += draw;
+            t[3] += black;
+            t[4] += delta * eloSum;
+            t[5] += delta * eloCount;
+        }
+    }
+
+    private void write(String sql, Map<Key, long[]> totals) {
+        List<Object[]> batch = new ArrayList<>(Math.min(totals.size(), WRITE_BATCH));
+        for (Map.Entry<Key, long[]> entry : totals.entrySet()) {
+            long[] t = entry.getValue();
+            batch.add(new Object[] { entry.getKey().hash(), entry.getKey().move(),
+                    (int) t[0], (int) t[1], (int) t[2], (int) t[3], t[4], (int) t[5] });
+            if (batch.size() == WRITE_BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double percent(long part, int games) {
+        return games == 0 ? 0 : Math.round(part * 1000.0 / games) / 10.0;
+    }
+
+    private static int parseElo(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private record Key(long hash, int move) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int c = Long.compare(hash, other.hash);
+            return c != 0 ? c : Integer.compare(move, other.move);
+        }
+    }
+}
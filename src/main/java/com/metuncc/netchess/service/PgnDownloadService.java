@@ -0,0 +1,270 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.entity.Game;
+import com.metuncc.netchess.exception.ResourceNotFoundException;
+import com.metuncc.netchess.service.storage.GzipCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves the PGN file of a game. Local storage is read in place; objects in S3 are
+ * copied into a local directory on first access and served from there. The directory
+ * is kept under a size limit by evicting the least recently used files. Storage keys
+ * are content-addressed, so a cached file never goes stale.
+ */
+@Service
+public class PgnDownloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(PgnDownloadService.class);
+
+    private final StorageService storageService;
+    private final GameArchiveService gameArchiveService;
+    private final Path cacheDir;
+    private final long maxCacheBytes;
+
+    // cache file name -> size, in access order
+    private final LinkedHashMap<String, Long> cached = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    @Autowired
+    public PgnDownloadService(StorageService storageService,
+                              GameArchiveService gameArchiveService,
+                              @Value("${games.pgn-cache.dir:${java.io.tmpdir}/netchess-pgn-cache}") String cacheDir,
+                              @Value("${games.pgn-cache.max-bytes:268435456}") long maxCacheBytes) throws IOException {
+        this(storageService, gameArchiveService, Path.of(cacheDir), maxCacheBytes);
+    }
+
+    public PgnDownloadService(StorageService storageService,
+                              GameArchiveService gameArchiveService,
+                              Path cacheDir,
+                              long maxCacheBytes) throws IOException {
+        this.storageService = storageService;
+        this.gameArchiveService = gameArchiveService;
+        this.cacheDir = Files.createDirectories(cacheDir);
+        this.maxCacheBytes = maxCacheBytes;
+        loadExisting();
+    }
+
+    /**
+     * Whether {@link #open} serves the game from a stored file rather than from text.
+     * Stored files are gzip, except those written before compression was added.
+     */
+    public boolean isStored(Game game) {
+        boolean stored = game.getS3Key() != null && (game.getStorageStatus() == null
+                || game.getStorageStatus() == Game.StorageStatus.STORED);
+        // keys from before local storage existed point at nothing
+        return stored && (storageService.isRemote() || storageService.exists(game.getS3Key()));
+    }
+
+    /**
+     * The tag of a stored file, known from the game row without fetching the file. A
+     * gzip-encoded response is a different representation and gets its own tag.
+     */
+    public String etag(Game game, boolean gzip) {
+        String tag = game.getContentSha256() != null ? game.getContentSha256() : "pgn-" + game.getId();
+        return "\"" + tag + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * The tag of text held in the database or regenerated from the moves, which need not
+     * match the stored file's hash: a hash of the bytes actually served.
+     */
+    public String etag(PgnContent content) {
+        if (content.bytes == null) {
+            throw new IllegalArgumentException("Stored files are tagged from the game");
+        }
+        return "\"" + HexFormat.of().formatHex(StorageService.sha256().digest(content.bytes)) + "\"";
+    }
+
+    /**
+     * The PGN of a game, opened for reading. The caller closes it.
+     */
+    public PgnContent open(Game game) throws IOException {
+        if (isStored(game)) {
+            return new PgnContent(storageService.isRemote()
+                    ? openCached(game.getS3Key()) : storageService.openLocal(game.getS3Key()));
+        }
+        String text = gameArchiveService.pgnText(game);
+        if (text == null) {
+            throw new ResourceNotFoundException("PGN not found");
+        }
+        return new PgnContent(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    FileChannel openCached(String key) throws IOException {
+        String name = fileName(key);
+        Path file = cacheDir.resolve(name);
+        synchronized (cached) {
+            if (cached.get(name) != null) {
+                try {
+                    return FileChannel.open(file, StandardOpenOption.READ);
+                } catch (NoSuchFileException e) {
+                    cachedBytes -= cached.remove(name);
+                }
+            }
+        }
+
+        Path temp = Files.createTempFile(cacheDir, name, ".tmp");
+        try {
+            storageService.downloadTo(key, temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // opened before it is registered, so eviction can only unlink it under us
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        add(name, channel.size());
+        return channel;
+    }
+
+    private void add(String name, long size) {
+        synchronized (cached) {
+            Long previous = cached.put(name, size);
+            if (previous != null) {
+                cachedBytes -= previous;
+            }
+            cachedBytes += size;
+            Iterator<Map.Entry<String, Long>> eldest = cached.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                try {
+                    Files.deleteIfExists(cacheDir.resolve(entry.getKey()));
+                } catch (IOException e) {
+                    log.warn("Could not evict cached PGN {}: {}", entry.getKey(), e.getMessage());
+                }
+                cachedBytes -= entry.getValue();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void loadExisting() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(cacheDir)) {
+            files = listing.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(PgnDownloadService::lastModified))
+                    .toList();
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".tmp")) {
+                Files.deleteIfExists(file);
+            } else {
+                add(file.getFileName().toString(), Files.size(file));
+            }
+        }
+    }
+
+    private static Long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String fileName(String key) {
+        return HexFormat.of().formatHex(StorageService.sha256().digest(key.getBytes(StandardCharsets.UTF_8))) + ".pgn";
+    }
+
+    /**
+     * Either a stored file, possibly gzip-compressed, or an in-memory PGN text.
+     */
+    public static class PgnContent implements Closeable {
+
+        private final FileChannel channel;
+        private final byte[] bytes;
+        private final boolean compressed;
+
+        PgnContent(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.bytes = null;
+            ByteBuffer head = ByteBuffer.allocate(2);
+            try {
+                channel.read(head, 0);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            this.compressed = GzipCodec.isCompressed(Arrays.copyOf(head.array(), head.position()));
+        }
+
+        PgnContent(byte[] bytes) {
+            this.channel = null;
+            this.bytes = bytes;
+            this.compressed = false;
+        }
+
+        /**
+         * Whether the stored bytes are gzip; {@link #length()} and {@link #writeTo} then
+         * refer to the compressed form.
+         */
+        public boolean isCompressed() {
+            return compressed;
+        }
+
+        public long length() throws IOException {
+            return channel != null ? channel.size() : bytes.length;
+        }
+
+        public void writeTo(OutputStream out, long position, long count) throws IOException {
+            if (channel == null) {
+                out.write(bytes, (int) position, (int) count);
+                return;
+            }
+            WritableByteChannel target = Channels.newChannel(out);
+            long end = position + count;
+            while (position < end) {
+                long written = channel.transferTo(position, end - position, target);
+                if (written <= 0) {
+                    throw new IOException("Cached PGN file was truncated");
+                }
+                position += written;
+            }
+        }
+
+        /**
+         * Writes the uncompressed PGN, inflating on the fly if needed.
+         */
+        public void writeDecodedTo(OutputStream out) throws IOException {
+            if (!compressed) {
+                writeTo(out, 0, length());
+                return;
+            }
+            channel.position(0);
+            new GZIPInputStream(Channels.newInputStream(channel), 8192).transferTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.IllegalMoveException;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.San;
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.chess.pgn.PgnParseException;
+import com.metuncc.netchess.chess.pgn.PgnReader;
+import com.metuncc.netchess.entity.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class PgnService {
+
+    private static final Logger log = LoggerFactory.getLogger(PgnService.class);
+
+    public PgnGame parseSingle(InputStream in) throws IOException {
+        try (PgnReader reader = new PgnReader(in, true)) {
+            return readFirst(reader);
+        }
+    }
+
+    public PgnGame parseSingle(String pgnContent) {
+        try (PgnReader reader = new PgnReader(new StringReader(pgnContent), true)) {
+            return readFirst(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read PGN text", e);
+        }
+    }
+
+    public Position startPosition(PgnGame pgn) {
+        String fen = pgn.getTag("FEN");
+        if (fen == null) {
+            return Position.startingPosition();
+        }
+        try {
+            return Fen.parse(fen);
+        } catch (IllegalArgumentException e) {
+            throw new PgnParseException(e.getMessage());
+        }
+    }
+
+    public void validateMoves(PgnGame pgn) {
+        resolveMoves(pgn);
+    }
+
+    /**
+     * Replays the movetext from the game's start position and returns the encoded moves.
+     * The result is cached on the game.
+     */
+    public int[] resolveMoves(PgnGame pgn) {
+        if (pgn.getEncodedMoves() != null) {
+            return pgn.getEncodedMoves();
+        }
+        Position position = startPosition(pgn);
+        List<String> sanMoves = pgn.getMoves();
+        int[] moves = new int[sanMoves.size()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            try {
+                moves[ply] = San.parse(position, sanMoves.get(ply));
+            } catch (IllegalMoveException e) {
+                throw new PgnParseException(e.getMessage() + " at move " + (ply / 2 + 1));
+            }
+            position.makeMove(moves[ply]);
+        }
+        pgn.setEncodedMoves(moves);
+        return moves;
+    }
+
+    public void applyHeaders(Game game, PgnGame pgn) {
+        game.setEvent(truncate(tagValue(pgn, "Event"), 200));
+        game.setSite(truncate(tagValue(pgn, "Site"), 100));
+        game.setRound(truncate(tagValue(pgn, "Round"), 50));
+        game.setEco(truncate(tagValue(pgn, "ECO"), 10));
+        game.setWhitePlayer(truncate(tagValue(pgn, "White"), 100));
+        game.setBlackPlayer(truncate(tagValue(pgn, "Black"), 100));
+        game.setGameDate(parseDate(tagValue(pgn, "Date")));
+
+        String result = tagValue(pgn, "Result");
+        game.setResult(result != null ? result : pgn.getResult());
+    }
+
+    private PgnGame readFirst(PgnReader reader) throws IOException {
+        PgnGame game = reader.next();
+        if (game == null) {
+            throw new PgnParseException("No game found in PGN", 1);
+        }
+        validateMoves(game);
+        // whatever follows the first game is never parsed, so it cannot fail the upload
+        if (log.isDebugEnabled()) {
+            try {
+                if (reader.hasNextGame()) {
+                    log.debug("PGN contains more than one game, only the first one is stored");
+                }
+            } catch (PgnParseException e) {
+                log.debug("Ignoring unreadable text after the first game: {}", e.getMessage());
+            }
+        }
+        return game;
+    }
+
+    private String tagValue(PgnGame pgn, String name) {
+        String value = pgn.getTag(name);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.isEmpty() || value.equals("?") || value.equals("-")) {
+            return null;
+        }
+        return value;
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.length() != 10 || value.charAt(4) != '.' || value.charAt(7) != '.') {
+            return null;
+        }
+        try {
+            int year = Integer.parseInt(value.substring(0, 4));
+            int month = Integer.parseInt(value.substring(5, 7));
+            int day = Integer.parseInt(value.substring(8, 10));
+            return LocalDate.of(year, month, day);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+}
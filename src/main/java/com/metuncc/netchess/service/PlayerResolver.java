@@ -0,0 +1,68 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.entity.Game;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Links games read from PGN to members by the players' names, the same way existing
+ * games were linked when the player columns were added: a name matching exactly one
+ * member's full name or username. Games whose names match no one or several members
+ * stay unlinked, and are not rated.
+ */
+@Service
+public class PlayerResolver {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlayerResolver(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Sets the player ids of games that have none, with one query for the whole batch.
+     */
+    public void resolve(List<Game> games) {
+        Set<String> names = new HashSet<>();
+        for (Game game : games) {
+            if (game.getWhitePlayerId() == null && game.getWhitePlayer() != null) {
+                names.add(game.getWhitePlayer());
+            }
+            if (game.getBlackPlayerId() == null && game.getBlackPlayer() != null) {
+                names.add(game.getBlackPlayer());
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        String[] candidates = names.toArray(new String[0]);
+        Map<String, Set<UUID>> matches = new HashMap<>();
+        jdbcTemplate.query("SELECT id, username, full_name FROM users WHERE username = ANY(?) OR full_name = ANY(?)",
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    matches.computeIfAbsent(rs.getString("username"), name -> new HashSet<>()).add(id);
+                    matches.computeIfAbsent(rs.getString("full_name"), name -> new HashSet<>()).add(id);
+                }, candidates, candidates);
+
+        for (Game game : games) {
+            if (game.getWhitePlayerId() == null) {
+                game.setWhitePlayerId(unique(matches.get(game.getWhitePlayer())));
+            }
+            if (game.getBlackPlayerId() == null) {
+                game.setBlackPlayerId(unique(matches.get(game.getBlackPlayer())));
+            }
+        }
+    }
+
+    private static UUID unique(Set<UUID> ids) {
+        return ids != null && ids.size() == 1 ? ids.iterator().next() : null;
+    }
+}
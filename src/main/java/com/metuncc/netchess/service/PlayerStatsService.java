@@ -0,0 +1,279 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.PlayerStats;
+import com.metuncc.netchess.exception.ResourceNotFoundException;
+import com.metuncc.netchess.service.rating.RatedGames;
+import com.metuncc.netchess.service.rating.RatingReplay;
+import com.metuncc.netchess.service.rating.RatingState;
+import com.metuncc.netchess.service.stats.StatsTally;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Per-player results by colour, streaks, peak rating and opponent strength, kept in
+ * player_stats so a profile reads one row. Rating a batch of games folds them into the
+ * players' stored rows in the same transaction; a rebuild recomputes every row from
+ * games and rating_history in one streaming pass.
+ */
+@Service
+public class PlayerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatsService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String COLUMNS = "white_wins, white_draws, white_losses, black_wins, black_draws, " +
+            "black_losses, current_streak, best_win_streak, peak_rating, opponent_rating_sum";
+
+    private static final String UPSERT_SQL = "INSERT INTO player_stats (player_id, " + COLUMNS + ", updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now()) ON CONFLICT (player_id) DO UPDATE SET " +
+            "white_wins = EXCLUDED.white_wins, white_draws = EXCLUDED.white_draws, " +
+            "white_losses = EXCLUDED.white_losses, black_wins = EXCLUDED.black_wins, " +
+            "black_draws = EXCLUDED.black_draws, black_losses = EXCLUDED.black_losses, " +
+            "current_streak = EXCLUDED.current_streak, best_win_streak = EXCLUDED.best_win_streak, " +
+            "peak_rating = EXCLUDED.peak_rating, opponent_rating_sum = EXCLUDED.opponent_rating_sum, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlayerStatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Every rated game in the order its period rated it, with both sides' ratings going
+     * in and coming out: from the game's own history rows under Elo, from the period's
+     * rows under Glicko-2, and the current rating where neither exists.
+     */
+    private static String gamesSql(String filter) {
+        return "SELECT g.white_player_id, g.black_player_id, g.result, " +
+                "wu.ncc_elo AS white_current, bu.ncc_elo AS black_current, " +
+                "COALESCE(wh.old_rating, wp.old_rating) AS white_before, COALESCE(wh.new_rating, wp.new_rating) AS white_after, " +
+                "COALESCE(bh.old_rating, bp.old_rating) AS black_before, COALESCE(bh.new_rating, bp.new_rating) AS black_after " +
+                "FROM games g JOIN rating_periods rp ON rp.id = g.rating_period_id " +
+                "JOIN users wu ON wu.id = g.white_player_id JOIN users bu ON bu.id = g.black_player_id " +
+                "LEFT JOIN rating_history wh ON wh.game_id = g.id AND wh.player_id = g.white_player_id " +
+                "LEFT JOIN rating_history bh ON bh.game_id = g.id AND bh.player_id = g.black_player_id " +
+                "LEFT JOIN rating_history wp ON wp.game_id IS NULL AND wp.player_id = g.white_player_id " +
+                "AND wp.changed_at = rp.closed_at " +
+                "LEFT JOIN rating_history bp ON bp.game_id IS NULL AND bp.player_id = g.black_player_id " +
+                "AND bp.changed_at = rp.closed_at " +
+                "WHERE " + RatingPeriodService.RATED_GAMES + " " + filter +
+                " ORDER BY g.rating_period_id, g.game_date NULLS LAST, g.created_at, g.id";
+    }
+
+    public PlayerStats get(UUID playerId) {
+        List<PlayerStats> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM player_stats WHERE player_id = ?",
+                (rs, rowNum) -> {
+                    PlayerStats stats = new PlayerStats();
+                    stats.setWhiteWins(rs.getInt("white_wins"));
+                    stats.setWhiteDraws(rs.getInt("white_draws"));
+                    stats.setWhiteLosses(rs.getInt("white_losses"));
+                    stats.setBlackWins(rs.getInt("black_wins"));
+                    stats.setBlackDraws(rs.getInt("black_draws"));
+                    stats.setBlackLosses(rs.getInt("black_losses"));
+                    stats.setCurrentStreak(rs.getInt("current_streak"));
+                    stats.setBestWinStreak(rs.getInt("best_win_streak"));
+                    stats.setPeakRating(rs.getInt("peak_rating"));
+                    int games = stats.getWins() + stats.getDraws() + stats.getLosses();
+                    if (games > 0) {
+                        stats.setAverageOpponentRating((int) Math.round((double) rs.getLong("opponent_rating_sum") / games));
+                    }
+                    return stats;
+                }, playerId);
+        PlayerStats stats;
+        if (rows.isEmpty()) {
+            // no rated games yet
+            List<Integer> rating = jdbcTemplate.queryForList("SELECT ncc_elo FROM users WHERE id = ?",
+                    Integer.class, playerId);
+            if (rating.isEmpty()) {
+                throw new ResourceNotFoundException("Player not found");
+            }
+            stats = new PlayerStats();
+            stats.setPeakRating(rating.get(0));
+        } else {
+            stats = rows.get(0);
+        }
+        stats.setPlayerId(playerId);
+        return stats;
+    }
+
+    /**
+     * Starts a tally for rating these games from the stored rows of the players in them.
+     * Players without a row start at their current rating.
+     */
+    StatsTally load(RatingState state, RatedGames games) {
+        StatsTally stats = new StatsTally(state.count());
+        boolean[] playing = new boolean[state.count()];
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < games.count(); i++) {
+            for (int player : new int[] { games.white(i), games.black(i) }) {
+                if (!playing[player]) {
+                    playing[player] = true;
+                    ids.add(state.id(player).toString());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return stats;
+        }
+        jdbcTemplate.query("SELECT player_id, " + COLUMNS + " FROM player_stats WHERE player_id = ANY(?::uuid[])",
+                rs -> {
+                    int player = state.indexOf(rs.getObject("player_id", UUID.class));
+                    stats.load(player,
+                            new int[] { rs.getInt("white_wins"), rs.getInt("white_draws"), rs.getInt("white_losses") },
+                            new int[] { rs.getInt("black_wins"), rs.getInt("black_draws"), rs.getInt("black_losses") },
+                            rs.getInt("current_streak"), rs.getInt("best_win_streak"), rs.getInt("peak_rating"),
+                            rs.getLong("opponent_rating_sum"));
+                }, (Object) ids.toArray(new String[0]));
+        for (int p = 0; p < state.count(); p++) {
+            if (playing[p]) {
+                stats.rating(p, (int) Math.round(state.rating(p)));
+            }
+        }
+        return stats;
+    }
+
+    void save(RatingState state, StatsTally stats) {
+        write(stats, state::id);
+    }
+
+    /**
+     * Rebuilds players' statistics on startup when none are stored but games have been
+     * rated, e.g. right after the table was added.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        Boolean missing = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM player_stats) " +
+                "AND EXISTS (SELECT 1 FROM games WHERE rating_period_id IS NOT NULL)", Boolean.class);
+        if (Boolean.TRUE.equals(missing)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces every player's statistics; returns the number of players written.
+     */
+    public int rebuild() {
+        int players = transactionTemplate.execute(status -> {
+            // ratings cannot change under the pass
+            jdbcTemplate.execute("LOCK TABLE rating_history IN EXCLUSIVE MODE");
+            return rebuildLocked();
+        });
+        log.info("Player statistics rebuilt for {} players", players);
+        return players;
+    }
+
+    /**
+     * The rebuild itself, for callers already holding the rating_history lock.
+     */
+    int rebuildLocked() {
+        Map<UUID, Integer> index = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        jdbcTemplate.query("SELECT id FROM users", rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            index.put(id, ids.size());
+            ids.add(id);
+        });
+        StatsTally stats = tally(index, "", new Object[0]);
+        jdbcTemplate.update("DELETE FROM player_stats");
+        return write(stats, ids::get);
+    }
+
+    /**
+     * Recomputes the rows of the given players from the rated games left, e.g. after one
+     * of their games was deleted. A player with no rated games left loses their row.
+     */
+    public void rebuildPlayers(List<UUID> playerIds) {
+        if (playerIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Integer> index = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (UUID id : playerIds) {
+            if (index.putIfAbsent(id, ids.size()) == null) {
+                ids.add(id);
+            }
+        }
+        String[] array = ids.stream().map(UUID::toString).toArray(String[]::new);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE rating_history IN EXCLUSIVE MODE");
+            StatsTally stats = tally(index, "AND (g.white_player_id = ANY(?::uuid[]) " +
+                    "OR g.black_player_id = ANY(?::uuid[]))", new Object[] { array, array });
+            jdbcTemplate.update("DELETE FROM player_stats WHERE player_id = ANY(?::uuid[])", (Object) array);
+            write(stats, ids::get);
+        });
+    }
+
+    /**
+     * Folds the rated games matching the filter, in rating order, into a tally of the
+     * indexed players; opponents outside the index only lend their ratings.
+     */
+    private StatsTally tally(Map<UUID, Integer> index, String filter, Object[] params) {
+        StatsTally stats = new StatsTally(index.size());
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(gamesSql(filter));
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps;
+        }, rs -> {
+            int white = index.getOrDefault(rs.getObject("white_player_id", UUID.class), -1);
+            int black = index.getOrDefault(rs.getObject("black_player_id", UUID.class), -1);
+            int whiteBefore = rating(rs.getObject("white_before", Integer.class), rs.getInt("white_current"));
+            int blackBefore = rating(rs.getObject("black_before", Integer.class), rs.getInt("black_current"));
+            if (white >= 0) {
+                stats.rating(white, whiteBefore);
+                stats.rating(white, rating(rs.getObject("white_after", Integer.class), whiteBefore));
+            }
+            if (black >= 0) {
+                stats.rating(black, blackBefore);
+                stats.rating(black, rating(rs.getObject("black_after", Integer.class), blackBefore));
+            }
+            stats.game(white, black, RatingReplay.outcome(rs.getString("result")), whiteBefore, blackBefore);
+        });
+        return stats;
+    }
+
+    private static int rating(Integer recorded, int fallback) {
+        return recorded != null ? recorded : fallback;
+    }
+
+    private int write(StatsTally stats, IntFunction<UUID> ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 0; p < stats.players(); p++) {
+            if (stats.touched(p)) {
+                rows.add(new Object[] {
+                        ids.apply(p),
+                        stats.results(p, 0, StatsTally.WIN), stats.results(p, 0, StatsTally.DRAW),
+                        stats.results(p, 0, StatsTally.LOSS), stats.results(p, 1, StatsTally.WIN),
+                        stats.results(p, 1, StatsTally.DRAW), stats.results(p, 1, StatsTally.LOSS),
+                        stats.currentStreak(p), stats.bestWinStreak(p), stats.peakRating(p),
+                        stats.opponentRatingSum(p)
+                });
+            }
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        return rows.size();
+    }
+}
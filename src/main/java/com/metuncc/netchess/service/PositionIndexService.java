@@ -0,0 +1,176 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.chess.Fen;
+import com.metuncc.netchess.chess.Position;
+import com.metuncc.netchess.chess.pgn.PgnGame;
+import com.metuncc.netchess.dto.PositionMatch;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maintains the game_positions table: one Zobrist hash per ply of every approved game,
+ * so "which games reached this position" is a single index lookup.
+ */
+@Service
+public class PositionIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionIndexService.class);
+
+    private static final String INSERT_POSITION_SQL =
+            "INSERT INTO game_positions (hash, game_id, ply) VALUES (?, ?, ?) " +
+            "ON CONFLICT (game_id, ply) DO UPDATE SET hash = EXCLUDED.hash";
+
+    private static final String FIND_BY_HASH_SQL =
+            "SELECT g.id, g.event, g.game_date, g.white_player, g.black_player, g.result, p.ply " +
+            "FROM (SELECT game_id, MIN(ply) AS ply FROM game_positions WHERE hash = ? GROUP BY game_id) p " +
+            "JOIN games g ON g.id = p.game_id " +
+            "WHERE g.approved = true " +
+            "ORDER BY g.game_date DESC NULLS LAST, g.id " +
+            "LIMIT ?";
+
+    private static final String UNINDEXED_GAMES_SQL =
+            "SELECT g.id, g.pgn_content, g.move_data FROM games g " +
+            "WHERE g.approved = true AND (g.pgn_content IS NOT NULL OR g.move_data IS NOT NULL) AND g.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM game_positions p WHERE p.game_id = g.id) " +
+            "ORDER BY g.id LIMIT ?";
+
+    private static final int BACKFILL_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgnService pgnService;
+    private final GameArchiveService gameArchiveService;
+    private final ExecutorService backfillExecutor;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    public PositionIndexService(JdbcTemplate jdbcTemplate,
+                                PgnService pgnService,
+                                GameArchiveService gameArchiveService,
+                                @Value("${games.position-index.backfill-threads:4}") int backfillThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pgnService = pgnService;
+        this.gameArchiveService = gameArchiveService;
+        this.backfillExecutor = Executors.newFixedThreadPool(backfillThreads);
+    }
+
+    public void indexGame(UUID gameId, PgnGame pgn) {
+        long[] hashes = positionHashes(pgn);
+        jdbcTemplate.batchUpdate(INSERT_POSITION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int ply) throws SQLException {
+                ps.setLong(1, hashes[ply]);
+                ps.setObject(2, gameId);
+                ps.setShort(3, (short) ply);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return hashes.length;
+            }
+        });
+    }
+
+    public List<PositionMatch> findGames(String fen, int limit) {
+        long hash = Fen.parse(fen).hash();
+        return jdbcTemplate.query(FIND_BY_HASH_SQL, (rs, rowNum) -> {
+            PositionMatch match = new PositionMatch();
+            match.setGameId(rs.getObject("id", UUID.class));
+            match.setEvent(rs.getString("event"));
+            match.setGameDate(rs.getObject("game_date", LocalDate.class));
+            match.setWhitePlayer(rs.getString("white_player"));
+            match.setBlackPlayer(rs.getString("black_player"));
+            match.setResult(rs.getString("result"));
+            match.setPly(rs.getInt("ply"));
+            return match;
+        }, hash, limit);
+    }
+
+    /**
+     * Starts indexing every approved game that has no positions yet. Returns false if a
+     * backfill is already running.
+     */
+    public boolean startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread coordinator = new Thread(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Position index backfill aborted", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        }, "position-index-backfill");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    private void backfill() {
+        AtomicInteger indexed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        UUID after = new UUID(0, 0);
+        while (true) {
+            List<Object[]> chunk = jdbcTemplate.query(UNINDEXED_GAMES_SQL,
+                    (rs, rowNum) -> new Object[] {
+                            rs.getObject("id", UUID.class), rs.getString("pgn_content"), rs.getBytes("move_data")
+                    },
+                    after, BACKFILL_CHUNK);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                UUID gameId = (UUID) row[0];
+                String pgnContent = (String) row[1];
+                byte[] moveData = (byte[]) row[2];
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        indexGame(gameId, gameArchiveService.load(pgnContent, moveData));
+                        indexed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Could not index positions of game {}: {}", gameId, e.getMessage());
+                    }
+                }, backfillExecutor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+            after = (UUID) chunk.get(chunk.size() - 1)[0];
+        }
+        log.info("Position index backfill finished: {} games indexed, {} failed", indexed.get(), failed.get());
+    }
+
+    private long[] positionHashes(PgnGame pgn) {
+        int[] moves = pgnService.resolveMoves(pgn);
+        Position position = pgnService.startPosition(pgn);
+        long[] hashes = new long[moves.length + 1];
+        hashes[0] = position.hash();
+        for (int i = 0; i < moves.length; i++) {
+            position.makeMove(moves[i]);
+            hashes[i + 1] = position.hash();
+        }
+        return hashes;
+    }
+}
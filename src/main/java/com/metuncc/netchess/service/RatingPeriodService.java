@@ -0,0 +1,231 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.RatingPeriodReport;
+import com.metuncc.netchess.entity.AuditLog;
+import com.metuncc.netchess.service.rating.RatedGames;
+import com.metuncc.netchess.service.rating.RatingReplay;
+import com.metuncc.netchess.service.rating.RatingState;
+import com.metuncc.netchess.service.rating.RatingSystem;
+import com.metuncc.netchess.service.rating.RatingsChangedEvent;
+import com.metuncc.netchess.service.stats.StatsTally;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rates games in batches. Each period takes every approved game not rated yet, rates
+ * them with the configured {@link RatingSystem} against all active players, and writes
+ * the new ratings, history and the games' period in bulk.
+ */
+@Service
+public class RatingPeriodService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingPeriodService.class);
+
+    private static final int FETCH_SIZE = 200;
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Approved games between two distinct members with a decisive or drawn result.
+     */
+    static final String RATED_GAMES =
+            "approved = true AND white_player_id IS NOT NULL AND black_player_id IS NOT NULL " +
+            "AND white_player_id <> black_player_id AND result IN ('1-0', '0-1', '1/2-1/2')";
+
+    static final String GAME_ORDER = " ORDER BY game_date NULLS LAST, created_at, id";
+
+    static final String INSERT_HISTORY_SQL =
+            "INSERT INTO rating_history (id, player_id, old_rating, new_rating, rating_change, game_id, k_factor, " +
+            "changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditService auditService;
+    private final PlayerStatsService playerStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RatingSystem ratingSystem;
+
+    public RatingPeriodService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               AuditService auditService,
+                               PlayerStatsService playerStatsService,
+                               ApplicationEventPublisher eventPublisher,
+                               List<RatingSystem> ratingSystems,
+                               @Value("${ratings.system:elo}") String system) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.auditService = auditService;
+        this.playerStatsService = playerStatsService;
+        this.eventPublisher = eventPublisher;
+        this.ratingSystem = ratingSystems.stream()
+                .filter(candidate -> candidate.name().equals(system))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown rating system: " + system));
+    }
+
+    public RatingSystem getRatingSystem() {
+        return ratingSystem;
+    }
+
+    @Scheduled(cron = "${ratings.period.cron:0 0 5 * * MON}")
+    public void closeScheduledPeriod() {
+        RatingPeriodReport report = closePeriod();
+        log.info("Rating period {} closed with {}: {} games, {} players rated", report.getPeriodId(),
+                report.getRatingSystem(), report.getGamesRated(), report.getPlayersRated());
+    }
+
+    public RatingPeriodReport closePeriod() {
+        return transactionTemplate.execute(status -> {
+            // one writer of ratings at a time; recomputation takes the same lock
+            jdbcTemplate.execute("LOCK TABLE rating_history IN EXCLUSIVE MODE");
+            RatingState state = loadPlayers("WHERE u.active = true OR EXISTS (SELECT 1 FROM games g " +
+                    "WHERE g.rating_period_id IS NULL AND g.approved = true " +
+                    "AND (g.white_player_id = u.id OR g.black_player_id = u.id)) ORDER BY id");
+            return rate(state, loadGames(state, "rating_period_id IS NULL AND "));
+        });
+    }
+
+    /**
+     * Rates the games with the configured system and writes the new ratings, their
+     * history and audit entries, the players' statistics and the games' period, all in
+     * batches. Must run inside
+     * a transaction that holds the players' rows or the rating_history lock.
+     */
+    RatingPeriodReport rate(RatingState state, RatedGames games) {
+        int players = state.count();
+        int[] oldRating = new int[players];
+        double[] oldDeviation = new double[players];
+        double[] oldVolatility = new double[players];
+        int[] oldGames = new int[players];
+        for (int p = 0; p < players; p++) {
+            oldRating[p] = (int) Math.round(state.rating(p));
+            oldDeviation[p] = state.deviation(p);
+            oldVolatility[p] = state.volatility(p);
+            oldGames[p] = state.gamesPlayed(p);
+        }
+
+        // each side's rating going into a game: per game under Elo, the period's start otherwise
+        StatsTally stats = playerStatsService.load(state, games);
+        int[] whiteBefore = new int[games.count()];
+        int[] blackBefore = new int[games.count()];
+        for (int i = 0; i < games.count(); i++) {
+            whiteBefore[i] = oldRating[games.white(i)];
+            blackBefore[i] = oldRating[games.black(i)];
+        }
+
+        Timestamp closedAt = new Timestamp(System.currentTimeMillis());
+        List<Object[]> history = new ArrayList<>();
+        List<UUID> auditUsers = new ArrayList<>();
+        List<String> auditDetails = new ArrayList<>();
+        ratingSystem.ratePeriod(state, games, (player, game, before, after, kFactor) -> {
+            history.add(new Object[] {
+                    UUID.randomUUID(), state.id(player), before, after, after - before,
+                    game >= 0 ? games.id(game) : null, kFactor, game >= 0 ? games.createdAt(game) : closedAt
+            });
+            auditUsers.add(state.id(player));
+            auditDetails.add(AuditService.ratingUpdateDetails(before, after));
+            if (game >= 0) {
+                (player == games.white(game) ? whiteBefore : blackBefore)[game] = before;
+            }
+            if (stats.touched(player)) {
+                stats.rating(player, after);
+            }
+        });
+        for (int i = 0; i < games.count(); i++) {
+            stats.game(games.white(i), games.black(i), games.outcome(i), whiteBefore[i], blackBefore[i]);
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        List<UUID> changedIds = new ArrayList<>();
+        int[] newRatings = new int[players];
+        int[] newGames = new int[players];
+        for (int p = 0; p < players; p++) {
+            int rating = (int) Math.round(state.rating(p));
+            if (rating != oldRating[p] || state.deviation(p) != oldDeviation[p]
+                    || state.volatility(p) != oldVolatility[p] || state.gamesPlayed(p) != oldGames[p]) {
+                updates.add(new Object[] { rating, state.gamesPlayed(p), state.deviation(p), state.volatility(p),
+                        state.id(p) });
+                newRatings[changedIds.size()] = rating;
+                newGames[changedIds.size()] = state.gamesPlayed(p);
+                changedIds.add(state.id(p));
+            }
+        }
+
+        Long periodId = jdbcTemplate.queryForObject("INSERT INTO rating_periods (rating_system, closed_at, " +
+                "games_rated, players_rated) VALUES (?, ?, ?, ?) RETURNING id", Long.class,
+                ratingSystem.name(), closedAt, games.count(), updates.size());
+        writeInBatches("UPDATE users SET ncc_elo = ?, games_played = ?, rating_deviation = ?, " +
+                "rating_volatility = ?, version = version + 1, updated_at = now() WHERE id = ?", updates);
+        writeInBatches(INSERT_HISTORY_SQL, history);
+        auditService.logAll(AuditLog.ActionType.RATING_UPDATE, auditUsers, auditDetails);
+        playerStatsService.save(state, stats);
+        markRated(games, periodId);
+        eventPublisher.publishEvent(new RatingsChangedEvent(changedIds, newRatings, newGames));
+        return new RatingPeriodReport(periodId, ratingSystem.name(), games.count(), updates.size());
+    }
+
+    /**
+     * Loads players from users u with the given WHERE/ORDER BY/FOR UPDATE clauses.
+     */
+    RatingState loadPlayers(String clauses, Object... params) {
+        RatingState state = new RatingState();
+        jdbcTemplate.query("SELECT id, ncc_elo, rating_deviation, rating_volatility, games_played FROM users u "
+                + clauses, rs -> {
+            state.add(rs.getObject("id", UUID.class), rs.getInt("ncc_elo"), rs.getDouble("rating_deviation"),
+                    rs.getDouble("rating_volatility"), rs.getInt("games_played"));
+        }, params);
+        return state;
+    }
+
+    /**
+     * Streams rated games matching the extra condition, in play order, skipping players
+     * not in state.
+     */
+    RatedGames loadGames(RatingState state, String condition, Object... params) {
+        RatedGames games = new RatedGames();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id, white_player_id, black_player_id, result, " +
+                    "created_at FROM games WHERE " + condition + RATED_GAMES + GAME_ORDER);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps;
+        }, rs -> {
+            int white = state.indexOf(rs.getObject("white_player_id", UUID.class));
+            int black = state.indexOf(rs.getObject("black_player_id", UUID.class));
+            if (white < 0 || black < 0) {
+                return;
+            }
+            games.add(rs.getObject("id", UUID.class), white, black,
+                    RatingReplay.outcome(rs.getString("result")), rs.getTimestamp("created_at"));
+        });
+        return games;
+    }
+
+    void markRated(RatedGames games, long periodId) {
+        List<Object[]> rows = new ArrayList<>(Math.min(games.count(), BATCH_SIZE));
+        for (int i = 0; i < games.count(); i++) {
+            rows.add(new Object[] { periodId, games.id(i) });
+        }
+        writeInBatches("UPDATE games SET rating_period_id = ? WHERE id = ?", rows);
+    }
+
+    void writeInBatches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.RatingChange;
+import com.metuncc.netchess.dto.RatingRecomputeReport;
+import com.metuncc.netchess.exception.ConflictException;
+import com.metuncc.netchess.service.rating.EloCalculator;
+import com.metuncc.netchess.service.rating.EloRatingSystem;
+import com.metuncc.netchess.service.rating.RatedGames;
+import com.metuncc.netchess.service.rating.RatingReplay;
+import com.metuncc.netchess.service.rating.RatingState;
+import com.metuncc.netchess.service.rating.RatingsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds every player's Elo rating from scratch by replaying all rated games in the
+ * order they were played. Games are read through a cursor into primitive arrays,
+ * replayed in memory, and the resulting history and ratings are written back in
+ * batches, replacing the previous game-linked history; player statistics and
+ * head-to-head records are then rebuilt from it. A dry run only reports what would change.
+ */
+@Service
+public class RatingRecomputeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingRecomputeService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EloCalculator eloCalculator;
+    private final RatingPeriodService ratingPeriodService;
+    private final PlayerStatsService playerStatsService;
+    private final HeadToHeadService headToHeadService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RatingRecomputeService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EloCalculator eloCalculator,
+                                  RatingPeriodService ratingPeriodService,
+                                  PlayerStatsService playerStatsService,
+                                  HeadToHeadService headToHeadService,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eloCalculator = eloCalculator;
+        this.ratingPeriodService = ratingPeriodService;
+        this.playerStatsService = playerStatsService;
+        this.headToHeadService = headToHeadService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public RatingRecomputeReport recompute(boolean dryRun) {
+        if (!EloRatingSystem.NAME.equals(ratingPeriodService.getRatingSystem().name())) {
+            throw new ConflictException("Recomputation replays Elo ratings, but ratings are kept with "
+                    + ratingPeriodService.getRatingSystem().name());
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A rating recomputation is already running");
+        }
+        try {
+            RatingRecomputeReport report = transactionTemplate.execute(status -> run(dryRun));
+            log.info("Rating recomputation replayed {} games, {} players changed{}",
+                    report.getGamesReplayed(), report.getPlayersChanged(), dryRun ? " (dry run)" : "");
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Deletes a game under the rating lock. If the game was rated, every rating is
+     * replayed without it in the same transaction, so ratings, history and statistics
+     * never count a game that is gone. Returns whether a replay ran.
+     */
+    public boolean deleteGame(UUID gameId) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A rating recomputation is running; try again when it is done");
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE rating_history IN EXCLUSIVE MODE");
+                List<Boolean> rated = jdbcTemplate.queryForList(
+                        "SELECT rating_period_id IS NOT NULL FROM games WHERE id = ?", Boolean.class, gameId);
+                if (rated.isEmpty()) {
+                    return false;
+                }
+                if (rated.get(0) && !EloRatingSystem.NAME.equals(ratingPeriodService.getRatingSystem().name())) {
+                    throw new ConflictException("Rated games cannot be deleted while ratings are kept with "
+                            + ratingPeriodService.getRatingSystem().name());
+                }
+                if (!rated.get(0)) {
+                    headToHeadService.removeGame(gameId);
+                    jdbcTemplate.update("DELETE FROM games WHERE id = ?", gameId);
+                    return false;
+                }
+                jdbcTemplate.update("DELETE FROM games WHERE id = ?", gameId);
+                RatingRecomputeReport report = run(false);
+                log.info("Deleting rated game {} replayed {} games, {} players changed", gameId,
+                        report.getGamesReplayed(), report.getPlayersChanged());
+                return true;
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RatingRecomputeReport run(boolean dryRun) {
+        if (!dryRun) {
+            // hold off rating periods until the new values are in
+            jdbcTemplate.execute("LOCK TABLE rating_history IN EXCLUSIVE MODE");
+        }
+        RatingState players = new RatingState();
+        List<String> usernames = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, username, ncc_elo, rating_deviation, rating_volatility, games_played " +
+                "FROM users ORDER BY id", rs -> {
+            players.add(rs.getObject("id", UUID.class), rs.getInt("ncc_elo"), rs.getDouble("rating_deviation"),
+                    rs.getDouble("rating_volatility"), rs.getInt("games_played"));
+            usernames.add(rs.getString("username"));
+        });
+        RatedGames games = ratingPeriodService.loadGames(players, "");
+
+        RatingReplay replay = new RatingReplay(players.count(), eloCalculator.initialRating());
+        replay.replay(eloCalculator, games);
+
+        List<RatingChange> changes = new ArrayList<>();
+        for (int p = 0; p < players.count(); p++) {
+            int current = (int) players.rating(p);
+            if (replay.rating(p) != current || replay.gamesPlayed(p) != players.gamesPlayed(p)) {
+                changes.add(new RatingChange(players.id(p), usernames.get(p), current, replay.rating(p),
+                        players.gamesPlayed(p), replay.gamesPlayed(p)));
+            }
+        }
+
+        if (!dryRun) {
+            writeHistory(players, games, replay);
+            List<Object[]> updates = new ArrayList<>(changes.size());
+            List<UUID> changedIds = new ArrayList<>(changes.size());
+            int[] newRatings = new int[changes.size()];
+            int[] newGames = new int[changes.size()];
+            for (RatingChange change : changes) {
+                updates.add(new Object[] { change.getRecomputedRating(), change.getRecomputedGames(), change.getPlayerId() });
+                newRatings[changedIds.size()] = change.getRecomputedRating();
+                newGames[changedIds.size()] = change.getRecomputedGames();
+                changedIds.add(change.getPlayerId());
+            }
+            jdbcTemplate.batchUpdate("UPDATE users SET ncc_elo = ?, games_played = ?, version = version + 1, " +
+                    "updated_at = now() WHERE id = ?", updates);
+
+            // every rated game is now accounted for, so the next period starts after them
+            Long periodId = jdbcTemplate.queryForObject("INSERT INTO rating_periods (rating_system, closed_at, " +
+                    "games_rated, players_rated) VALUES (?, now(), ?, ?) RETURNING id", Long.class,
+                    EloRatingSystem.NAME, games.count(), changes.size());
+            ratingPeriodService.markRated(games, periodId);
+            playerStatsService.rebuildLocked();
+            headToHeadService.rebuild();
+            eventPublisher.publishEvent(new RatingsChangedEvent(changedIds, newRatings, newGames));
+        }
+        return new RatingRecomputeReport(dryRun, games.count(), changes);
+    }
+
+    private void writeHistory(RatingState players, RatedGames games, RatingReplay replay) {
+        int deleted = jdbcTemplate.update("DELETE FROM rating_history WHERE game_id IS NOT NULL");
+        log.debug("Replacing {} rating history rows", deleted);
+
+        List<Object[]> rows = new ArrayList<>(games.count() * 2);
+        for (int i = 0; i < games.count(); i++) {
+            UUID gameId = games.id(i);
+            Timestamp playedAt = games.createdAt(i);
+            rows.add(historyRow(players.id(games.white(i)), replay.whiteBefore(i), replay.whiteAfter(i),
+                    gameId, replay.whiteK(i), playedAt));
+            rows.add(historyRow(players.id(games.black(i)), replay.blackBefore(i), replay.blackAfter(i),
+                    gameId, replay.blackK(i), playedAt));
+        }
+        ratingPeriodService.writeInBatches(RatingPeriodService.INSERT_HISTORY_SQL, rows);
+    }
+
+    private static Object[] historyRow(UUID playerId, int before, int after, UUID gameId, int kFactor,
+                                       Timestamp changedAt) {
+        return new Object[] { UUID.randomUUID(), playerId, before, after, after - before, gameId, kFactor, changedAt };
+    }
+}
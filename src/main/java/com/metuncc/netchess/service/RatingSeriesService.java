@@ -0,0 +1,71 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.RatingSeries;
+import com.metuncc.netchess.service.rating.Lttb;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A player's rating over time for charts, reduced to a point budget with LTTB. The rows
+ * are read in the order the ratings were applied from the (player_id, seq) index, which
+ * includes changed_at and new_rating.
+ */
+@Service
+public class RatingSeriesService {
+
+    public static final int DEFAULT_POINTS = 300;
+    public static final int MIN_POINTS = 3;
+    public static final int MAX_POINTS = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RatingSeriesService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public RatingSeries series(UUID playerId, int points) {
+        int budget = Math.max(MIN_POINTS, Math.min(points, MAX_POINTS));
+        Rows rows = new Rows();
+        jdbcTemplate.query("SELECT changed_at, new_rating FROM rating_history WHERE player_id = ? ORDER BY seq",
+                rs -> {
+                    rows.add(rs.getTimestamp("changed_at"), rs.getInt("new_rating"));
+                }, playerId);
+
+        int[] kept = Lttb.select(rows.time, rows.rating, rows.count, budget);
+        int[][] series = new int[kept.length][];
+        for (int i = 0; i < kept.length; i++) {
+            series[i] = new int[] { rows.day[kept[i]], rows.rating[kept[i]] };
+        }
+        return new RatingSeries(playerId, rows.count, series);
+    }
+
+    private static class Rows {
+
+        long[] time = new long[256];
+        int[] day = new int[256];
+        int[] rating = new int[256];
+        int count;
+
+        void add(Timestamp changedAt, int newRating) {
+            if (count == time.length) {
+                time = Arrays.copyOf(time, count * 2);
+                day = Arrays.copyOf(day, count * 2);
+                rating = Arrays.copyOf(rating, count * 2);
+            }
+            // a game rated after later-played ones is drawn at the latest time so far
+            if (count > 0 && changedAt.getTime() < time[count - 1]) {
+                time[count] = time[count - 1];
+                day[count] = day[count - 1];
+            } else {
+                time[count] = changedAt.getTime();
+                day[count] = (int) changedAt.toLocalDateTime().toLocalDate().toEpochDay();
+            }
+            rating[count] = newRating;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.metuncc.netchess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes stored objects off the request path. Deleting a game enqueues its key in
+ * storage_deletions, which is drained in batches once the grace period has passed, so
+ * an upload of the same content that found the object in place has saved its row by
+ * then. A periodic sweep merge-joins the
+ * storage listing with games.s3_key, both in key order, to find objects no game
+ * references, such as uploads whose row was never saved.
+ */
+@Service
+public class StorageCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageCleanupService.class);
+
+    // DeleteObjects and ListObjectsV2 both cap out at 1000 keys
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String PREFIX = "pgn/";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageService storageService;
+    private final Duration gracePeriod;
+
+    public StorageCleanupService(JdbcTemplate jdbcTemplate,
+                                 StorageService storageService,
+                                 @Value("${storage.gc.grace-hours:24}") long graceHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storageService = storageService;
+        this.gracePeriod = Duration.ofHours(graceHours);
+    }
+
+    public void enqueue(String key) {
+        jdbcTemplate.update("INSERT INTO storage_deletions (storage_key) VALUES (?) " +
+                "ON CONFLICT (storage_key) DO UPDATE SET enqueued_at = now(), attempts = 0", key);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.deletions.interval-ms:60000}")
+    public void drainDeletions() {
+        List<String> keys;
+        do {
+            keys = jdbcTemplate.queryForList(
+                    "SELECT storage_key FROM storage_deletions WHERE attempts < ? " +
+                    "AND enqueued_at < now() - ? * interval '1 second' ORDER BY enqueued_at LIMIT ?",
+                    String.class, MAX_ATTEMPTS, gracePeriod.toSeconds(), BATCH_SIZE);
+            if (keys.isEmpty()) {
+                return;
+            }
+            // keys a re-upload has claimed again are dequeued without touching storage
+            List<String> unreferenced = unreferenced(keys);
+            List<String> failed;
+            boolean backendFailed = false;
+            try {
+                failed = unreferenced.isEmpty() ? List.of() : storageService.deleteFiles(unreferenced);
+            } catch (RuntimeException e) {
+                log.warn("Could not drain storage deletions: {}", e.getMessage());
+                failed = unreferenced;
+                backendFailed = true;
+            }
+
+            Set<String> failedKeys = new HashSet<>(failed);
+            List<Object[]> done = new ArrayList<>(keys.size());
+            List<Object[]> retry = new ArrayList<>(failed.size());
+            for (String key : keys) {
+                (failedKeys.contains(key) ? retry : done).add(new Object[] { key });
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM storage_deletions WHERE storage_key = ?", done);
+            // a failed batch counts as an attempt, so one that keeps failing drops out of the queue head
+            jdbcTemplate.batchUpdate("UPDATE storage_deletions SET attempts = attempts + 1 WHERE storage_key = ?", retry);
+            if (backendFailed) {
+                return;
+            }
+            if (!failed.isEmpty()) {
+                log.warn("{} stored objects could not be deleted and will be retried", failed.size());
+            }
+        } while (keys.size() == BATCH_SIZE);
+    }
+
+    /**
+     * Deletes objects that no game references and that are older than the grace period,
+     * which covers uploads whose row is still being written. Returns the number deleted.
+     */
+    @Scheduled(cron = "${storage.gc.cron:0 30 3 * * *}")
+    public int collectOrphans() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        ReferencedKeys referenced = new ReferencedKeys();
+        List<String> orphans = new ArrayList<>(BATCH_SIZE);
+        int[] scanned = {0};
+        int[] deleted = {0};
+        storageService.forEachFile(PREFIX, object -> {
+            scanned[0]++;
+            if (object.lastModified().isBefore(cutoff) && !referenced.contains(object.key())) {
+                orphans.add(object.key());
+                if (orphans.size() == BATCH_SIZE) {
+                    deleted[0] += deleteOrphans(orphans);
+                    orphans.clear();
+                }
+            }
+        });
+        if (!orphans.isEmpty()) {
+            deleted[0] += deleteOrphans(orphans);
+        }
+        log.info("Storage sweep scanned {} objects and deleted {} orphans", scanned[0], deleted[0]);
+        return deleted[0];
+    }
+
+    private int deleteOrphans(List<String> keys) {
+        // a re-upload of identical content may have claimed the key since the listing
+        List<String> unreferenced = unreferenced(keys);
+        if (unreferenced.isEmpty()) {
+            return 0;
+        }
+        List<String> failed = storageService.deleteFiles(unreferenced);
+        return unreferenced.size() - failed.size();
+    }
+
+    private List<String> unreferenced(List<String> keys) {
+        Set<String> referenced = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT s3_key FROM games WHERE s3_key = ANY(?)", String.class,
+                (Object) keys.toArray(new String[0])));
+        return keys.stream().filter(key -> !referenced.contains(key)).toList();
+    }
+
+    /**
+     * The distinct values of games.s3_key in byte order, read a page at a time. Lookups
+     * must come in ascending key order, as they do from the storage listing.
+     */
+    private class ReferencedKeys {
+
+        private List<String> page = List.of();
+        private int index;
+        private String after = PREFIX;
+        private boolean exhausted;
+
+        boolean contains(String key) {
+            while (true) {
+                while (index < page.size() && page.get(index).compareTo(key) < 0) {
+                    index++;
+                }
+                if (index < page.size()) {
+                    return page.get(index).equals(key);
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = jdbcTemplate.queryForList(
+                        "SELECT DISTINCT s3_key COLLATE \"C\" AS s3_key FROM games " +
+                        "WHERE s3_key COLLATE \"C\" > ? ORDER BY 1 LIMIT ?",
+                        String.class, after, BATCH_SIZE);
+                index = 0;
+                exhausted = page.size() < BATCH_SIZE;
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1);
+                }
+            }
+        }
+    }
+}
@@ -1,123 +1,230 @@
 package com.metuncc.netchess.service;
 
-import lombok.extern.slf4j.Slf4j;
+import com.metuncc.netchess.service.storage.GzipCodec;
+import com.metuncc.netchess.service.storage.LocalFileStorage;
+import com.metuncc.netchess.service.storage.S3StorageBackend;
+import com.metuncc.netchess.service.storage.StagedUpload;
+import com.metuncc.netchess.service.storage.StorageBackend;
+import com.metuncc.netchess.service.storage.StoredObject;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.UUID;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 @Service
 public class StorageService {
 
     private static final Logger log = LoggerFactory.getLogger(StorageService.class);
 
-    private final S3Client s3Client;
-    private final String bucketName;
+    private final StorageBackend backend;
     private final boolean useS3;
+    // local writes and S3 writes without the async client run here, off the request thread
+    private final ExecutorService uploadExecutor = Executors.newFixedThreadPool(2);
 
+    @Autowired
     public StorageService(
             @Value("${aws.s3.bucket-name}") String bucketName,
             @Value("${aws.s3.region}") String region,
             @Value("${aws.s3.access-key:}") String accessKey,
-            @Value("${aws.s3.secret-key:}") String secretKey) {
+            @Value("${aws.s3.secret-key:}") String secretKey,
+            @Value("${storage.local.root:data/storage}") String localRoot) throws IOException {
 
-        this.bucketName = bucketName;
         this.useS3 = !accessKey.isEmpty() && !secretKey.isEmpty();
 
         if (useS3) {
             AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
-            this.s3Client = S3Client.builder()
+            S3Client s3Client = S3Client.builder()
                     .region(Region.of(region))
                     .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                     .build();
+            S3AsyncClient s3AsyncClient = S3AsyncClient.builder()
+                    .region(Region.of(region))
+                    .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                    .build();
+            this.backend = new S3StorageBackend(s3Client, s3AsyncClient, bucketName);
             log.info("S3 Storage initialized with bucket: {}", bucketName);
         } else {
-            this.s3Client = null;
-            log.warn("S3 credentials not provided, using local storage");
+            this.backend = new LocalFileStorage(Path.of(localRoot));
+            log.warn("S3 credentials not provided, storing files under {}", Path.of(localRoot).toAbsolutePath());
         }
     }
 
-    public String uploadFile(MultipartFile file) {
-        if (!useS3) {
-            return uploadToLocal(file);
+    /**
+     * For tests: wraps an existing client, e.g. an in-process S3 stand-in.
+     */
+    public StorageService(S3Client s3Client, String bucketName) {
+        this(new S3StorageBackend(s3Client, bucketName));
+    }
+
+    public StorageService(StorageBackend backend) {
+        this.backend = backend;
+        this.useS3 = backend instanceof S3StorageBackend;
+    }
+
+    /**
+     * Stores data gzip-compressed under the content key of the uncompressed bytes.
+     */
+    public String uploadBytes(byte[] data, String contentType) {
+        String key = contentKey(HexFormat.of().formatHex(sha256().digest(data)));
+        if (exists(key)) {
+            return key;
         }
 
+        byte[] compressed = GzipCodec.compress(data);
         try {
-            String key = "pgn/" + UUID.randomUUID() + "_" + file.getOriginalFilename();
+            backend.put(key, new ByteArrayInputStream(compressed), compressed.length, contentType, GzipCodec.ENCODING);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file", e);
+        }
 
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .build();
+        log.info("File uploaded: {} ({} -> {} bytes)", key, data.length, compressed.length);
+        return key;
+    }
 
-            s3Client.putObject(putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+    /**
+     * Starts copying an upload to a compressed temporary file as it is read; see
+     * {@link StagedUpload}.
+     */
+    public StagedUpload stage(InputStream in) throws IOException {
+        return new StagedUpload(in, sha256());
+    }
 
-            log.info("File uploaded to S3: {}", key);
-            return key;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to S3", e);
+    /**
+     * Starts writing a staged upload under the given key and returns without waiting for
+     * it; the temporary file is deleted once the write ends. The future fails if the
+     * write does.
+     */
+    public CompletableFuture<Void> uploadAsync(String key, StagedUpload upload, String contentType)
+            throws IOException {
+        Path file = upload.handOff();
+        CompletableFuture<Void> write;
+        try {
+            write = backend.putIfAbsentAsync(key, file, contentType, GzipCodec.ENCODING, uploadExecutor);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
         }
+        return write.whenComplete((ignored, error) -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete staged upload {}", file, e);
+            }
+            if (error == null) {
+                log.info("File uploaded: {}", key);
+            }
+        });
     }
 
-    public byte[] downloadFile(String key) {
-        if (!useS3) {
-            return downloadFromLocal(key);
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    public boolean exists(String key) {
+        try {
+            return backend.exists(key);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to check file", e);
         }
+    }
+
+    /**
+     * True when objects live in S3, false for the local file backend.
+     */
+    public boolean isRemote() {
+        return useS3;
+    }
 
+    public static String contentKey(String sha256Hex) {
+        return "pgn/sha256/" + sha256Hex + ".pgn";
+    }
+
+    public static MessageDigest sha256() {
         try {
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
-            return s3Client.getObject(getObjectRequest).readAllBytes();
+    /**
+     * The object's original bytes; compressed objects are inflated.
+     */
+    public byte[] downloadFile(String key) {
+        try {
+            return GzipCodec.decodeIfCompressed(backend.read(key));
         } catch (Exception e) {
-            throw new RuntimeException("Failed to download file from S3", e);
+            throw new RuntimeException("Failed to download file", e);
         }
     }
 
-    public void deleteFile(String key) {
-        if (!useS3) {
-            deleteFromLocal(key);
-            return;
+    /**
+     * Streams an object to a file without holding it in memory. The file holds the
+     * stored bytes, which may be gzip-compressed.
+     */
+    public void downloadTo(String key, Path target) {
+        try {
+            backend.copyTo(key, target);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to download file", e);
         }
+    }
 
-        try {
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
+    /**
+     * Opens a locally stored object; only valid when {@link #isRemote()} is false.
+     */
+    public FileChannel openLocal(String key) throws IOException {
+        return ((LocalFileStorage) backend).open(key);
+    }
 
-            s3Client.deleteObject(deleteObjectRequest);
-            log.info("File deleted from S3: {}", key);
+    public void deleteFile(String key) {
+        try {
+            backend.delete(key);
+            log.info("File deleted: {}", key);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to delete file from S3", e);
+            throw new RuntimeException("Failed to delete file", e);
         }
     }
 
-    private String uploadToLocal(MultipartFile file) {
-        log.warn("Using local storage fallback");
-        return "local_" + UUID.randomUUID() + "_" + file.getOriginalFilename();
-    }
-
-    private byte[] downloadFromLocal(String key) {
-        log.warn("Local storage download not implemented");
-        return new byte[0];
+    /**
+     * Deletes a batch of at most 1000 keys; returns the keys that failed.
+     */
+    public List<String> deleteFiles(List<String> keys) {
+        try {
+            return backend.deleteAll(keys);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete files", e);
+        }
     }
 
-    private void deleteFromLocal(String key) {
-        log.warn("Local storage delete not implemented");
+    public void forEachFile(String prefix, Consumer<StoredObject> action) {
+        try {
+            backend.forEach(prefix, action);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list files", e);
+        }
     }
-}
\ No newline at end of file
+}
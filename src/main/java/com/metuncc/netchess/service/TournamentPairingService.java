@@ -0,0 +1,331 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.PairingResponse;
+import com.metuncc.netchess.dto.TournamentRoundResponse;
+import com.metuncc.netchess.exception.ConflictException;
+import com.metuncc.netchess.exception.ResourceNotFoundException;
+import com.metuncc.netchess.tournament.pairing.BergerTable;
+import com.metuncc.netchess.tournament.pairing.DutchPairer;
+import com.metuncc.netchess.tournament.pairing.Pairing;
+import com.metuncc.netchess.tournament.pairing.PairingException;
+import com.metuncc.netchess.tournament.pairing.SwissStandings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registrations and rounds of a tournament. Swiss rounds are paired one at a time from
+ * the results so far; a round robin is scheduled whole up front, every round and board
+ * written in one batch. The tournament row is locked while rounds are made so two
+ * organizers cannot pair the same round.
+ */
+@Service
+public class TournamentPairingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TournamentPairingService.class);
+
+    public static final String SWISS_DUTCH = "SWISS_DUTCH";
+    public static final String BERGER = "BERGER";
+
+    private static final String INSERT_PAIRING_SQL = "INSERT INTO pairings (round_id, board, white_player_id, " +
+            "black_player_id, result, room_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DutchPairer dutchPairer = new DutchPairer();
+
+    public TournamentPairingService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Registers a player, counting them against the tournament's maximum in the same
+     * statement that checks it.
+     */
+    @Transactional
+    public void register(UUID tournamentId, UUID playerId) {
+        String status = lockTournament(tournamentId);
+        if (!"DRAFT".equals(status) && !"OPEN".equals(status)) {
+            throw new ConflictException("Registration is closed for this tournament");
+        }
+        int inserted = jdbcTemplate.update("INSERT INTO tournament_players (tournament_id, player_id, registered_at) " +
+                "VALUES (?, ?, now()) ON CONFLICT DO NOTHING", tournamentId, playerId);
+        if (inserted == 0) {
+            throw new ConflictException("Already registered for this tournament");
+        }
+        int counted = jdbcTemplate.update("UPDATE tournaments SET current_participants = current_participants + 1, " +
+                "updated_at = now() WHERE id = ? AND current_participants < max_participants", tournamentId);
+        if (counted == 0) {
+            throw new ConflictException("The tournament is full");
+        }
+    }
+
+    /**
+     * Pairs the next Swiss round by the Dutch system. Every game of the previous round
+     * must have its result in.
+     */
+    @Transactional
+    public TournamentRoundResponse pairNextRound(UUID tournamentId) {
+        String status = lockTournament(tournamentId);
+        if ("COMPLETED".equals(status) || "CANCELLED".equals(status)) {
+            throw new ConflictException("The tournament is " + status.toLowerCase());
+        }
+        Integer unreported = jdbcTemplate.queryForObject("SELECT count(*) FROM pairings p " +
+                "JOIN tournament_rounds r ON r.id = p.round_id WHERE r.tournament_id = ? AND p.result IS NULL",
+                Integer.class, tournamentId);
+        if (unreported != null && unreported > 0) {
+            throw new ConflictException(unreported + " games of the previous round have no result yet");
+        }
+        Integer roundRobin = jdbcTemplate.queryForObject("SELECT count(*) FROM tournament_rounds " +
+                "WHERE tournament_id = ? AND pairing_system = ?", Integer.class, tournamentId, BERGER);
+        if (roundRobin != null && roundRobin > 0) {
+            throw new ConflictException("This tournament is scheduled as a round robin");
+        }
+
+        Map<UUID, Integer> ratings = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT u.id, u.ncc_elo FROM tournament_players tp JOIN users u ON u.id = tp.player_id " +
+                "WHERE tp.tournament_id = ? ORDER BY tp.registered_at", rs -> {
+            ratings.put(rs.getObject("id", UUID.class), rs.getInt("ncc_elo"));
+        }, tournamentId);
+
+        SwissStandings standings = new SwissStandings();
+        int[] round = { 0 };
+        jdbcTemplate.query("SELECT r.round_number, p.white_player_id, p.black_player_id, p.result FROM pairings p " +
+                "JOIN tournament_rounds r ON r.id = p.round_id WHERE r.tournament_id = ? " +
+                "ORDER BY r.round_number, p.board", rs -> {
+            int number = rs.getInt("round_number");
+            if (number != round[0]) {
+                if (round[0] != 0) {
+                    standings.endRound();
+                }
+                round[0] = number;
+            }
+            UUID black = rs.getObject("black_player_id", UUID.class);
+            if (black == null) {
+                standings.bye(rs.getObject("white_player_id", UUID.class));
+            } else {
+                standings.game(rs.getObject("white_player_id", UUID.class), black, rs.getString("result"));
+            }
+        }, tournamentId);
+        if (round[0] != 0) {
+            standings.endRound();
+        }
+
+        List<Pairing> pairings;
+        try {
+            pairings = dutchPairer.pair(standings.players(ratings));
+        } catch (PairingException e) {
+            throw new ConflictException(e.getMessage());
+        }
+
+        int roundNumber = standings.rounds() + 1;
+        Long roundId = jdbcTemplate.queryForObject("INSERT INTO tournament_rounds (tournament_id, round_number, " +
+                "pairing_system, created_at) VALUES (?, ?, ?, now()) RETURNING id", Long.class,
+                tournamentId, roundNumber, SWISS_DUTCH);
+        List<Object[]> rows = new ArrayList<>(pairings.size());
+        for (Pairing pairing : pairings) {
+            // a bye scores as a win straight away
+            rows.add(new Object[] { roundId, pairing.getBoard(), pairing.getWhite(), pairing.getBlack(),
+                    pairing.isBye() ? "1-0" : null, null });
+        }
+        jdbcTemplate.batchUpdate(INSERT_PAIRING_SQL, rows);
+        jdbcTemplate.update("UPDATE tournaments SET status = 'ONGOING', updated_at = now() WHERE id = ?",
+                tournamentId);
+        log.info("Paired round {} of tournament {}: {} boards for {} players", roundNumber, tournamentId,
+                pairings.size(), ratings.size());
+        return getRound(tournamentId, roundNumber);
+    }
+
+    /**
+     * Schedules every round of a single or double round robin from the Berger tables,
+     * players numbered by rating. Boards fill the given rooms in order, each room taking
+     * as many boards as it seats pairs of players, and keep their room in every round.
+     */
+    @Transactional
+    public List<TournamentRoundResponse> scheduleRoundRobin(UUID tournamentId, boolean doubleRound,
+                                                            List<UUID> roomIds) {
+        String status = lockTournament(tournamentId);
+        if (!"DRAFT".equals(status) && !"OPEN".equals(status)) {
+            throw new ConflictException("The tournament has already started or finished");
+        }
+        Integer rounds = jdbcTemplate.queryForObject("SELECT count(*) FROM tournament_rounds WHERE tournament_id = ?",
+                Integer.class, tournamentId);
+        if (rounds != null && rounds > 0) {
+            throw new ConflictException("The tournament already has rounds");
+        }
+
+        List<UUID> players = new ArrayList<>();
+        Map<UUID, String> usernames = new HashMap<>();
+        jdbcTemplate.query("SELECT u.id, u.username FROM tournament_players tp JOIN users u ON u.id = tp.player_id " +
+                "WHERE tp.tournament_id = ? ORDER BY u.ncc_elo DESC, tp.registered_at, u.id", rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            players.add(id);
+            usernames.put(id, rs.getString("username"));
+        }, tournamentId);
+
+        List<List<Pairing>> schedule;
+        try {
+            schedule = BergerTable.schedule(players, doubleRound);
+        } catch (PairingException e) {
+            throw new ConflictException(e.getMessage());
+        }
+        BoardRooms rooms = boardRooms(tournamentId, roomIds, players.size() / 2);
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        long[] roundIds = new long[schedule.size()];
+        jdbcTemplate.query("INSERT INTO tournament_rounds (tournament_id, round_number, pairing_system, created_at) " +
+                "SELECT ?, n, ?, ? FROM generate_series(1, ?) n RETURNING id, round_number", rs -> {
+            roundIds[rs.getInt("round_number") - 1] = rs.getLong("id");
+        }, tournamentId, BERGER, Timestamp.valueOf(createdAt), schedule.size());
+
+        List<Object[]> rows = new ArrayList<>();
+        List<TournamentRoundResponse> response = new ArrayList<>(schedule.size());
+        for (int r = 0; r < schedule.size(); r++) {
+            List<PairingResponse> boards = new ArrayList<>(schedule.get(r).size());
+            for (Pairing pairing : schedule.get(r)) {
+                int board = pairing.getBoard();
+                UUID roomId = rooms.id(board);
+                rows.add(new Object[] { roundIds[r], board, pairing.getWhite(), pairing.getBlack(), null, roomId });
+                boards.add(new PairingResponse(board, pairing.getWhite(), usernames.get(pairing.getWhite()),
+                        pairing.getBlack(), usernames.get(pairing.getBlack()), null, roomId, rooms.name(board)));
+            }
+            response.add(new TournamentRoundResponse(r + 1, BERGER, createdAt, boards));
+        }
+        jdbcTemplate.batchUpdate(INSERT_PAIRING_SQL, rows);
+        jdbcTemplate.update("UPDATE tournaments SET status = 'ONGOING', updated_at = now() WHERE id = ?",
+                tournamentId);
+        log.info("Scheduled a {} round robin for tournament {}: {} rounds, {} games", doubleRound ? "double" : "single",
+                tournamentId, schedule.size(), rows.size());
+        return response;
+    }
+
+    /**
+     * The room of each board: the given rooms, or the tournament's own, filled in order.
+     * Fails when the rooms cannot seat every board.
+     */
+    private BoardRooms boardRooms(UUID tournamentId, List<UUID> roomIds, int boards) {
+        List<UUID> ids = roomIds;
+        if (ids == null || ids.isEmpty()) {
+            ids = jdbcTemplate.queryForList("SELECT room_id FROM tournaments WHERE id = ? AND room_id IS NOT NULL",
+                    UUID.class, tournamentId);
+            if (ids.isEmpty()) {
+                return new BoardRooms(new UUID[0], new String[0]);
+            }
+        }
+        Map<UUID, Object[]> found = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, capacity, active FROM rooms WHERE id = ANY(?::uuid[])", rs -> {
+            found.put(rs.getObject("id", UUID.class),
+                    new Object[] { rs.getString("name"), rs.getInt("capacity"), rs.getBoolean("active") });
+        }, (Object) ids.stream().map(UUID::toString).toArray(String[]::new));
+
+        UUID[] roomOfBoard = new UUID[boards];
+        String[] nameOfBoard = new String[boards];
+        int board = 0;
+        int seats = 0;
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            Object[] room = found.get(id);
+            if (room == null) {
+                throw new ResourceNotFoundException("Room not found");
+            }
+            if (!(Boolean) room[2]) {
+                throw new ConflictException("Room " + room[0] + " is not active");
+            }
+            int capacity = (Integer) room[1];
+            seats += capacity;
+            for (int i = 0; i < capacity / 2 && board < boards; i++, board++) {
+                roomOfBoard[board] = id;
+                nameOfBoard[board] = (String) room[0];
+            }
+        }
+        if (board < boards) {
+            throw new ConflictException("The rooms seat " + seats + " players, the schedule needs " + 2 * boards);
+        }
+        return new BoardRooms(roomOfBoard, nameOfBoard);
+    }
+
+    private static final class BoardRooms {
+
+        private final UUID[] ids;
+        private final String[] names;
+
+        BoardRooms(UUID[] ids, String[] names) {
+            this.ids = ids;
+            this.names = names;
+        }
+
+        UUID id(int board) {
+            return board <= ids.length ? ids[board - 1] : null;
+        }
+
+        String name(int board) {
+            return board <= names.length ? names[board - 1] : null;
+        }
+    }
+
+    public TournamentRoundResponse getRound(UUID tournamentId, int roundNumber) {
+        List<TournamentRoundResponse> rounds = jdbcTemplate.query("SELECT id, pairing_system, created_at " +
+                "FROM tournament_rounds WHERE tournament_id = ? AND round_number = ?", (rs, rowNum) ->
+                new TournamentRoundResponse(roundNumber, rs.getString("pairing_system"),
+                        rs.getTimestamp("created_at").toLocalDateTime(), pairings(rs.getLong("id"))),
+                tournamentId, roundNumber);
+        if (rounds.isEmpty()) {
+            throw new ResourceNotFoundException("Round not found");
+        }
+        return rounds.get(0);
+    }
+
+    @Transactional
+    public PairingResponse recordResult(UUID tournamentId, int roundNumber, int board, String result) {
+        List<Boolean> byes = jdbcTemplate.queryForList("SELECT p.black_player_id IS NULL FROM pairings p " +
+                "JOIN tournament_rounds r ON r.id = p.round_id " +
+                "WHERE r.tournament_id = ? AND r.round_number = ? AND p.board = ? FOR UPDATE OF p",
+                Boolean.class, tournamentId, roundNumber, board);
+        if (byes.isEmpty()) {
+            throw new ResourceNotFoundException("Pairing not found");
+        }
+        if (byes.get(0)) {
+            throw new ConflictException("A bye has no result to record");
+        }
+        Integer later = jdbcTemplate.queryForObject("SELECT count(*) FROM tournament_rounds " +
+                "WHERE tournament_id = ? AND round_number > ? AND pairing_system = ?", Integer.class,
+                tournamentId, roundNumber, SWISS_DUTCH);
+        if (later != null && later > 0) {
+            throw new ConflictException("Later rounds have already been paired on this result");
+        }
+        jdbcTemplate.update("UPDATE pairings p SET result = ? FROM tournament_rounds r WHERE r.id = p.round_id " +
+                "AND r.tournament_id = ? AND r.round_number = ? AND p.board = ?",
+                result, tournamentId, roundNumber, board);
+        return getRound(tournamentId, roundNumber).getPairings().get(board - 1);
+    }
+
+    private List<PairingResponse> pairings(long roundId) {
+        return jdbcTemplate.query("SELECT p.board, p.white_player_id, w.username AS white_username, " +
+                "p.black_player_id, b.username AS black_username, p.result, p.room_id, r.name AS room_name " +
+                "FROM pairings p JOIN users w ON w.id = p.white_player_id " +
+                "LEFT JOIN users b ON b.id = p.black_player_id LEFT JOIN rooms r ON r.id = p.room_id " +
+                "WHERE p.round_id = ? ORDER BY p.board", (rs, rowNum) -> new PairingResponse(rs.getInt("board"),
+                rs.getObject("white_player_id", UUID.class), rs.getString("white_username"),
+                rs.getObject("black_player_id", UUID.class), rs.getString("black_username"),
+                rs.getString("result"), rs.getObject("room_id", UUID.class), rs.getString("room_name")), roundId);
+    }
+
+    private String lockTournament(UUID tournamentId) {
+        List<String> status = jdbcTemplate.queryForList("SELECT status FROM tournaments WHERE id = ? FOR UPDATE",
+                String.class, tournamentId);
+        if (status.isEmpty()) {
+            throw new ResourceNotFoundException("Tournament not found");
+        }
+        return status.get(0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.metuncc.netchess.service.leaderboard;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The part of a user the leaderboard shows. Immutable; a change replaces the instance.
+ */
+public final class LeaderboardPlayer {
+
+    /**
+     * Leaderboard order: higher rating first, ties broken by id so the order is total.
+     */
+    public static final Comparator<LeaderboardPlayer> ORDER = Comparator
+            .comparingInt((LeaderboardPlayer player) -> -player.rating)
+            .thenComparing(player -> player.id);
+
+    private final UUID id;
+    private final String username;
+    private final String fullName;
+    private final int rating;
+    private final int gamesPlayed;
+
+    public LeaderboardPlayer(UUID id, String username, String fullName, int rating, int gamesPlayed) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.rating = rating;
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public LeaderboardPlayer withRating(int newRating, int newGamesPlayed) {
+        return new LeaderboardPlayer(id, username, fullName, newRating, newGamesPlayed);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+}
@@ -0,0 +1,185 @@
+package com.metuncc.netchess.service.leaderboard;
+
+import com.metuncc.netchess.dto.LeaderboardEntry;
+import com.metuncc.netchess.dto.PlayerRank;
+import com.metuncc.netchess.entity.User;
+import com.metuncc.netchess.exception.ResourceNotFoundException;
+import com.metuncc.netchess.service.rating.RatingsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * All players in rating order, held in memory so leaderboard pages, a player's rank and
+ * the players around them are answered without a query. Loaded from users once, then
+ * kept current by rating changes and user edits.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankTree tree = new RankTree();
+    private final Map<UUID, LeaderboardPlayer> players = new HashMap<>();
+    private volatile boolean loaded;
+
+    public LeaderboardService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            jdbcTemplate.query("SELECT id, username, full_name, ncc_elo, games_played FROM users", rs -> {
+                put(new LeaderboardPlayer(rs.getObject("id", UUID.class), rs.getString("username"),
+                        rs.getString("full_name"), rs.getInt("ncc_elo"), rs.getInt("games_played")));
+            });
+            loaded = true;
+            log.info("Leaderboard loaded with {} players", tree.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsChanged(RatingsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            // until loaded, the load itself will pick the change up
+            if (!loaded) {
+                return;
+            }
+            List<UUID> ids = event.getPlayerIds();
+            for (int i = 0; i < ids.size(); i++) {
+                LeaderboardPlayer player = players.get(ids.get(i));
+                if (player != null) {
+                    put(player.withRating(event.getRating(i), event.getGamesPlayed(i)));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Call after a user is created or saved.
+     */
+    public void update(User user) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            put(new LeaderboardPlayer(user.getId(), user.getUsername(), user.getFullName(),
+                    user.getNccElo(), user.getGamesPlayed()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            LeaderboardPlayer old = players.remove(userId);
+            if (old != null) {
+                tree.remove(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        load();
+        lock.readLock().lock();
+        try {
+            return entries(tree.range(Math.max(0, offset), Math.min(Math.max(limit, 0), MAX_PAGE_SIZE)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PlayerRank rank(UUID playerId) {
+        load();
+        lock.readLock().lock();
+        try {
+            LeaderboardPlayer player = find(playerId);
+            int total = tree.size();
+            int below = total - tree.countAbove(player.getRating() - 1);
+            double percentile = total > 1 ? 100.0 * below / (total - 1) : 100.0;
+            return new PlayerRank(entry(player), total, percentile);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The player with up to radius players on either side.
+     */
+    public List<LeaderboardEntry> around(UUID playerId, int radius) {
+        load();
+        lock.readLock().lock();
+        try {
+            int index = tree.indexOf(find(playerId));
+            int span = Math.min(Math.max(radius, 0), MAX_PAGE_SIZE / 2);
+            int from = Math.max(0, index - span);
+            return entries(tree.range(from, index - from + span + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(LeaderboardPlayer player) {
+        LeaderboardPlayer old = players.put(player.getId(), player);
+        if (old != null) {
+            tree.remove(old);
+        }
+        tree.insert(player);
+    }
+
+    private LeaderboardPlayer find(UUID playerId) {
+        LeaderboardPlayer player = players.get(playerId);
+        if (player == null) {
+            throw new ResourceNotFoundException("Player not found");
+        }
+        return player;
+    }
+
+    private List<LeaderboardEntry> entries(List<LeaderboardPlayer> range) {
+        List<LeaderboardEntry> entries = new ArrayList<>(range.size());
+        for (LeaderboardPlayer player : range) {
+            entries.add(entry(player));
+        }
+        return entries;
+    }
+
+    private LeaderboardEntry entry(LeaderboardPlayer player) {
+        return new LeaderboardEntry(tree.countAbove(player.getRating()) + 1, player);
+    }
+}
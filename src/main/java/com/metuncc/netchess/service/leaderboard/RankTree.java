@@ -0,0 +1,187 @@
+package com.metuncc.netchess.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * An order-statistic treap of players in leaderboard order. Every node keeps the size
+ * of its subtree, so the position of a player, the player at a position, and the number
+ * of players rated above a value are all O(log n). Not thread-safe.
+ */
+final class RankTree {
+
+    private static final class Node {
+        final LeaderboardPlayer player;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(LeaderboardPlayer player, int priority) {
+            this.player = player;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Adds a player, which must not already be in the tree under the same key.
+     */
+    void insert(LeaderboardPlayer player) {
+        Node[] parts = split(root, player);
+        root = merge(merge(parts[0], new Node(player, random.nextInt())), parts[1]);
+    }
+
+    /**
+     * Removes the entry with the same rating and id as the given player, if present.
+     */
+    void remove(LeaderboardPlayer player) {
+        Node[] parts = split(root, player);
+        Node rest = parts[1];
+        if (rest != null && LeaderboardPlayer.ORDER.compare(first(rest).player, player) == 0) {
+            rest = removeFirst(rest);
+        }
+        root = merge(parts[0], rest);
+    }
+
+    /**
+     * The number of players ordered before the given one, whether or not it is present.
+     */
+    int indexOf(LeaderboardPlayer player) {
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            if (LeaderboardPlayer.ORDER.compare(player, node.player) <= 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The number of players rated strictly higher than the given rating.
+     */
+    int countAbove(int rating) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.player.getRating() > rating) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    LeaderboardPlayer get(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.player;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Up to limit players starting at position from, in order.
+     */
+    List<LeaderboardPlayer> range(int from, int limit) {
+        int to = Math.min(size(), from + limit);
+        List<LeaderboardPlayer> players = new ArrayList<>(Math.max(0, to - from));
+        collect(root, 0, from, to, players);
+        return players;
+    }
+
+    private static void collect(Node node, int offset, int from, int to, List<LeaderboardPlayer> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int index = offset + size(node.left);
+        collect(node.left, offset, from, to, out);
+        if (index >= from && index < to) {
+            out.add(node.player);
+        }
+        collect(node.right, index + 1, from, to, out);
+    }
+
+    /**
+     * Splits into the nodes ordered before key and the rest.
+     */
+    private static Node[] split(Node node, LeaderboardPlayer key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (LeaderboardPlayer.ORDER.compare(node.player, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node first(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node removeFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeFirst(node.left);
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+}
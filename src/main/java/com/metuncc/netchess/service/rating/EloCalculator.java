@@ -0,0 +1,43 @@
+package com.metuncc.netchess.service.rating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The club's Elo rules: a higher K-factor while a player is provisional, a lower one
+ * afterwards, and ratings rounded to whole points after every game.
+ */
+@Component
+public class EloCalculator {
+
+    private final int initialRating;
+    private final int provisionalK;
+    private final int establishedK;
+    private final int provisionalGames;
+
+    public EloCalculator(@Value("${ratings.elo.initial:1200}") int initialRating,
+                         @Value("${ratings.elo.k-provisional:24}") int provisionalK,
+                         @Value("${ratings.elo.k-established:16}") int establishedK,
+                         @Value("${ratings.elo.provisional-games:30}") int provisionalGames) {
+        this.initialRating = initialRating;
+        this.provisionalK = provisionalK;
+        this.establishedK = establishedK;
+        this.provisionalGames = provisionalGames;
+    }
+
+    public int initialRating() {
+        return initialRating;
+    }
+
+    public int kFactor(int gamesPlayed) {
+        return gamesPlayed <= provisionalGames ? provisionalK : establishedK;
+    }
+
+    public static double expectedScore(int rating, int opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10, (opponentRating - rating) / 400.0));
+    }
+
+    public static int newRating(int rating, int kFactor, double score, double expectedScore) {
+        return (int) Math.round(rating + kFactor * (score - expectedScore));
+    }
+}
@@ -0,0 +1,45 @@
+package com.metuncc.netchess.service.rating;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The club's Elo rules applied game by game, so a period gives the same ratings as
+ * rating each game as it was played.
+ */
+@Component
+public class EloRatingSystem implements RatingSystem {
+
+    public static final String NAME = "elo";
+
+    private final EloCalculator elo;
+
+    public EloRatingSystem(EloCalculator elo) {
+        this.elo = elo;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void ratePeriod(RatingState state, RatedGames games, ChangeListener listener) {
+        for (int i = 0; i < games.count(); i++) {
+            int w = games.white(i);
+            int b = games.black(i);
+            int wr = (int) Math.round(state.rating(w));
+            int br = (int) Math.round(state.rating(b));
+            int wk = elo.kFactor(state.gamesPlayed(w));
+            int bk = elo.kFactor(state.gamesPlayed(b));
+            double score = games.outcome(i) * 0.5;
+            double expected = EloCalculator.expectedScore(wr, br);
+            int newWhite = EloCalculator.newRating(wr, wk, score, expected);
+            int newBlack = EloCalculator.newRating(br, bk, 1 - score, 1 - expected);
+
+            state.set(w, newWhite, state.deviation(w), state.volatility(w), state.gamesPlayed(w) + 1);
+            state.set(b, newBlack, state.deviation(b), state.volatility(b), state.gamesPlayed(b) + 1);
+            listener.changed(w, i, wr, newWhite, wk);
+            listener.changed(b, i, br, newBlack, bk);
+        }
+    }
+}
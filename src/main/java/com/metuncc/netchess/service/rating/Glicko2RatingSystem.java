@@ -0,0 +1,162 @@
+package com.metuncc.netchess.service.rating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.IntStream;
+
+/**
+ * Glickman's Glicko-2. All games of a period are rated together against the opponents'
+ * pre-period values, so each player's update is independent and players are processed
+ * in parallel. Players who did not play keep their rating while their deviation grows.
+ */
+@Component
+public class Glicko2RatingSystem implements RatingSystem {
+
+    public static final String NAME = "glicko2";
+
+    private static final double SCALE = 173.7178;
+    private static final double CENTER = 1500;
+    private static final double MAX_DEVIATION = 350;
+    private static final double EPSILON = 0.000001;
+
+    private final double tau;
+
+    public Glicko2RatingSystem(@Value("${ratings.glicko2.tau:0.5}") double tau) {
+        this.tau = tau;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void ratePeriod(RatingState state, RatedGames games, ChangeListener listener) {
+        int players = state.count();
+
+        // each player's games as a slice of opponent/score arrays
+        int[] offsets = new int[players + 1];
+        for (int i = 0; i < games.count(); i++) {
+            offsets[games.white(i) + 1]++;
+            offsets[games.black(i) + 1]++;
+        }
+        for (int p = 0; p < players; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+        int[] opponents = new int[offsets[players]];
+        double[] scores = new double[offsets[players]];
+        int[] next = new int[players];
+        System.arraycopy(offsets, 0, next, 0, players);
+        for (int i = 0; i < games.count(); i++) {
+            int w = games.white(i);
+            int b = games.black(i);
+            double score = games.outcome(i) * 0.5;
+            opponents[next[w]] = b;
+            scores[next[w]++] = score;
+            opponents[next[b]] = w;
+            scores[next[b]++] = 1 - score;
+        }
+
+        double[] mu = new double[players];
+        double[] phi = new double[players];
+        for (int p = 0; p < players; p++) {
+            mu[p] = (state.rating(p) - CENTER) / SCALE;
+            phi[p] = state.deviation(p) / SCALE;
+        }
+
+        double[] newMu = new double[players];
+        double[] newPhi = new double[players];
+        double[] newSigma = new double[players];
+        IntStream.range(0, players).parallel().forEach(p ->
+                update(p, mu, phi, state.volatility(p), opponents, scores, offsets[p], offsets[p + 1],
+                        newMu, newPhi, newSigma));
+
+        for (int p = 0; p < players; p++) {
+            int played = offsets[p + 1] - offsets[p];
+            double rating = newMu[p] * SCALE + CENTER;
+            double deviation = Math.min(newPhi[p] * SCALE, MAX_DEVIATION);
+            int oldRating = (int) Math.round(state.rating(p));
+            state.set(p, rating, deviation, newSigma[p], state.gamesPlayed(p) + played);
+            if (played > 0) {
+                listener.changed(p, -1, oldRating, (int) Math.round(rating), 0);
+            }
+        }
+    }
+
+    private void update(int p, double[] mu, double[] phi, double sigma, int[] opponents, double[] scores,
+                        int from, int to, double[] newMu, double[] newPhi, double[] newSigma) {
+        if (from == to) {
+            newMu[p] = mu[p];
+            newPhi[p] = Math.sqrt(phi[p] * phi[p] + sigma * sigma);
+            newSigma[p] = sigma;
+            return;
+        }
+
+        double vInverse = 0;
+        double improvement = 0;
+        for (int j = from; j < to; j++) {
+            int o = opponents[j];
+            double g = g(phi[o]);
+            double e = 1 / (1 + Math.exp(-g * (mu[p] - mu[o])));
+            vInverse += g * g * e * (1 - e);
+            improvement += g * (scores[j] - e);
+        }
+        double v = 1 / vInverse;
+        double delta = v * improvement;
+
+        double sigmaPrime = volatility(phi[p], sigma, v, delta);
+        double phiStar = Math.sqrt(phi[p] * phi[p] + sigmaPrime * sigmaPrime);
+        newPhi[p] = 1 / Math.sqrt(1 / (phiStar * phiStar) + vInverse);
+        newMu[p] = mu[p] + newPhi[p] * newPhi[p] * improvement;
+        newSigma[p] = sigmaPrime;
+    }
+
+    private static double g(double phi) {
+        return 1 / Math.sqrt(1 + 3 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    /**
+     * Step 5 of the Glicko-2 paper: the Illinois algorithm on f(x) = 0.
+     */
+    private double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        double tau2 = tau * tau;
+
+        double lower = a;
+        double upper;
+        if (delta2 > phi2 + v) {
+            upper = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta2, tau2) < 0) {
+                k++;
+            }
+            upper = a - k * tau;
+        }
+
+        double fLower = f(lower, a, phi2, v, delta2, tau2);
+        double fUpper = f(upper, a, phi2, v, delta2, tau2);
+        while (Math.abs(upper - lower) > EPSILON) {
+            double c = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fc = f(c, a, phi2, v, delta2, tau2);
+            if (fc * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower /= 2;
+            }
+            upper = c;
+            fUpper = fc;
+        }
+        return Math.exp(lower / 2);
+    }
+
+    private static double f(double x, double a, double phi2, double v, double delta2, double tau2) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / tau2;
+    }
+}
@@ -0,0 +1,66 @@
+package com.metuncc.netchess.service.rating;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013). Keeps the first and
+ * last point and, from each bucket in between, the point forming the largest triangle
+ * with the point kept before it and the average of the next bucket. Peaks and dips
+ * survive, which plain averaging would flatten.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Indexes of the points to keep from the first count points of x and y, with x
+     * ascending. Returns all indexes when count is within the budget.
+     */
+    public static int[] select(long[] x, int[] y, int count, int budget) {
+        if (budget < 3) {
+            throw new IllegalArgumentException("Budget must be at least 3 points");
+        }
+        if (count <= budget) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[budget];
+        double bucketSize = (double) (count - 2) / (budget - 2);
+        int previous = 0;
+        kept[0] = 0;
+        for (int bucket = 0; bucket < budget - 2; bucket++) {
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+
+            int nextFrom = to;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextTo - nextFrom;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double maxArea = -1;
+            int chosen = from;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[budget - 1] = count - 1;
+        return kept;
+    }
+}
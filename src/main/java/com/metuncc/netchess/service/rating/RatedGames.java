@@ -0,0 +1,78 @@
+package com.metuncc.netchess.service.rating;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Rated games in play order as parallel arrays: player indexes, outcome, game id and
+ * creation time.
+ */
+public final class RatedGames {
+
+    private long[] idHigh = new long[1024];
+    private long[] idLow = new long[1024];
+    private long[] createdAt = new long[1024];
+    private int[] white = new int[1024];
+    private int[] black = new int[1024];
+    private byte[] outcome = new byte[1024];
+    private int count;
+
+    public void add(UUID id, int whiteIndex, int blackIndex, byte result, Timestamp created) {
+        if (count == white.length) {
+            int size = count * 2;
+            idHigh = Arrays.copyOf(idHigh, size);
+            idLow = Arrays.copyOf(idLow, size);
+            createdAt = Arrays.copyOf(createdAt, size);
+            white = Arrays.copyOf(white, size);
+            black = Arrays.copyOf(black, size);
+            outcome = Arrays.copyOf(outcome, size);
+        }
+        idHigh[count] = id.getMostSignificantBits();
+        idLow[count] = id.getLeastSignificantBits();
+        createdAt[count] = created.getTime();
+        white[count] = whiteIndex;
+        black[count] = blackIndex;
+        outcome[count] = result;
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public UUID id(int game) {
+        return new UUID(idHigh[game], idLow[game]);
+    }
+
+    public Timestamp createdAt(int game) {
+        return new Timestamp(createdAt[game]);
+    }
+
+    public int white(int game) {
+        return white[game];
+    }
+
+    public int black(int game) {
+        return black[game];
+    }
+
+    /**
+     * One of the {@link RatingReplay} outcome constants.
+     */
+    public byte outcome(int game) {
+        return outcome[game];
+    }
+
+    int[] whites() {
+        return white;
+    }
+
+    int[] blacks() {
+        return black;
+    }
+
+    byte[] outcomes() {
+        return outcome;
+    }
+}
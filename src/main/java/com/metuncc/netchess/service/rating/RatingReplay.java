@@ -0,0 +1,112 @@
+package com.metuncc.netchess.service.rating;
+
+import java.util.Arrays;
+
+/**
+ * Replays rated games in order with every player's rating and game count held in
+ * arrays indexed by player, recording the before and after rating of both sides of
+ * each game. No objects are allocated per game.
+ */
+public final class RatingReplay {
+
+    public static final byte BLACK_WIN = 0;
+    public static final byte DRAW = 1;
+    public static final byte WHITE_WIN = 2;
+
+    private final int[] ratings;
+    private final int[] gamesPlayed;
+
+    private int[] whiteBefore = new int[0];
+    private int[] whiteAfter = new int[0];
+    private int[] whiteK = new int[0];
+    private int[] blackBefore = new int[0];
+    private int[] blackAfter = new int[0];
+    private int[] blackK = new int[0];
+
+    public RatingReplay(int players, int initialRating) {
+        ratings = new int[players];
+        gamesPlayed = new int[players];
+        Arrays.fill(ratings, initialRating);
+    }
+
+    public void replay(EloCalculator elo, RatedGames games) {
+        replay(elo, games.whites(), games.blacks(), games.outcomes(), games.count());
+    }
+
+    /**
+     * Plays games [0, count) where white[i] and black[i] are player indexes and
+     * outcome[i] is one of the constants above.
+     */
+    public void replay(EloCalculator elo, int[] white, int[] black, byte[] outcome, int count) {
+        whiteBefore = new int[count];
+        whiteAfter = new int[count];
+        whiteK = new int[count];
+        blackBefore = new int[count];
+        blackAfter = new int[count];
+        blackK = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            int w = white[i];
+            int b = black[i];
+            int wr = ratings[w];
+            int br = ratings[b];
+            int wk = elo.kFactor(gamesPlayed[w]);
+            int bk = elo.kFactor(gamesPlayed[b]);
+            double score = outcome[i] * 0.5;
+            double expected = EloCalculator.expectedScore(wr, br);
+
+            ratings[w] = EloCalculator.newRating(wr, wk, score, expected);
+            ratings[b] = EloCalculator.newRating(br, bk, 1 - score, 1 - expected);
+            gamesPlayed[w]++;
+            gamesPlayed[b]++;
+
+            whiteBefore[i] = wr;
+            whiteAfter[i] = ratings[w];
+            whiteK[i] = wk;
+            blackBefore[i] = br;
+            blackAfter[i] = ratings[b];
+            blackK[i] = bk;
+        }
+    }
+
+    public int rating(int player) {
+        return ratings[player];
+    }
+
+    public int gamesPlayed(int player) {
+        return gamesPlayed[player];
+    }
+
+    public int whiteBefore(int game) {
+        return whiteBefore[game];
+    }
+
+    public int whiteAfter(int game) {
+        return whiteAfter[game];
+    }
+
+    public int whiteK(int game) {
+        return whiteK[game];
+    }
+
+    public int blackBefore(int game) {
+        return blackBefore[game];
+    }
+
+    public int blackAfter(int game) {
+        return blackAfter[game];
+    }
+
+    public int blackK(int game) {
+        return blackK[game];
+    }
+
+    public static byte outcome(String result) {
+        return switch (result) {
+            case "1-0" -> WHITE_WIN;
+            case "0-1" -> BLACK_WIN;
+            case "1/2-1/2" -> DRAW;
+            default -> throw new IllegalArgumentException("Not a rated result: " + result);
+        };
+    }
+}
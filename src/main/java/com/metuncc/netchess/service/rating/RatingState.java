@@ -0,0 +1,79 @@
+package com.metuncc.netchess.service.rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Every player's rating, deviation, volatility and game count, in arrays indexed by the
+ * order players were added. Rating systems update it in place.
+ */
+public final class RatingState {
+
+    private final Map<UUID, Integer> index = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+    private double[] rating = new double[64];
+    private double[] deviation = new double[64];
+    private double[] volatility = new double[64];
+    private int[] gamesPlayed = new int[64];
+    private int count;
+
+    public int add(UUID id, double playerRating, double playerDeviation, double playerVolatility, int games) {
+        if (count == rating.length) {
+            int size = count * 2;
+            rating = Arrays.copyOf(rating, size);
+            deviation = Arrays.copyOf(deviation, size);
+            volatility = Arrays.copyOf(volatility, size);
+            gamesPlayed = Arrays.copyOf(gamesPlayed, size);
+        }
+        index.put(id, count);
+        ids.add(id);
+        rating[count] = playerRating;
+        deviation[count] = playerDeviation;
+        volatility[count] = playerVolatility;
+        gamesPlayed[count] = games;
+        return count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * The player's index, or -1 if the player was not loaded.
+     */
+    public int indexOf(UUID id) {
+        Integer i = index.get(id);
+        return i != null ? i : -1;
+    }
+
+    public UUID id(int player) {
+        return ids.get(player);
+    }
+
+    public double rating(int player) {
+        return rating[player];
+    }
+
+    public double deviation(int player) {
+        return deviation[player];
+    }
+
+    public double volatility(int player) {
+        return volatility[player];
+    }
+
+    public int gamesPlayed(int player) {
+        return gamesPlayed[player];
+    }
+
+    void set(int player, double newRating, double newDeviation, double newVolatility, int games) {
+        rating[player] = newRating;
+        deviation[player] = newDeviation;
+        volatility[player] = newVolatility;
+        gamesPlayed[player] = games;
+    }
+}
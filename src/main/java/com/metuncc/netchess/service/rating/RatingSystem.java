@@ -0,0 +1,28 @@
+package com.metuncc.netchess.service.rating;
+
+/**
+ * A way of turning one rating period's games into new ratings. Selected by
+ * {@code ratings.system}.
+ */
+public interface RatingSystem {
+
+    /**
+     * The name used in configuration and recorded with each rating period.
+     */
+    String name();
+
+    /**
+     * Rates the games of one period, given in play order, updating state in place and
+     * reporting each rating change to the listener.
+     */
+    void ratePeriod(RatingState state, RatedGames games, ChangeListener listener);
+
+    interface ChangeListener {
+
+        /**
+         * game is -1 when the change covers the whole period rather than one game;
+         * kFactor is 0 for systems that have none.
+         */
+        void changed(int player, int game, int oldRating, int newRating, int kFactor);
+    }
+}
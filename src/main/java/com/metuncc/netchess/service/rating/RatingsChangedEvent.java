@@ -0,0 +1,33 @@
+package com.metuncc.netchess.service.rating;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after ratings are written, with each changed player's new rating and game
+ * count at the same index.
+ */
+public class RatingsChangedEvent {
+
+    private final List<UUID> playerIds;
+    private final int[] ratings;
+    private final int[] gamesPlayed;
+
+    public RatingsChangedEvent(List<UUID> playerIds, int[] ratings, int[] gamesPlayed) {
+        this.playerIds = playerIds;
+        this.ratings = ratings;
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public List<UUID> getPlayerIds() {
+        return playerIds;
+    }
+
+    public int getRating(int index) {
+        return ratings[index];
+    }
+
+    public int getGamesPlayed(int index) {
+        return gamesPlayed[index];
+    }
+}
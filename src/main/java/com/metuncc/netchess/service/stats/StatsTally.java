@@ -0,0 +1,128 @@
+package com.metuncc.netchess.service.stats;
+
+import com.metuncc.netchess.service.rating.RatingReplay;
+
+import java.util.Arrays;
+
+/**
+ * Running player statistics in arrays indexed by player, folded one game at a time in
+ * play order. Players start empty, or from their stored row via {@link #load}; only
+ * players touched by a game or rating are written back.
+ */
+public final class StatsTally {
+
+    public static final int WIN = 0;
+    public static final int DRAW = 1;
+    public static final int LOSS = 2;
+
+    // [player * 6 + colour * 3 + WIN/DRAW/LOSS], colour 0 for white
+    private final int[] results;
+    private final int[] currentStreak;
+    private final int[] bestWinStreak;
+    private final int[] peakRating;
+    private final long[] opponentRatingSum;
+    private final boolean[] touched;
+
+    public StatsTally(int players) {
+        results = new int[players * 6];
+        currentStreak = new int[players];
+        bestWinStreak = new int[players];
+        peakRating = new int[players];
+        opponentRatingSum = new long[players];
+        touched = new boolean[players];
+        Arrays.fill(peakRating, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Starts a player from their stored statistics, before any game is added.
+     */
+    public void load(int player, int[] whiteResults, int[] blackResults, int streak, int bestStreak, int peak,
+                     long opponentSum) {
+        System.arraycopy(whiteResults, 0, results, player * 6, 3);
+        System.arraycopy(blackResults, 0, results, player * 6 + 3, 3);
+        currentStreak[player] = streak;
+        bestWinStreak[player] = bestStreak;
+        peakRating[player] = peak;
+        opponentRatingSum[player] = opponentSum;
+    }
+
+    /**
+     * Adds one game; the ratings are each side's rating going into it. A side of -1 is a
+     * player not being tallied.
+     */
+    public void game(int white, int black, byte outcome, int whiteRating, int blackRating) {
+        int whiteResult = outcome == RatingReplay.WHITE_WIN ? WIN : outcome == RatingReplay.DRAW ? DRAW : LOSS;
+        if (white >= 0) {
+            record(white, 0, whiteResult, blackRating);
+        }
+        if (black >= 0) {
+            record(black, 1, LOSS - whiteResult, whiteRating);
+        }
+    }
+
+    /**
+     * A rating the player held at some point, for the peak.
+     */
+    public void rating(int player, int rating) {
+        touched[player] = true;
+        peakRating[player] = Math.max(peakRating[player], rating);
+    }
+
+    private void record(int player, int colour, int result, int opponentRating) {
+        touched[player] = true;
+        results[player * 6 + colour * 3 + result]++;
+        opponentRatingSum[player] += opponentRating;
+        int streak = currentStreak[player];
+        if (result == WIN) {
+            streak = streak > 0 ? streak + 1 : 1;
+            bestWinStreak[player] = Math.max(bestWinStreak[player], streak);
+        } else if (result == LOSS) {
+            streak = streak < 0 ? streak - 1 : -1;
+        } else {
+            streak = 0;
+        }
+        currentStreak[player] = streak;
+    }
+
+    public int players() {
+        return touched.length;
+    }
+
+    public boolean touched(int player) {
+        return touched[player];
+    }
+
+    /**
+     * colour is 0 for white, 1 for black; result is WIN, DRAW or LOSS.
+     */
+    public int results(int player, int colour, int result) {
+        return results[player * 6 + colour * 3 + result];
+    }
+
+    public int games(int player) {
+        int games = 0;
+        for (int i = player * 6; i < player * 6 + 6; i++) {
+            games += results[i];
+        }
+        return games;
+    }
+
+    public int currentStreak(int player) {
+        return currentStreak[player];
+    }
+
+    public int bestWinStreak(int player) {
+        return bestWinStreak[player];
+    }
+
+    /**
+     * Integer.MIN_VALUE when the player has neither a stored peak nor a rating yet.
+     */
+    public int peakRating(int player) {
+        return peakRating[player];
+    }
+
+    public long opponentRatingSum(int player) {
+        return opponentRatingSum[player];
+    }
+}
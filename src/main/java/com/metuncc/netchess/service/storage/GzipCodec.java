@@ -0,0 +1,66 @@
+package com.metuncc.netchess.service.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip at the fastest level: PGN is repetitive enough that it still shrinks several
+ * times over, and the cost stays well below that of the storage write.
+ */
+public final class GzipCodec {
+
+    public static final String ENCODING = "gzip";
+
+    private GzipCodec() {
+    }
+
+    public static byte[] compress(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (OutputStream gzip = new FastGzipOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compresses everything written to the returned stream into out.
+     */
+    public static OutputStream compressing(OutputStream out) throws IOException {
+        return new FastGzipOutputStream(out);
+    }
+
+    public static byte[] decompress(byte[] data) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks for the gzip magic number. PGN text always starts with printable characters.
+     */
+    public static boolean isCompressed(byte[] head) {
+        return head.length >= 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b;
+    }
+
+    public static byte[] decodeIfCompressed(byte[] data) {
+        return isCompressed(data) ? decompress(data) : data;
+    }
+
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 8192);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.metuncc.netchess.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Objects as files under a root directory. Each file sits two shard levels below its
+ * key's directory (root/pgn/sha256/3f/a0/&lt;name&gt;), picked from a hash of the key, so
+ * no directory grows past a few thousand entries. Writes go to a temporary file that is
+ * renamed into place, so readers never see a partial object.
+ */
+public class LocalFileStorage implements StorageBackend {
+
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9._-]+(/[A-Za-z0-9._-]+)*");
+
+    private final Path root;
+
+    public LocalFileStorage(Path root) throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, InputStream in, long length, String contentType, String contentEncoding)
+            throws IOException {
+        Path target = path(key);
+        Path dir = Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(dir, ".upload-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                in.transferTo(out);
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (FileAlreadyExistsException e) {
+                // same key means same content
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(path(key));
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return Files.readAllBytes(path(key));
+    }
+
+    @Override
+    public void copyTo(String key, Path target) throws IOException {
+        Files.copy(path(key), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Opens an object for reading, typically to transferTo a response stream.
+     */
+    public FileChannel open(String key) throws IOException {
+        return FileChannel.open(path(key), StandardOpenOption.READ);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                delete(key);
+            } catch (IOException | IllegalArgumentException e) {
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Walks and sorts the whole tree under the prefix on every call, so paging through
+     * it is quadratic. Fine for a development disk; the sweep goes through
+     * {@link #forEach} instead.
+     */
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int limit) throws IOException {
+        List<StoredObject> objects = walk(prefix, startAfter);
+        return objects.size() > limit ? objects.subList(0, limit) : objects;
+    }
+
+    /**
+     * Lists the tree once rather than once per page.
+     */
+    @Override
+    public void forEach(String prefix, Consumer<StoredObject> action) throws IOException {
+        walk(prefix, null).forEach(action);
+    }
+
+    // keys are recovered by dropping the two shard levels
+    private List<StoredObject> walk(String prefix, String startAfter) throws IOException {
+        Path start = root.resolve(prefix.substring(0, prefix.lastIndexOf('/') + 1));
+        if (!Files.isDirectory(start)) {
+            return List.of();
+        }
+        List<StoredObject> objects = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(start)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String key = key(file);
+                if (key != null && key.startsWith(prefix) && (startAfter == null || key.compareTo(startAfter) > 0)) {
+                    objects.add(new StoredObject(key, Files.getLastModifiedTime(file).toInstant()));
+                }
+            }
+        }
+        objects.sort(Comparator.comparing(StoredObject::key));
+        return objects;
+    }
+
+    private String key(Path file) {
+        Path relative = root.relativize(file);
+        int count = relative.getNameCount();
+        String name = relative.getFileName().toString();
+        if (count < 3 || name.startsWith(".")) {
+            return null;
+        }
+        String key = count == 3 ? name : relative.subpath(0, count - 3).toString().replace('\\', '/') + "/" + name;
+        try {
+            return path(key).equals(file) ? key : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    Path path(String key) {
+        if (key == null || !VALID_KEY.matcher(key).matches() || key.contains("..")) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        String shard = shard(key);
+        int slash = key.lastIndexOf('/');
+        Path dir = slash < 0 ? root : root.resolve(key.substring(0, slash));
+        return dir.resolve(shard.substring(0, 2))
+                .resolve(shard.substring(2, 4))
+                .resolve(key.substring(slash + 1));
+    }
+
+    private static String shard(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.metuncc.netchess.service.storage;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+
+    public S3StorageBackend(S3Client s3Client, String bucketName) {
+        this(s3Client, null, bucketName);
+    }
+
+    public S3StorageBackend(S3Client s3Client, S3AsyncClient s3AsyncClient, String bucketName) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public void put(String key, InputStream in, long length, String contentType, String contentEncoding) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .build();
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(in, length));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putIfAbsentAsync(String key, Path file, String contentType,
+                                                    String contentEncoding, Executor executor) {
+        if (s3AsyncClient == null) {
+            return StorageBackend.super.putIfAbsentAsync(key, file, contentType, contentEncoding, executor);
+        }
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .build();
+
+        return s3AsyncClient.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build())
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof NoSuchKeyException) {
+                        return false;
+                    }
+                    throw new CompletionException(cause);
+                })
+                .thenCompose(exists -> exists
+                        ? CompletableFuture.<Void>completedFuture(null)
+                        : s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromFile(file))
+                                .thenApply(response -> (Void) null));
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(getRequest(key))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Override
+    public void copyTo(String key, Path target) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(getRequest(key))) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build());
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> keys) {
+        Delete delete = Delete.builder()
+                .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                .quiet(true)
+                .build();
+        DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(delete)
+                .build());
+        return response.errors().stream().map(S3Error::key).toList();
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int limit) {
+        ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .startAfter(startAfter)
+                .maxKeys(limit)
+                .build());
+        return response.contents().stream()
+                .map(object -> new StoredObject(object.key(), object.lastModified()))
+                .toList();
+    }
+
+    private GetObjectRequest getRequest(String key) {
+        return GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.metuncc.netchess.service.storage;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * An upload copied to a gzip-compressed temporary file while it is read, its SHA-256
+ * taken over the original bytes on the way, so the request never holds the whole file.
+ * Whatever reads {@link #stream()} may stop early; {@link #finish()} copies the rest.
+ * Closing deletes the file unless it was handed to a background write with
+ * {@link #handOff()}.
+ */
+public final class StagedUpload implements Closeable {
+
+    private final InputStream source;
+    private final MessageDigest digest;
+    private final Path file;
+    private final OutputStream out;
+    private final InputStream stream;
+    private String sha256;
+    private boolean handedOff;
+
+    public StagedUpload(InputStream source, MessageDigest digest) throws IOException {
+        this.source = source;
+        this.digest = digest;
+        this.file = Files.createTempFile("upload-", ".gz");
+        try {
+            this.out = GzipCodec.compressing(Files.newOutputStream(file));
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        this.stream = new Tee(new DigestInputStream(source, digest), out);
+    }
+
+    /**
+     * The upload's bytes. Closing this stream leaves the copy running.
+     */
+    public InputStream stream() {
+        return stream;
+    }
+
+    /**
+     * Copies whatever has not been read yet and returns the hex SHA-256 of the upload.
+     */
+    public String finish() throws IOException {
+        if (sha256 == null) {
+            stream.transferTo(OutputStream.nullOutputStream());
+            out.close();
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    /**
+     * The compressed file, which the caller now deletes once it is written.
+     */
+    public Path handOff() throws IOException {
+        finish();
+        handedOff = true;
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+            source.close();
+        } finally {
+            if (!handedOff) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static final class Tee extends FilterInputStream {
+
+        private final OutputStream copy;
+
+        Tee(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            if (n > 0) {
+                copy.write(buffer, offset, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes must still reach the copy
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
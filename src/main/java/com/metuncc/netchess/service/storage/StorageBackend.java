@@ -0,0 +1,77 @@
+package com.metuncc.netchess.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Where uploaded objects live. Keys are relative, slash-separated names such as
+ * "pgn/sha256/&lt;hex&gt;.pgn". The content encoding is recorded where the backend has
+ * object metadata; readers should not rely on it and sniff the bytes instead.
+ */
+public interface StorageBackend {
+
+    void put(String key, InputStream in, long length, String contentType, String contentEncoding)
+            throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Stores a file's contents unless the key already exists. Backends without a
+     * non-blocking client write on the given executor.
+     */
+    default CompletableFuture<Void> putIfAbsentAsync(String key, Path file, String contentType,
+                                                     String contentEncoding, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                if (!exists(key)) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        put(key, in, Files.size(file), contentType, contentEncoding);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    byte[] read(String key) throws IOException;
+
+    void copyTo(String key, Path target) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Deletes up to 1000 objects in one call and returns the keys that could not be
+     * deleted. Missing keys count as deleted.
+     */
+    List<String> deleteAll(List<String> keys) throws IOException;
+
+    /**
+     * One page of objects under a prefix with keys after startAfter, in ascending
+     * byte order of the key.
+     */
+    List<StoredObject> list(String prefix, String startAfter, int limit) throws IOException;
+
+    /**
+     * Every object under a prefix, in ascending byte order of the key, listed a page
+     * at a time.
+     */
+    default void forEach(String prefix, Consumer<StoredObject> action) throws IOException {
+        String after = null;
+        List<StoredObject> page;
+        do {
+            page = list(prefix, after, 1000);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).key();
+            }
+        } while (page.size() == 1000);
+    }
+}
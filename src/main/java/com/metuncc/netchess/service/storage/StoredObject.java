@@ -0,0 +1,6 @@
+package com.metuncc.netchess.service.storage;
+
+import java.time.Instant;
+
+public record StoredObject(String key, Instant lastModified) {
+}
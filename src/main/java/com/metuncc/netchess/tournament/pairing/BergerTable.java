@@ -0,0 +1,75 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Round-robin schedules from the Berger tables. Players take the table numbers in the
+ * order given; with an odd number of players the last number is empty and whoever
+ * meets it sits the round out, so that game is left out of the round.
+ */
+public final class BergerTable {
+
+    private BergerTable() {
+    }
+
+    /**
+     * Every round of the schedule, boards numbered from 1. A double round robin repeats
+     * the first cycle with colours reversed.
+     */
+    public static List<List<Pairing>> schedule(List<UUID> players, boolean doubleRound) {
+        int count = players.size();
+        if (count < 2) {
+            throw new PairingException("At least two players are needed for a round robin");
+        }
+        int n = count % 2 == 0 ? count : count + 1;
+        int cycle = n - 1;
+        List<List<Pairing>> rounds = new ArrayList<>(doubleRound ? 2 * cycle : cycle);
+        for (int pass = 0; pass < (doubleRound ? 2 : 1); pass++) {
+            for (int round = 1; round <= cycle; round++) {
+                rounds.add(round(players, n, round, pass == 1));
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Round r of the table for n players: numbers i and j below n meet when
+     * i + j = r + 1 (mod n - 1), the one left over meets n, and board 1 is the game
+     * with n followed by the pairs moving outwards from n's opponent.
+     */
+    private static List<Pairing> round(List<UUID> players, int n, int round, boolean reversed) {
+        int m = n - 1;
+        int pivot = 1;
+        while ((2 * pivot - round - 1) % m != 0) {
+            pivot++;
+        }
+        List<Pairing> boards = new ArrayList<>(n / 2);
+        // n has black in odd rounds
+        addGame(players, boards, round % 2 == 0 ? n : pivot, round % 2 == 0 ? pivot : n, reversed);
+        for (int k = 1; k < n / 2; k++) {
+            int a = wrap(pivot - k, m);
+            int b = wrap(pivot + k, m);
+            int low = Math.min(a, b);
+            int high = Math.max(a, b);
+            // the lower number has white when the two are an odd distance apart
+            boolean lowWhite = (high - low) % 2 == 1;
+            addGame(players, boards, lowWhite ? low : high, lowWhite ? high : low, reversed);
+        }
+        return boards;
+    }
+
+    private static void addGame(List<UUID> players, List<Pairing> boards, int white, int black, boolean reversed) {
+        if (white > players.size() || black > players.size()) {
+            return;
+        }
+        UUID w = players.get(white - 1);
+        UUID b = players.get(black - 1);
+        boards.add(reversed ? new Pairing(boards.size() + 1, b, w) : new Pairing(boards.size() + 1, w, b));
+    }
+
+    private static int wrap(int number, int m) {
+        return ((number - 1) % m + m) % m + 1;
+    }
+}
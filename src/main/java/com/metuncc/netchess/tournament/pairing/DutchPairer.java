@@ -0,0 +1,242 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pairs a Swiss round by the Dutch system. Rather than trying candidate pairings bracket
+ * by bracket, every allowed pair of players becomes an edge of one graph whose weight
+ * ranks the Dutch quality criteria lexicographically, and a maximum-weight matching of
+ * maximum cardinality picks the round:
+ * <ol>
+ * <li>score differences between opponents, as small as possible (fewest and shortest floats),</li>
+ * <li>colour preferences met, weaker preferences given up first,</li>
+ * <li>no player floating the same way two rounds running,</li>
+ * <li>within a score group, the top half meeting the bottom half in rank order, and the
+ * lowest-ranked players floating down.</li>
+ * </ol>
+ * Rematches, a second bye and pairings that would break an absolute colour preference
+ * are left out of the graph. With an odd number of players a bye vertex is added, joined
+ * to every player without a bye as if it were a player below the lowest score group.
+ */
+public final class DutchPairer {
+
+    private static final int NONE = 0;
+    private static final int MILD = 1;
+    private static final int STRONG = 2;
+    private static final int ABSOLUTE = 3;
+
+    private static final Comparator<SwissPlayer> RANKING = Comparator
+            .comparingInt(SwissPlayer::getPoints).reversed()
+            .thenComparing(Comparator.comparingInt(SwissPlayer::getRating).reversed())
+            .thenComparing(SwissPlayer::getId);
+
+    public List<Pairing> pair(List<SwissPlayer> players) {
+        int n = players.size();
+        if (n < 2) {
+            throw new PairingException("At least two players are needed to pair a round");
+        }
+        SwissPlayer[] ranked = players.toArray(new SwissPlayer[0]);
+        Arrays.sort(ranked, RANKING);
+
+        // position within the score group, and the group's size
+        int[] position = new int[n];
+        int[] groupSize = new int[n];
+        for (int start = 0; start < n; ) {
+            int end = start;
+            while (end < n && ranked[end].getPoints() == ranked[start].getPoints()) {
+                end++;
+            }
+            for (int i = start; i < end; i++) {
+                position[i] = i - start;
+                groupSize[i] = end - start;
+            }
+            start = end;
+        }
+
+        int[] preference = new int[n];
+        int[] strength = new int[n];
+        for (int i = 0; i < n; i++) {
+            colourPreference(ranked[i].getColours(), i, preference, strength);
+        }
+
+        boolean bye = n % 2 == 1;
+        int vertices = bye ? n + 1 : n;
+        long pairs = vertices / 2;
+        int lowest = ranked[n - 1].getPoints();
+        long spread = ranked[0].getPoints() - lowest + 1L;
+
+        long orderMax = 2L * n;
+        long floatUnit = pairs * orderMax + 1;
+        long colourUnit = floatUnit * (2 * pairs + 1);
+        long scoreUnit = colourUnit * (4 * pairs + 1);
+        try {
+            // the matching's dual values reach twice the largest weight
+            Math.multiplyExact(Math.multiplyExact(scoreUnit, spread * spread + 1), 4L);
+        } catch (ArithmeticException e) {
+            throw new PairingException("Too many players or score groups to pair in one round");
+        }
+
+        int capacity = n * (n - 1) / 2 + (bye ? n : 0);
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        long[] weights = new long[capacity];
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            SwissPlayer a = ranked[i];
+            for (int j = i + 1; j < n; j++) {
+                SwissPlayer b = ranked[j];
+                if (a.getOpponents().contains(b.getId())
+                        || (strength[i] == ABSOLUTE && strength[j] == ABSOLUTE && preference[i] == preference[j])) {
+                    continue;
+                }
+                long difference = a.getPoints() - b.getPoints();
+                long score = spread * spread - difference * difference;
+                long colour = colourScore(preference[i], strength[i], preference[j], strength[j]);
+                long floats = 2;
+                long order;
+                if (difference == 0) {
+                    order = orderMax - Math.abs(j - i - groupSize[i] / 2);
+                } else {
+                    floats -= (a.getLastFloat() == SwissPlayer.FloatDirection.DOWN ? 1 : 0)
+                            + (b.getLastFloat() == SwissPlayer.FloatDirection.UP ? 1 : 0);
+                    order = n + position[i] - position[j];
+                }
+                from[edges] = i;
+                to[edges] = j;
+                weights[edges] = score * scoreUnit + colour * colourUnit + floats * floatUnit + order;
+                edges++;
+            }
+            if (bye && !a.hadBye()) {
+                long difference = a.getPoints() - lowest;
+                long floats = a.getLastFloat() == SwissPlayer.FloatDirection.DOWN ? 1 : 2;
+                from[edges] = i;
+                to[edges] = n;
+                weights[edges] = (spread * spread - difference * difference) * scoreUnit + 4 * colourUnit
+                        + floats * floatUnit + n + position[i];
+                edges++;
+            }
+        }
+
+        int[] mate = WeightedMatching.match(vertices, Arrays.copyOf(from, edges), Arrays.copyOf(to, edges),
+                Arrays.copyOf(weights, edges));
+        for (int v = 0; v < vertices; v++) {
+            if (mate[v] == -1) {
+                throw new PairingException("No pairing of this round avoids rematches, a second bye and "
+                        + "absolute colour conflicts");
+            }
+        }
+        return boards(ranked, mate, preference, strength);
+    }
+
+    private List<Pairing> boards(SwissPlayer[] ranked, int[] mate, int[] preference, int[] strength) {
+        int n = ranked.length;
+        List<int[]> games = new ArrayList<>();
+        int byePlayer = -1;
+        for (int i = 0; i < n; i++) {
+            if (mate[i] == n) {
+                byePlayer = i;
+            } else if (mate[i] > i) {
+                games.add(new int[] { i, mate[i] });
+            }
+        }
+        // top score first, then the higher total, then the higher-ranked player
+        games.sort(Comparator
+                .comparingInt((int[] game) -> -ranked[game[0]].getPoints())
+                .thenComparingInt(game -> -(ranked[game[0]].getPoints() + ranked[game[1]].getPoints()))
+                .thenComparingInt(game -> game[0]));
+
+        List<Pairing> pairings = new ArrayList<>(games.size() + 1);
+        for (int[] game : games) {
+            int board = pairings.size() + 1;
+            int a = game[0];
+            int b = game[1];
+            boolean aWhite = aGetsWhite(ranked, a, b, preference, strength, board);
+            pairings.add(new Pairing(board, ranked[aWhite ? a : b].getId(), ranked[aWhite ? b : a].getId()));
+        }
+        if (byePlayer >= 0) {
+            pairings.add(new Pairing(pairings.size() + 1, ranked[byePlayer].getId(), null));
+        }
+        return pairings;
+    }
+
+    /**
+     * Whether a, the higher-ranked player, gets white.
+     */
+    private static boolean aGetsWhite(SwissPlayer[] ranked, int a, int b, int[] preference, int[] strength,
+                                      int board) {
+        if (preference[a] != 0 && preference[a] == preference[b]) {
+            if (strength[a] != strength[b]) {
+                return (strength[a] > strength[b]) == (preference[a] > 0);
+            }
+            // alternate from the latest round in which they had different colours
+            String ca = ranked[a].getColours();
+            String cb = ranked[b].getColours();
+            for (int r = Math.min(ca.length(), cb.length()) - 1; r >= 0; r--) {
+                char x = ca.charAt(r);
+                char y = cb.charAt(r);
+                if (x != '-' && y != '-' && x != y) {
+                    return x == 'B';
+                }
+            }
+            return preference[a] > 0;
+        }
+        if (preference[a] != 0) {
+            return preference[a] > 0;
+        }
+        if (preference[b] != 0) {
+            return preference[b] < 0;
+        }
+        // neither has played: the higher-ranked player takes white on odd boards
+        return board % 2 == 1;
+    }
+
+    /**
+     * How well a pair meets its colour preferences, from 4 when both are met down to 1
+     * when a strong preference has to give way.
+     */
+    private static int colourScore(int prefA, int strengthA, int prefB, int strengthB) {
+        if (prefA == 0 || prefB == 0 || prefA != prefB) {
+            return 4;
+        }
+        return 3 - Math.min(strengthA, strengthB);
+    }
+
+    /**
+     * Colour preference from the colours played: +1 for white, -1 for black. Absolute
+     * after a colour difference above one or the same colour twice running, strong with
+     * a difference of one, and mild otherwise, towards alternating.
+     */
+    private static void colourPreference(String colours, int i, int[] preference, int[] strength) {
+        int difference = 0;
+        char last = 0;
+        char beforeLast = 0;
+        for (int r = 0; r < colours.length(); r++) {
+            char c = colours.charAt(r);
+            if (c == '-') {
+                continue;
+            }
+            difference += c == 'W' ? 1 : -1;
+            beforeLast = last;
+            last = c;
+        }
+        if (difference > 1 || (last == 'W' && beforeLast == 'W')) {
+            preference[i] = -1;
+            strength[i] = ABSOLUTE;
+        } else if (difference < -1 || (last == 'B' && beforeLast == 'B')) {
+            preference[i] = 1;
+            strength[i] = ABSOLUTE;
+        } else if (difference != 0) {
+            preference[i] = -difference;
+            strength[i] = STRONG;
+        } else if (last != 0) {
+            preference[i] = last == 'W' ? -1 : 1;
+            strength[i] = MILD;
+        } else {
+            preference[i] = 0;
+            strength[i] = NONE;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.UUID;
+
+/**
+ * One board of a round. black is null when white has the bye.
+ */
+public final class Pairing {
+
+    private final int board;
+    private final UUID white;
+    private final UUID black;
+
+    public Pairing(int board, UUID white, UUID black) {
+        this.board = board;
+        this.white = white;
+        this.black = black;
+    }
+
+    public int getBoard() {
+        return board;
+    }
+
+    public UUID getWhite() {
+        return white;
+    }
+
+    public UUID getBlack() {
+        return black;
+    }
+
+    public boolean isBye() {
+        return black == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.metuncc.netchess.tournament.pairing;
+
+/**
+ * Thrown when no pairing of a round satisfies the absolute criteria: no rematches, at
+ * most one bye per player, and no colour a player is barred from.
+ */
+public class PairingException extends RuntimeException {
+
+    public PairingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,68 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A player's standing going into a Swiss round.
+ */
+public final class SwissPlayer {
+
+    public enum FloatDirection {
+        NONE,
+        UP,
+        DOWN
+    }
+
+    private final UUID id;
+    private final int rating;
+    private final int points;
+    private final String colours;
+    private final Set<UUID> opponents;
+    private final boolean hadBye;
+    private final FloatDirection lastFloat;
+
+    /**
+     * points are in half points; colours has one character per round played so far,
+     * 'W', 'B', or '-' for a round without a game (a bye or an absence); lastFloat is
+     * how the player was paired in the previous round, a bye counting as a downfloat.
+     */
+    public SwissPlayer(UUID id, int rating, int points, String colours, Set<UUID> opponents, boolean hadBye,
+                       FloatDirection lastFloat) {
+        this.id = id;
+        this.rating = rating;
+        this.points = points;
+        this.colours = colours;
+        this.opponents = opponents;
+        this.hadBye = hadBye;
+        this.lastFloat = lastFloat;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public String getColours() {
+        return colours;
+    }
+
+    public Set<UUID> getOpponents() {
+        return opponents;
+    }
+
+    public boolean hadBye() {
+        return hadBye;
+    }
+
+    public FloatDirection getLastFloat() {
+        return lastFloat;
+    }
+}
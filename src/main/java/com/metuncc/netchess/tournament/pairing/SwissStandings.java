@@ -0,0 +1,107 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds each player's standing from the rounds played so far, fed round by round in
+ * order: {@link #game} and {@link #bye} for every board, then {@link #endRound}.
+ */
+public final class SwissStandings {
+
+    private static final class Entry {
+        int points;
+        int pending;
+        final StringBuilder colours = new StringBuilder();
+        final Set<UUID> opponents = new HashSet<>();
+        boolean hadBye;
+        SwissPlayer.FloatDirection lastFloat = SwissPlayer.FloatDirection.NONE;
+    }
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private int rounds;
+
+    public void game(UUID white, UUID black, String result) {
+        Entry w = entry(white);
+        Entry b = entry(black);
+        w.colours.append('W');
+        b.colours.append('B');
+        w.opponents.add(black);
+        b.opponents.add(white);
+        // points are only added at the end of the round, so these are the scores the
+        // two were paired on
+        w.lastFloat = direction(w.points, b.points);
+        b.lastFloat = direction(b.points, w.points);
+        if ("1-0".equals(result)) {
+            w.pending += 2;
+        } else if ("0-1".equals(result)) {
+            b.pending += 2;
+        } else if ("1/2-1/2".equals(result)) {
+            w.pending++;
+            b.pending++;
+        }
+    }
+
+    public void bye(UUID player) {
+        Entry e = entry(player);
+        e.colours.append('-');
+        e.hadBye = true;
+        e.lastFloat = SwissPlayer.FloatDirection.DOWN;
+        e.pending += 2;
+    }
+
+    public void endRound() {
+        rounds++;
+        for (Entry e : entries.values()) {
+            if (e.colours.length() < rounds) {
+                e.colours.append('-');
+                e.lastFloat = SwissPlayer.FloatDirection.NONE;
+            }
+            e.points += e.pending;
+            e.pending = 0;
+        }
+    }
+
+    public int rounds() {
+        return rounds;
+    }
+
+    /**
+     * The standings of the given players going into the next round; players who have
+     * not played yet start on zero.
+     */
+    public List<SwissPlayer> players(Map<UUID, Integer> ratings) {
+        List<SwissPlayer> players = new ArrayList<>(ratings.size());
+        for (Map.Entry<UUID, Integer> rating : ratings.entrySet()) {
+            Entry e = entries.get(rating.getKey());
+            if (e == null) {
+                players.add(new SwissPlayer(rating.getKey(), rating.getValue(), 0, "-".repeat(rounds), Set.of(),
+                        false, SwissPlayer.FloatDirection.NONE));
+            } else {
+                players.add(new SwissPlayer(rating.getKey(), rating.getValue(), e.points, e.colours.toString(),
+                        e.opponents, e.hadBye, e.lastFloat));
+            }
+        }
+        return players;
+    }
+
+    private Entry entry(UUID player) {
+        return entries.computeIfAbsent(player, id -> {
+            Entry e = new Entry();
+            e.colours.append("-".repeat(rounds));
+            return e;
+        });
+    }
+
+    private static SwissPlayer.FloatDirection direction(int points, int opponentPoints) {
+        if (points > opponentPoints) {
+            return SwissPlayer.FloatDirection.DOWN;
+        }
+        return points < opponentPoints ? SwissPlayer.FloatDirection.UP : SwissPlayer.FloatDirection.NONE;
+    }
+}
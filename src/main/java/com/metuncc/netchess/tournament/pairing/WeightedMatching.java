@@ -0,0 +1,659 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import java.util.Arrays;
+
+/**
+ * Maximum-weight matching of maximum cardinality in a general graph, by Edmonds' blossom
+ * algorithm with dual variables, in O(n^3). Follows Van Rantwijk's well-known
+ * formulation: vertices are labelled S or T while growing alternating trees, odd cycles
+ * of S-vertices shrink into blossoms, and dual updates make new edges tight until an
+ * augmenting path is found.
+ * <p>
+ * Weights are integers, so every dual value stays integral and no precision is lost.
+ */
+public final class WeightedMatching {
+
+    private final int nvertex;
+    private final int nedge;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final long[] weight;
+
+    private final int[] endpoint;
+    private final int[][] neighbend;
+    private final int[] mate;
+    private final int[] label;
+    private final int[] labelend;
+    private final int[] inblossom;
+    private final int[] blossomparent;
+    private final int[][] blossomchilds;
+    private final int[] blossombase;
+    private final int[][] blossomendps;
+    private final int[] bestedge;
+    private final int[][] blossombestedges;
+    private final int[] unusedblossoms;
+    private int unusedCount;
+    private final long[] dualvar;
+    private final boolean[] allowedge;
+    private int[] queue;
+    private int queueSize;
+
+    private WeightedMatching(int vertices, int[] from, int[] to, long[] weights) {
+        nvertex = vertices;
+        nedge = from.length;
+        edgeFrom = from;
+        edgeTo = to;
+        weight = weights;
+        long maxweight = 0;
+        for (long w : weights) {
+            maxweight = Math.max(maxweight, w);
+        }
+
+        endpoint = new int[2 * nedge];
+        int[] degree = new int[nvertex];
+        for (int k = 0; k < nedge; k++) {
+            endpoint[2 * k] = from[k];
+            endpoint[2 * k + 1] = to[k];
+            degree[from[k]]++;
+            degree[to[k]]++;
+        }
+        neighbend = new int[nvertex][];
+        for (int v = 0; v < nvertex; v++) {
+            neighbend[v] = new int[degree[v]];
+        }
+        int[] fill = new int[nvertex];
+        for (int k = 0; k < nedge; k++) {
+            neighbend[from[k]][fill[from[k]]++] = 2 * k + 1;
+            neighbend[to[k]][fill[to[k]]++] = 2 * k;
+        }
+
+        mate = new int[nvertex];
+        Arrays.fill(mate, -1);
+        label = new int[2 * nvertex];
+        labelend = new int[2 * nvertex];
+        Arrays.fill(labelend, -1);
+        inblossom = new int[nvertex];
+        for (int v = 0; v < nvertex; v++) {
+            inblossom[v] = v;
+        }
+        blossomparent = new int[2 * nvertex];
+        Arrays.fill(blossomparent, -1);
+        blossomchilds = new int[2 * nvertex][];
+        blossombase = new int[2 * nvertex];
+        Arrays.fill(blossombase, -1);
+        for (int v = 0; v < nvertex; v++) {
+            blossombase[v] = v;
+        }
+        blossomendps = new int[2 * nvertex][];
+        bestedge = new int[2 * nvertex];
+        Arrays.fill(bestedge, -1);
+        blossombestedges = new int[2 * nvertex][];
+        unusedblossoms = new int[nvertex];
+        for (int b = nvertex; b < 2 * nvertex; b++) {
+            unusedblossoms[unusedCount++] = b;
+        }
+        dualvar = new long[2 * nvertex];
+        Arrays.fill(dualvar, 0, nvertex, maxweight);
+        allowedge = new boolean[nedge];
+        queue = new int[nvertex];
+    }
+
+    /**
+     * Returns mate[v], the vertex matched to v or -1, for a matching that has the most
+     * edges possible and, among those, the greatest total weight. Edge k joins from[k]
+     * and to[k] with weight weights[k]; vertices are 0 to vertices - 1.
+     */
+    public static int[] match(int vertices, int[] from, int[] to, long[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        if (from.length == 0) {
+            int[] mate = new int[vertices];
+            Arrays.fill(mate, -1);
+            return mate;
+        }
+        return new WeightedMatching(vertices, from, to, weights).solve();
+    }
+
+    private long slack(int k) {
+        return dualvar[edgeFrom[k]] + dualvar[edgeTo[k]] - 2 * weight[k];
+    }
+
+    private int[] blossomLeaves(int b) {
+        int[] leaves = new int[8];
+        int count = 0;
+        int[] stack = new int[8];
+        int top = 0;
+        stack[top++] = b;
+        while (top > 0) {
+            int t = stack[--top];
+            if (t < nvertex) {
+                if (count == leaves.length) {
+                    leaves = Arrays.copyOf(leaves, count * 2);
+                }
+                leaves[count++] = t;
+            } else {
+                int[] childs = blossomchilds[t];
+                for (int i = childs.length - 1; i >= 0; i--) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = childs[i];
+                }
+            }
+        }
+        return Arrays.copyOf(leaves, count);
+    }
+
+    private void push(int v) {
+        if (queueSize == queue.length) {
+            queue = Arrays.copyOf(queue, queueSize * 2);
+        }
+        queue[queueSize++] = v;
+    }
+
+    private void assignLabel(int w, int t, int p) {
+        while (true) {
+            int b = inblossom[w];
+            label[w] = label[b] = t;
+            labelend[w] = labelend[b] = p;
+            bestedge[w] = bestedge[b] = -1;
+            if (t == 1) {
+                for (int v : blossomLeaves(b)) {
+                    push(v);
+                }
+                return;
+            }
+            // b became a T-blossom; its mate becomes an S-vertex
+            int base = blossombase[b];
+            w = endpoint[mate[base]];
+            t = 1;
+            p = mate[base] ^ 1;
+        }
+    }
+
+    /**
+     * Traces back from v and w to find either a new blossom's base or an augmenting
+     * path; returns the base, or -1 for an augmenting path.
+     */
+    private int scanBlossom(int v, int w) {
+        int[] path = new int[8];
+        int pathSize = 0;
+        int base = -1;
+        while (v != -1 || w != -1) {
+            int b = inblossom[v];
+            if ((label[b] & 4) != 0) {
+                base = blossombase[b];
+                break;
+            }
+            if (pathSize == path.length) {
+                path = Arrays.copyOf(path, pathSize * 2);
+            }
+            path[pathSize++] = b;
+            label[b] = 5;
+            if (labelend[b] == -1) {
+                v = -1;
+            } else {
+                v = endpoint[labelend[b]];
+                b = inblossom[v];
+                v = endpoint[labelend[b]];
+            }
+            if (w != -1) {
+                int swap = v;
+                v = w;
+                w = swap;
+            }
+        }
+        for (int i = 0; i < pathSize; i++) {
+            label[path[i]] = 1;
+        }
+        return base;
+    }
+
+    private void addBlossom(int base, int k) {
+        int v = edgeFrom[k];
+        int w = edgeTo[k];
+        int bb = inblossom[base];
+        int bv = inblossom[v];
+        int bw = inblossom[w];
+        int b = unusedblossoms[--unusedCount];
+        blossombase[b] = base;
+        blossomparent[b] = -1;
+        blossomparent[bb] = b;
+
+        IntList path = new IntList();
+        IntList endps = new IntList();
+        while (bv != bb) {
+            blossomparent[bv] = b;
+            path.add(bv);
+            endps.add(labelend[bv]);
+            v = endpoint[labelend[bv]];
+            bv = inblossom[v];
+        }
+        path.add(bb);
+        path.reverse();
+        endps.reverse();
+        endps.add(2 * k);
+        while (bw != bb) {
+            blossomparent[bw] = b;
+            path.add(bw);
+            endps.add(labelend[bw] ^ 1);
+            w = endpoint[labelend[bw]];
+            bw = inblossom[w];
+        }
+        blossomchilds[b] = path.toArray();
+        blossomendps[b] = endps.toArray();
+
+        label[b] = 1;
+        labelend[b] = labelend[bb];
+        dualvar[b] = 0;
+        for (int leaf : blossomLeaves(b)) {
+            if (label[inblossom[leaf]] == 2) {
+                // a T-vertex turns into an S-vertex inside the new S-blossom
+                push(leaf);
+            }
+            inblossom[leaf] = b;
+        }
+
+        int[] bestedgeto = new int[2 * nvertex];
+        Arrays.fill(bestedgeto, -1);
+        for (int child : blossomchilds[b]) {
+            int[][] nblists;
+            if (blossombestedges[child] == null) {
+                int[] leaves = blossomLeaves(child);
+                nblists = new int[leaves.length][];
+                for (int i = 0; i < leaves.length; i++) {
+                    int[] ends = neighbend[leaves[i]];
+                    int[] edges = new int[ends.length];
+                    for (int j = 0; j < ends.length; j++) {
+                        edges[j] = ends[j] / 2;
+                    }
+                    nblists[i] = edges;
+                }
+            } else {
+                nblists = new int[][] { blossombestedges[child] };
+            }
+            for (int[] nblist : nblists) {
+                for (int e : nblist) {
+                    int j = edgeTo[e];
+                    if (inblossom[j] == b) {
+                        j = edgeFrom[e];
+                    }
+                    int bj = inblossom[j];
+                    if (bj != b && label[bj] == 1 && (bestedgeto[bj] == -1 || slack(e) < slack(bestedgeto[bj]))) {
+                        bestedgeto[bj] = e;
+                    }
+                }
+            }
+            blossombestedges[child] = null;
+            bestedge[child] = -1;
+        }
+        IntList best = new IntList();
+        for (int e : bestedgeto) {
+            if (e != -1) {
+                best.add(e);
+            }
+        }
+        blossombestedges[b] = best.toArray();
+        bestedge[b] = -1;
+        for (int e : blossombestedges[b]) {
+            if (bestedge[b] == -1 || slack(e) < slack(bestedge[b])) {
+                bestedge[b] = e;
+            }
+        }
+    }
+
+    private void expandBlossom(int b, boolean endstage) {
+        int[] childs = blossomchilds[b];
+        for (int s : childs) {
+            blossomparent[s] = -1;
+            if (s < nvertex) {
+                inblossom[s] = s;
+            } else if (endstage && dualvar[s] == 0) {
+                expandBlossom(s, endstage);
+            } else {
+                for (int leaf : blossomLeaves(s)) {
+                    inblossom[leaf] = s;
+                }
+            }
+        }
+
+        if (!endstage && label[b] == 2) {
+            // relabel the sub-blossoms on the even path from the entry child to the base
+            int[] endps = blossomendps[b];
+            int entrychild = inblossom[endpoint[labelend[b] ^ 1]];
+            int j = indexOf(childs, entrychild);
+            int jstep;
+            int endptrick;
+            if ((j & 1) != 0) {
+                j -= childs.length;
+                jstep = 1;
+                endptrick = 0;
+            } else {
+                jstep = -1;
+                endptrick = 1;
+            }
+            int p = labelend[b];
+            while (j != 0) {
+                label[endpoint[p ^ 1]] = 0;
+                label[endpoint[at(endps, j - endptrick) ^ endptrick ^ 1]] = 0;
+                assignLabel(endpoint[p ^ 1], 2, p);
+                allowedge[at(endps, j - endptrick) / 2] = true;
+                j += jstep;
+                p = at(endps, j - endptrick) ^ endptrick;
+                allowedge[p / 2] = true;
+                j += jstep;
+            }
+            int bv = at(childs, j);
+            label[endpoint[p ^ 1]] = label[bv] = 2;
+            labelend[endpoint[p ^ 1]] = labelend[bv] = p;
+            bestedge[bv] = -1;
+            j += jstep;
+            while (at(childs, j) != entrychild) {
+                bv = at(childs, j);
+                if (label[bv] == 1) {
+                    j += jstep;
+                    continue;
+                }
+                int labelled = -1;
+                for (int leaf : blossomLeaves(bv)) {
+                    if (label[leaf] != 0) {
+                        labelled = leaf;
+                        break;
+                    }
+                }
+                if (labelled != -1) {
+                    label[labelled] = 0;
+                    label[endpoint[mate[blossombase[bv]]]] = 0;
+                    assignLabel(labelled, 2, labelend[labelled]);
+                }
+                j += jstep;
+            }
+        }
+
+        label[b] = labelend[b] = -1;
+        blossomchilds[b] = blossomendps[b] = null;
+        blossombase[b] = -1;
+        blossombestedges[b] = null;
+        bestedge[b] = -1;
+        unusedblossoms[unusedCount++] = b;
+    }
+
+    /**
+     * Swaps matched and unmatched edges along the even path from v through blossom b to
+     * its base, making v the new base.
+     */
+    private void augmentBlossom(int b, int v) {
+        int t = v;
+        while (blossomparent[t] != b) {
+            t = blossomparent[t];
+        }
+        if (t >= nvertex) {
+            augmentBlossom(t, v);
+        }
+        int[] childs = blossomchilds[b];
+        int[] endps = blossomendps[b];
+        int i = indexOf(childs, t);
+        int j = i;
+        int jstep;
+        int endptrick;
+        if ((i & 1) != 0) {
+            j -= childs.length;
+            jstep = 1;
+            endptrick = 0;
+        } else {
+            jstep = -1;
+            endptrick = 1;
+        }
+        while (j != 0) {
+            j += jstep;
+            t = at(childs, j);
+            int p = at(endps, j - endptrick) ^ endptrick;
+            if (t >= nvertex) {
+                augmentBlossom(t, endpoint[p]);
+            }
+            j += jstep;
+            t = at(childs, j);
+            if (t >= nvertex) {
+                augmentBlossom(t, endpoint[p ^ 1]);
+            }
+            mate[endpoint[p]] = p ^ 1;
+            mate[endpoint[p ^ 1]] = p;
+        }
+        blossomchilds[b] = rotate(childs, i);
+        blossomendps[b] = rotate(endps, i);
+        blossombase[b] = blossombase[blossomchilds[b][0]];
+    }
+
+    private void augmentMatching(int k) {
+        int[][] sides = { { edgeFrom[k], 2 * k + 1 }, { edgeTo[k], 2 * k } };
+        for (int[] side : sides) {
+            int s = side[0];
+            int p = side[1];
+            while (true) {
+                int bs = inblossom[s];
+                if (bs >= nvertex) {
+                    augmentBlossom(bs, s);
+                }
+                mate[s] = p;
+                if (labelend[bs] == -1) {
+                    break;
+                }
+                int t = endpoint[labelend[bs]];
+                int bt = inblossom[t];
+                s = endpoint[labelend[bt]];
+                int j = endpoint[labelend[bt] ^ 1];
+                if (bt >= nvertex) {
+                    augmentBlossom(bt, j);
+                }
+                mate[j] = labelend[bt];
+                p = labelend[bt] ^ 1;
+            }
+        }
+    }
+
+    private int[] solve() {
+        for (int stage = 0; stage < nvertex; stage++) {
+            Arrays.fill(label, 0);
+            Arrays.fill(bestedge, -1);
+            Arrays.fill(blossombestedges, nvertex, 2 * nvertex, null);
+            Arrays.fill(allowedge, false);
+            queueSize = 0;
+
+            for (int v = 0; v < nvertex; v++) {
+                if (mate[v] == -1 && label[inblossom[v]] == 0) {
+                    assignLabel(v, 1, -1);
+                }
+            }
+
+            boolean augmented = false;
+            while (true) {
+                while (queueSize > 0 && !augmented) {
+                    int v = queue[--queueSize];
+                    for (int p : neighbend[v]) {
+                        int k = p / 2;
+                        int w = endpoint[p];
+                        if (inblossom[v] == inblossom[w]) {
+                            continue;
+                        }
+                        long kslack = 0;
+                        if (!allowedge[k]) {
+                            kslack = slack(k);
+                            if (kslack <= 0) {
+                                allowedge[k] = true;
+                            }
+                        }
+                        if (allowedge[k]) {
+                            if (label[inblossom[w]] == 0) {
+                                assignLabel(w, 2, p ^ 1);
+                            } else if (label[inblossom[w]] == 1) {
+                                int base = scanBlossom(v, w);
+                                if (base >= 0) {
+                                    addBlossom(base, k);
+                                } else {
+                                    augmentMatching(k);
+                                    augmented = true;
+                                    break;
+                                }
+                            } else if (label[w] == 0) {
+                                label[w] = 2;
+                                labelend[w] = p ^ 1;
+                            }
+                        } else if (label[inblossom[w]] == 1) {
+                            int b = inblossom[v];
+                            if (bestedge[b] == -1 || kslack < slack(bestedge[b])) {
+                                bestedge[b] = k;
+                            }
+                        } else if (label[w] == 0) {
+                            if (bestedge[w] == -1 || kslack < slack(bestedge[w])) {
+                                bestedge[w] = k;
+                            }
+                        }
+                    }
+                }
+                if (augmented) {
+                    break;
+                }
+
+                // no augmenting path under the current duals; find the smallest dual change
+                int deltatype = -1;
+                long delta = 0;
+                int deltaedge = -1;
+                int deltablossom = -1;
+                for (int v = 0; v < nvertex; v++) {
+                    if (label[inblossom[v]] == 0 && bestedge[v] != -1) {
+                        long d = slack(bestedge[v]);
+                        if (deltatype == -1 || d < delta) {
+                            delta = d;
+                            deltatype = 2;
+                            deltaedge = bestedge[v];
+                        }
+                    }
+                }
+                for (int b = 0; b < 2 * nvertex; b++) {
+                    if (blossomparent[b] == -1 && label[b] == 1 && bestedge[b] != -1) {
+                        long d = slack(bestedge[b]) / 2;
+                        if (deltatype == -1 || d < delta) {
+                            delta = d;
+                            deltatype = 3;
+                            deltaedge = bestedge[b];
+                        }
+                    }
+                }
+                for (int b = nvertex; b < 2 * nvertex; b++) {
+                    if (blossombase[b] >= 0 && blossomparent[b] == -1 && label[b] == 2
+                            && (deltatype == -1 || dualvar[b] < delta)) {
+                        delta = dualvar[b];
+                        deltatype = 4;
+                        deltablossom = b;
+                    }
+                }
+                if (deltatype == -1) {
+                    // no further improvement possible; the matching has maximum cardinality
+                    deltatype = 1;
+                    long min = Long.MAX_VALUE;
+                    for (int v = 0; v < nvertex; v++) {
+                        min = Math.min(min, dualvar[v]);
+                    }
+                    delta = Math.max(0, min);
+                }
+
+                for (int v = 0; v < nvertex; v++) {
+                    if (label[inblossom[v]] == 1) {
+                        dualvar[v] -= delta;
+                    } else if (label[inblossom[v]] == 2) {
+                        dualvar[v] += delta;
+                    }
+                }
+                for (int b = nvertex; b < 2 * nvertex; b++) {
+                    if (blossombase[b] >= 0 && blossomparent[b] == -1) {
+                        if (label[b] == 1) {
+                            dualvar[b] += delta;
+                        } else if (label[b] == 2) {
+                            dualvar[b] -= delta;
+                        }
+                    }
+                }
+
+                if (deltatype == 1) {
+                    break;
+                } else if (deltatype == 2) {
+                    allowedge[deltaedge] = true;
+                    int i = edgeFrom[deltaedge];
+                    if (label[inblossom[i]] == 0) {
+                        i = edgeTo[deltaedge];
+                    }
+                    push(i);
+                } else if (deltatype == 3) {
+                    allowedge[deltaedge] = true;
+                    push(edgeFrom[deltaedge]);
+                } else {
+                    expandBlossom(deltablossom, false);
+                }
+            }
+
+            if (!augmented) {
+                break;
+            }
+            for (int b = nvertex; b < 2 * nvertex; b++) {
+                if (blossomparent[b] == -1 && blossombase[b] >= 0 && label[b] == 1 && dualvar[b] == 0) {
+                    expandBlossom(b, true);
+                }
+            }
+        }
+
+        int[] result = new int[nvertex];
+        for (int v = 0; v < nvertex; v++) {
+            result[v] = mate[v] >= 0 ? endpoint[mate[v]] : -1;
+        }
+        return result;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Sub-blossom not found");
+    }
+
+    /**
+     * values[i], with negative indexes counting from the end.
+     */
+    private static int at(int[] values, int i) {
+        return values[i < 0 ? i + values.length : i];
+    }
+
+    private static int[] rotate(int[] values, int from) {
+        int[] rotated = new int[values.length];
+        System.arraycopy(values, from, rotated, 0, values.length - from);
+        System.arraycopy(values, 0, rotated, values.length - from, from);
+        return rotated;
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE game_positions (
+                                hash BIGINT NOT NULL,
+                                game_id UUID NOT NULL REFERENCES games(id) ON DELETE CASCADE,
+                                ply SMALLINT NOT NULL,
+                                PRIMARY KEY (game_id, ply)
+);
+
+CREATE INDEX idx_game_positions_hash ON game_positions(hash) INCLUDE (game_id, ply);
@@ -0,0 +1,11 @@
+CREATE TABLE opening_moves (
+                               position_hash BIGINT NOT NULL,
+                               move INTEGER NOT NULL,
+                               games INTEGER NOT NULL DEFAULT 0,
+                               white_wins INTEGER NOT NULL DEFAULT 0,
+                               draws INTEGER NOT NULL DEFAULT 0,
+                               black_wins INTEGER NOT NULL DEFAULT 0,
+                               elo_sum BIGINT NOT NULL DEFAULT 0,
+                               elo_count INTEGER NOT NULL DEFAULT 0,
+                               PRIMARY KEY (position_hash, move)
+);
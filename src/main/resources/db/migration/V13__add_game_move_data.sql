@@ -0,0 +1 @@
+ALTER TABLE games ADD COLUMN move_data BYTEA;
@@ -0,0 +1,6 @@
+CREATE INDEX idx_games_created_at_id ON games(created_at DESC, id DESC);
+CREATE INDEX idx_games_approved_created_at_id ON games(approved, created_at DESC, id DESC);
+CREATE INDEX idx_games_tournament_created_at_id ON games(tournament_id, created_at DESC, id DESC);
+CREATE INDEX idx_games_uploaded_by_created_at_id ON games(uploaded_by, created_at DESC, id DESC);
+
+DROP INDEX idx_games_uploaded_by;
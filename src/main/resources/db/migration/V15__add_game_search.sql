@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE games ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(white_player, '') || ' ' || coalesce(black_player, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(event, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(site, '') || ' ' || coalesce(eco, '') || ' ' || coalesce(round, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_games_search_vector ON games USING GIN (search_vector);
+CREATE INDEX idx_games_white_player_trgm ON games USING GIN (white_player gin_trgm_ops);
+CREATE INDEX idx_games_black_player_trgm ON games USING GIN (black_player gin_trgm_ops);
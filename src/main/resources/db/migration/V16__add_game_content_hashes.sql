@@ -0,0 +1,5 @@
+ALTER TABLE games ADD COLUMN content_sha256 VARCHAR(64);
+ALTER TABLE games ADD COLUMN move_hash VARCHAR(64);
+
+CREATE UNIQUE INDEX ux_games_move_hash ON games(move_hash) WHERE move_hash IS NOT NULL;
+CREATE INDEX idx_games_s3_key ON games(s3_key);
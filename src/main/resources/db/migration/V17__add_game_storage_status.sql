@@ -0,0 +1,3 @@
+ALTER TABLE games ADD COLUMN storage_status VARCHAR(16);
+
+UPDATE games SET storage_status = 'STORED' WHERE s3_key IS NOT NULL;
@@ -0,0 +1,10 @@
+CREATE TABLE storage_deletions (
+    storage_key VARCHAR(512) PRIMARY KEY,
+    enqueued_at TIMESTAMP NOT NULL DEFAULT now(),
+    attempts INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_storage_deletions_enqueued_at ON storage_deletions(enqueued_at);
+
+-- byte-order index for the storage sweep, which walks keys in the order S3 lists them
+CREATE INDEX idx_games_s3_key_c ON games(s3_key COLLATE "C");
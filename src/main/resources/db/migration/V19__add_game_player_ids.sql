@@ -0,0 +1,23 @@
+ALTER TABLE games ADD COLUMN white_player_id UUID REFERENCES users(id) ON DELETE SET NULL;
+ALTER TABLE games ADD COLUMN black_player_id UUID REFERENCES users(id) ON DELETE SET NULL;
+
+-- link existing games where the stored name matches exactly one member
+UPDATE games g SET white_player_id = m.id
+FROM (SELECT g2.id AS game_id, min(u.id::text)::uuid AS id
+      FROM games g2 JOIN users u ON u.full_name = g2.white_player OR u.username = g2.white_player
+      GROUP BY g2.id HAVING count(*) = 1) m
+WHERE g.id = m.game_id;
+
+UPDATE games g SET black_player_id = m.id
+FROM (SELECT g2.id AS game_id, min(u.id::text)::uuid AS id
+      FROM games g2 JOIN users u ON u.full_name = g2.black_player OR u.username = g2.black_player
+      GROUP BY g2.id HAVING count(*) = 1) m
+WHERE g.id = m.game_id;
+
+CREATE INDEX idx_games_white_player_id ON games(white_player_id);
+CREATE INDEX idx_games_black_player_id ON games(black_player_id);
+
+-- history of a deleted game goes with it; a recompute then settles the ratings
+ALTER TABLE rating_history DROP CONSTRAINT rating_history_game_id_fkey;
+ALTER TABLE rating_history ADD CONSTRAINT rating_history_game_id_fkey
+    FOREIGN KEY (game_id) REFERENCES games(id) ON DELETE CASCADE;
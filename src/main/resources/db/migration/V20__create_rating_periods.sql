@@ -0,0 +1,15 @@
+ALTER TABLE users ADD COLUMN rating_deviation DOUBLE PRECISION NOT NULL DEFAULT 350;
+ALTER TABLE users ADD COLUMN rating_volatility DOUBLE PRECISION NOT NULL DEFAULT 0.06;
+
+CREATE TABLE rating_periods (
+    id BIGSERIAL PRIMARY KEY,
+    rating_system VARCHAR(20) NOT NULL,
+    closed_at TIMESTAMP NOT NULL,
+    games_rated INTEGER NOT NULL,
+    players_rated INTEGER NOT NULL
+);
+
+-- null until the game has been rated in a period
+ALTER TABLE games ADD COLUMN rating_period_id BIGINT REFERENCES rating_periods(id);
+
+CREATE INDEX idx_games_unrated ON games(game_date, created_at) WHERE approved = true AND rating_period_id IS NULL;
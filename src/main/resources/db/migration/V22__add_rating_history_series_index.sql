@@ -0,0 +1,4 @@
+-- the rating series reads a player's ratings in time order from this index alone;
+-- it also covers every lookup the player_id index served
+CREATE INDEX idx_rating_history_player_changed ON rating_history(player_id, changed_at) INCLUDE (new_rating);
+DROP INDEX idx_rating_history_player;
@@ -0,0 +1,19 @@
+-- maintained when games are rated; rebuilt from games and rating_history by the stats rebuild
+CREATE TABLE player_stats (
+    player_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    white_wins INTEGER NOT NULL DEFAULT 0,
+    white_draws INTEGER NOT NULL DEFAULT 0,
+    white_losses INTEGER NOT NULL DEFAULT 0,
+    black_wins INTEGER NOT NULL DEFAULT 0,
+    black_draws INTEGER NOT NULL DEFAULT 0,
+    black_losses INTEGER NOT NULL DEFAULT 0,
+    -- positive for a run of wins, negative for a run of losses, 0 after a draw
+    current_streak INTEGER NOT NULL DEFAULT 0,
+    best_win_streak INTEGER NOT NULL DEFAULT 0,
+    peak_rating INTEGER NOT NULL,
+    opponent_rating_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- the rebuild joins each game to its history rows; deleting a game cascades through it too
+CREATE INDEX idx_rating_history_game ON rating_history(game_id);
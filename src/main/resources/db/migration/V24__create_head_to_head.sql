@@ -0,0 +1,36 @@
+-- one row per pair of members who have met in an approved, rated game; player_low is
+-- the smaller id. Rating changes come from per-game history, so games rated in a
+-- Glicko-2 period add none.
+CREATE TABLE head_to_head (
+    player_low UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    player_high UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    games INTEGER NOT NULL,
+    low_wins INTEGER NOT NULL,
+    draws INTEGER NOT NULL,
+    high_wins INTEGER NOT NULL,
+    low_rating_change INTEGER NOT NULL,
+    high_rating_change INTEGER NOT NULL,
+    last_played_at TIMESTAMP,
+    PRIMARY KEY (player_low, player_high),
+    CHECK (player_low < player_high)
+);
+
+-- the latest games of a pair, newest first
+CREATE INDEX idx_games_player_pair ON games (LEAST(white_player_id, black_player_id),
+    GREATEST(white_player_id, black_player_id), created_at DESC) WHERE approved = true;
+
+INSERT INTO head_to_head (player_low, player_high, games, low_wins, draws, high_wins, low_rating_change,
+                          high_rating_change, last_played_at)
+SELECT LEAST(g.white_player_id, g.black_player_id), GREATEST(g.white_player_id, g.black_player_id), count(*),
+       count(*) FILTER (WHERE (g.result = '1-0') = (g.white_player_id < g.black_player_id) AND g.result <> '1/2-1/2'),
+       count(*) FILTER (WHERE g.result = '1/2-1/2'),
+       count(*) FILTER (WHERE (g.result = '1-0') = (g.white_player_id > g.black_player_id) AND g.result <> '1/2-1/2'),
+       COALESCE(sum(CASE WHEN g.white_player_id < g.black_player_id THEN wh.rating_change ELSE bh.rating_change END), 0),
+       COALESCE(sum(CASE WHEN g.white_player_id < g.black_player_id THEN bh.rating_change ELSE wh.rating_change END), 0),
+       max(g.created_at)
+FROM games g
+LEFT JOIN rating_history wh ON wh.game_id = g.id AND wh.player_id = g.white_player_id
+LEFT JOIN rating_history bh ON bh.game_id = g.id AND bh.player_id = g.black_player_id
+WHERE g.approved = true AND g.white_player_id IS NOT NULL AND g.black_player_id IS NOT NULL
+  AND g.white_player_id <> g.black_player_id AND g.result IN ('1-0', '0-1', '1/2-1/2')
+GROUP BY 1, 2;
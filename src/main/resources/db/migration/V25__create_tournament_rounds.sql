@@ -0,0 +1,30 @@
+CREATE TABLE tournament_players (
+    tournament_id UUID NOT NULL REFERENCES tournaments(id) ON DELETE CASCADE,
+    player_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    registered_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (tournament_id, player_id)
+);
+
+CREATE INDEX idx_tournament_players_player ON tournament_players(player_id);
+
+CREATE TABLE tournament_rounds (
+    id BIGSERIAL PRIMARY KEY,
+    tournament_id UUID NOT NULL REFERENCES tournaments(id) ON DELETE CASCADE,
+    round_number INTEGER NOT NULL,
+    pairing_system VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    UNIQUE (tournament_id, round_number)
+);
+
+-- black_player_id is null for a bye; result stays null until the game is reported
+CREATE TABLE pairings (
+    id BIGSERIAL PRIMARY KEY,
+    round_id BIGINT NOT NULL REFERENCES tournament_rounds(id) ON DELETE CASCADE,
+    board INTEGER NOT NULL,
+    white_player_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    black_player_id UUID REFERENCES users(id) ON DELETE CASCADE,
+    result VARCHAR(10),
+    game_id UUID REFERENCES games(id) ON DELETE SET NULL,
+    UNIQUE (round_id, board),
+    CHECK (result IN ('1-0', '0-1', '1/2-1/2'))
+);
@@ -0,0 +1,2 @@
+-- the room a board is played in; boards keep their room from round to round
+ALTER TABLE pairings ADD COLUMN room_id UUID REFERENCES rooms(id) ON DELETE SET NULL;
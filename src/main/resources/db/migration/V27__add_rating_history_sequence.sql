@@ -0,0 +1,14 @@
+-- the order ratings were applied in; changed_at is when the game was played, which
+-- differs from it whenever games are uploaded or rated out of play order
+CREATE SEQUENCE rating_history_seq;
+ALTER TABLE rating_history ADD COLUMN seq BIGINT;
+UPDATE rating_history h SET seq = o.n
+FROM (SELECT id, row_number() OVER (ORDER BY changed_at, id) AS n FROM rating_history) o
+WHERE h.id = o.id;
+SELECT setval('rating_history_seq', COALESCE((SELECT max(seq) FROM rating_history), 0) + 1, false);
+ALTER TABLE rating_history ALTER COLUMN seq SET DEFAULT nextval('rating_history_seq');
+ALTER TABLE rating_history ALTER COLUMN seq SET NOT NULL;
+ALTER SEQUENCE rating_history_seq OWNED BY rating_history.seq;
+
+CREATE INDEX idx_rating_history_player_seq ON rating_history(player_id, seq) INCLUDE (changed_at, new_rating);
+DROP INDEX idx_rating_history_player_changed;
@@ -0,0 +1,68 @@
+package com.metuncc.netchess.chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft throughput on the standard test positions. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.metuncc.netchess.chess.PerftBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1|5|4865609",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1|4|4085603",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1|6|11030083"
+    })
+    public String testCase;
+
+    private Position position;
+    private Perft perft;
+    private int depth;
+    private long expectedNodes;
+
+    @Setup
+    public void setUp() {
+        String[] parts = testCase.split("\\|");
+        position = Position.fromFen(parts[0]);
+        depth = Integer.parseInt(parts[1]);
+        expectedNodes = Long.parseLong(parts[2]);
+        perft = new Perft(depth);
+    }
+
+    @Benchmark
+    public long perft() {
+        long nodes = perft.count(position, depth);
+        if (nodes != expectedNodes) {
+            throw new IllegalStateException("perft mismatch: " + nodes + " != " + expectedNodes);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PerftBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.metuncc.netchess.chess;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PerftTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 4; 197281",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 3; 97862",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 4; 422333",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 3; 62379",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10; 3; 89890"
+    })
+    void matchesKnownNodeCounts(String fen, int depth, long expected) {
+        Position position = Position.fromFen(fen);
+
+        assertEquals(expected, new Perft(depth).count(position, depth));
+        assertEquals(fen, position.toFen());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Nb8 d4 Nbd7, " +
+                    "r1bq1rk1/2pnbppp/p2p1n2/1p2p3/3PP3/1BP2N1P/PP3PP1/RNBQR1K1 w - - 1 11",
+            "f3 e5 g4 Qh4#, rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"
+    })
+    void replaysSanMoves(String moves, String expectedFen) {
+        Position position = Position.startingPosition();
+        for (String san : moves.split(" ")) {
+            int move = San.parse(position, san);
+            assertEquals(san, San.format(position, move));
+            position.makeMove(move);
+        }
+
+        assertEquals(expectedFen, position.toFen());
+    }
+}
@@ -0,0 +1,110 @@
+package com.metuncc.netchess.chess.pgn;
+
+import com.metuncc.netchess.chess.Move;
+import com.metuncc.netchess.service.PgnService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PgnCodecTest {
+
+    private final PgnService pgnService = new PgnService();
+
+    @Test
+    void roundTripsSpecialMoves() throws IOException {
+        PgnGame original = read("""
+                [Event "Special moves"]
+                [White "A"]
+                [Black "B"]
+                [Result "*"]
+
+                1. e4 d5 2. e5 f5 3. exf6 Nc6 4. fxg7 Bf5 5. gxh8=N Qd7 6. Nf3 O-O-O 7. Bc4 e5
+                8. O-O *
+                """);
+        int[] moves = pgnService.resolveMoves(original);
+
+        PgnGame decoded = roundTrip(original);
+
+        assertTrue(hasKind(moves, Move.EN_PASSANT));
+        assertTrue(hasKind(moves, Move.PROMOTION));
+        assertEquals(2, Arrays.stream(moves).filter(move -> Move.kind(move) == Move.CASTLING).count());
+        assertEquals(original.getMoves(), decoded.getMoves());
+        assertArrayEquals(moves, decoded.getEncodedMoves());
+    }
+
+    @Test
+    void roundTripsFromACustomStartWithBlackToMove() throws IOException {
+        PgnGame original = read("""
+                [Event "Ending"]
+                [SetUp "1"]
+                [FEN "4k3/1P6/8/8/8/8/6p1/4K3 b - - 0 40"]
+
+                40... g1=Q+ 41. Kd2 Qd4+ 42. Kc2 Kd7 43. b8=Q *
+                """);
+
+        PgnGame decoded = roundTrip(original);
+
+        assertEquals(List.of("g1=Q+", "Kd2", "Qd4+", "Kc2", "Kd7", "b8=Q"), decoded.getMoves());
+        assertTrue(PgnWriter.write(decoded).contains("\n\n40... g1=Q+ 41. Kd2 Qd4+ 42. Kc2 Kd7 43. b8=Q *"));
+    }
+
+    @Test
+    void keepsTagsInOrderAndTheResult() throws IOException {
+        PgnGame original = read("""
+                [Event "Club \\"Open\\""]
+                [Site "Güzelyurt"]
+                [Round "3.1"]
+                [White "A"]
+                [Black "B"]
+                [Result "1/2-1/2"]
+
+                1. d4 d5 1/2-1/2
+                """);
+
+        PgnGame decoded = roundTrip(original);
+
+        assertEquals(List.copyOf(original.getTags().entrySet()), List.copyOf(decoded.getTags().entrySet()));
+        assertEquals("1/2-1/2", decoded.getResult());
+    }
+
+    @Test
+    void rejectsUnknownVersionsAndTruncatedData() throws IOException {
+        PgnGame game = read("1. e4 e5 1-0");
+        byte[] data = PgnCodec.encode(game, pgnService.resolveMoves(game));
+
+        byte[] future = data.clone();
+        future[0] = 2;
+        assertThrows(PgnParseException.class, () -> PgnCodec.decode(future));
+        assertThrows(PgnParseException.class, () -> PgnCodec.decode(Arrays.copyOf(data, data.length - 1)));
+    }
+
+    /**
+     * Encodes, decodes and writes the game, then reads the written text back, as an
+     * export or download regenerates it from move_data.
+     */
+    private PgnGame roundTrip(PgnGame original) throws IOException {
+        PgnGame decoded = PgnCodec.decode(PgnCodec.encode(original, pgnService.resolveMoves(original)));
+        PgnGame reread = read(PgnWriter.write(decoded));
+
+        assertEquals(original.getTags(), reread.getTags());
+        assertEquals(original.getMoves(), reread.getMoves());
+        assertEquals(original.getResult(), reread.getResult());
+        assertArrayEquals(pgnService.resolveMoves(original), pgnService.resolveMoves(reread));
+        return decoded;
+    }
+
+    private static PgnGame read(String pgn) throws IOException {
+        return PgnReaderTest.readAll(pgn).get(0);
+    }
+
+    private static boolean hasKind(int[] moves, int kind) {
+        return Arrays.stream(moves).anyMatch(move -> Move.kind(move) == kind);
+    }
+}
@@ -0,0 +1,205 @@
+package com.metuncc.netchess.chess.pgn;
+
+import com.metuncc.netchess.service.PgnService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PgnReaderTest {
+
+    private static final String ARCHIVE = """
+            [Event "Club 1"]
+            [White "A"]
+            [Black "B"]
+
+            1. e4 e5 2. Nf3 Nc6 1-0
+
+            [Event "Club 2"]
+            [White "C"]
+            [Black "D"]
+
+            1. d4 d5 0-1
+            """;
+
+    @Test
+    void splitsAnArchiveIntoGames() throws IOException {
+        List<PgnGame> games = readAll(ARCHIVE);
+
+        assertEquals(2, games.size());
+        assertEquals("Club 1", games.get(0).getTag("Event"));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6"), games.get(0).getMoves());
+        assertEquals("1-0", games.get(0).getResult());
+        assertEquals("Club 2", games.get(1).getTag("Event"));
+        assertEquals(List.of("d4", "d5"), games.get(1).getMoves());
+        assertEquals("0-1", games.get(1).getResult());
+    }
+
+    @Test
+    void capturesEachGamesOwnText() throws IOException {
+        try (PgnReader reader = new PgnReader(new StringReader(ARCHIVE), true)) {
+            String first = reader.next().getRawText();
+            String second = reader.next().getRawText();
+
+            assertTrue(first.startsWith("[Event \"Club 1\"]") && first.contains("Nc6 1-0"));
+            assertFalse(first.contains("Club 2"));
+            assertTrue(second.contains("[Event \"Club 2\"]") && second.contains("d5 0-1"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void resumesWithTheNextGameAfterAParseError() throws IOException {
+        String pgn = """
+                [Event "Good"]
+
+                1. e4 e5 1-0
+
+                [Event "Bad"]
+
+                1. e4 Zz9 2. Nf3 [oops] 0-1
+
+                [Event "Also good"]
+
+                1. c4 1/2-1/2
+                """;
+        List<String> events = new ArrayList<>();
+        int errors = 0;
+        try (PgnReader reader = new PgnReader(new StringReader(pgn), false)) {
+            while (true) {
+                PgnGame game;
+                try {
+                    game = reader.next();
+                } catch (PgnParseException e) {
+                    errors++;
+                    reader.skipToNextGame();
+                    continue;
+                }
+                if (game == null) {
+                    break;
+                }
+                events.add(game.getTag("Event"));
+            }
+        }
+
+        assertEquals(1, errors);
+        assertEquals(List.of("Good", "Also good"), events);
+    }
+
+    @Test
+    void reportsTheLineOfAnError() throws IOException {
+        try (PgnReader reader = new PgnReader(new StringReader("[Event \"X\"]\n\n1. e4 e5\n2. Qz4 1-0\n"), false)) {
+            PgnParseException e = assertThrows(PgnParseException.class, reader::next);
+
+            assertEquals(4, e.getLine());
+        }
+    }
+
+    @Test
+    void acceptsSanSyntax() {
+        for (String move : List.of("e4", "exd5", "Nf3", "Nbd7", "R1e2", "Qh4xe1", "Bxf7+", "Qxf7#", "O-O", "O-O-O+",
+                "0-0", "e8=Q", "exd8N+", "a1=R", "Nf3!?", "e4!!", "Kg1??")) {
+            assertTrue(PgnReader.sanLength(move) > 0, move);
+        }
+        for (String move : List.of("e9", "i4", "Nf", "Zz9", "e8", "e4=Q", "exd", "Kxx1", "O-O-", "Nf3x")) {
+            assertEquals(-1, PgnReader.sanLength(move), move);
+        }
+    }
+
+    @Test
+    void dropsAnnotationsAndNormalizesCastling() throws IOException {
+        PgnGame game = readAll("1. e4! e5?! 2. Nf3+ 0-0 3. Bc4!! *").get(0);
+
+        assertEquals(List.of("e4", "e5", "Nf3+", "O-O", "Bc4"), game.getMoves());
+        assertEquals("*", game.getResult());
+    }
+
+    @Test
+    void skipsVariationsCommentsNagsAndEscapeLines() throws IOException {
+        String pgn = """
+                % exported by some tool
+                [Event "Annotated"]
+                ; a rest-of-line comment [Event "not a tag"]
+
+                1. e4 {best by test} e5 $1 2. Nf3 (2. f4 exf4 (2... d5 3. exd5) 3. Nf3 $14) 2... Nc6
+                % an escape line in the movetext 1-0
+                3. Bb5 {a multi-line
+                comment} a6 1/2-1/2
+                """;
+        List<PgnGame> games = readAll(pgn);
+
+        assertEquals(1, games.size());
+        assertEquals("Annotated", games.get(0).getTag("Event"));
+        assertEquals(1, games.get(0).getTags().size());
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6"), games.get(0).getMoves());
+        assertEquals("1/2-1/2", games.get(0).getResult());
+    }
+
+    @Test
+    void readsEscapedTagValues() throws IOException {
+        PgnGame game = readAll("[Event \"The \\\"Open\\\" \\\\ 2024\"]\n\n1. d4 *").get(0);
+
+        assertEquals("The \"Open\" \\ 2024", game.getTag("Event"));
+    }
+
+    @Test
+    void rejectsMalformedMovetext() {
+        for (String pgn : List.of(
+                "1. e4 e5 ) 1-0",
+                "1. e4 (1. d4 d5 1-0",
+                "1. e4 (1. d4 1-0) *",
+                "1. e4 {never closed 1-0",
+                "1. e4 $ 1-0",
+                "1. e4 & 1-0",
+                "1. Ke9 1-0",
+                "[Event \"X\" 1. e4 *",
+                "[Event \"unterminated]\n1. e4 *",
+                "[] 1. e4 *")) {
+            assertThrows(PgnParseException.class, () -> readAll(pgn), pgn);
+        }
+    }
+
+    @Test
+    void rejectsAGameWithNothingInIt() {
+        assertThrows(PgnParseException.class, () -> readAll("*"));
+    }
+
+    @Test
+    void singleGameUploadsStopAfterTheFirstGame() throws IOException {
+        String pgn = """
+                [Event "Kept"]
+
+                1. e4 e5 1-0
+
+                [Event "Never read" 1. {
+                """;
+        try (PgnReader reader = new PgnReader(new StringReader(pgn), false)) {
+            assertEquals("Kept", reader.next().getTag("Event"));
+            assertTrue(reader.hasNextGame());
+        }
+
+        PgnGame game = new PgnService().parseSingle(pgn);
+
+        assertEquals("Kept", game.getTag("Event"));
+        assertEquals(List.of("e4", "e5"), game.getMoves());
+        assertFalse(game.getRawText().contains("Never read"));
+    }
+
+    static List<PgnGame> readAll(String pgn) throws IOException {
+        List<PgnGame> games = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(new StringReader(pgn), false)) {
+            for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+}
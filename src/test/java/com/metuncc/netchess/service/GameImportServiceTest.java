@@ -0,0 +1,186 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.dto.GameImportReport;
+import com.metuncc.netchess.dto.GameImportResult;
+import com.metuncc.netchess.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GameImportServiceTest {
+
+    private static final String ARCHIVE = """
+            [White "A"]
+            [Black "B"]
+
+            1. e4 e5 2. Nf3 1-0
+
+            [White "C"]
+            [Black "D"]
+
+            1. d4 Zz9 0-1
+
+            [White "E"]
+            [Black "F"]
+
+            1. e4 e5 2. Ke3 0-1
+
+            [White "A"]
+            [Black "B"]
+
+            1. e4 e5 2. Nf3 1-0
+
+            [White "G"]
+            [Black "H"]
+
+            1. c4 c5 1/2-1/2
+            """;
+
+    private final RecordingJdbc jdbc = new RecordingJdbc();
+
+    @Test
+    void reportsEveryGameOfAnArchive() throws IOException {
+        GameImportReport report = importArchive(ARCHIVE);
+
+        assertEquals(5, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(GameImportResult.Status.IMPORTED, GameImportResult.Status.REJECTED,
+                GameImportResult.Status.REJECTED, GameImportResult.Status.REJECTED, GameImportResult.Status.IMPORTED),
+                statuses(report));
+        assertEquals("Duplicate of an existing game", report.getGames().get(3).getMessage());
+        assertEquals(List.of("A", "G"), jdbc.insertedWhite);
+        assertNotNull(report.getGames().get(4).getGameId());
+    }
+
+    @Test
+    void rejectsGamesAlreadyStored() throws IOException {
+        importArchive(ARCHIVE);
+        jdbc.insertedWhite.clear();
+
+        GameImportReport report = importArchive(ARCHIVE);
+
+        assertEquals(0, report.getImported());
+        assertEquals(5, report.getRejected());
+        assertNull(report.getGames().get(0).getGameId());
+        assertEquals(List.of(), jdbc.insertedWhite);
+    }
+
+    @Test
+    void fallsBackToSingleInsertsWhenTheBatchFails() throws IOException {
+        jdbc.failBatch = true;
+        jdbc.failWhite = "G";
+
+        GameImportReport report = importArchive(ARCHIVE);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(GameImportResult.Status.FAILED, report.getGames().get(4).getStatus());
+        assertNull(report.getGames().get(4).getGameId());
+        assertEquals(List.of("A"), jdbc.insertedWhite);
+    }
+
+    private GameImportReport importArchive(String pgn) throws IOException {
+        PgnService pgnService = new PgnService();
+        GameImportService service = new GameImportService(jdbc, pgnService,
+                new GameArchiveService(pgnService, null, jdbc, "inline"), new PlayerResolver(jdbc), 2);
+        User uploader = new User();
+        uploader.setId(UUID.randomUUID());
+        uploader.setUsername("uploader");
+        return service.importGames(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8)), uploader, null);
+    }
+
+    private static List<GameImportResult.Status> statuses(GameImportReport report) {
+        return report.getGames().stream().map(GameImportResult::getStatus).toList();
+    }
+
+    /**
+     * Keeps inserted games' move hashes, so a second import sees them as stored.
+     */
+    private static class RecordingJdbc extends JdbcTemplate {
+
+        final Set<String> storedHashes = new HashSet<>();
+        final List<String> insertedWhite = new ArrayList<>();
+        boolean failBatch;
+        String failWhite;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            List<T> found = new ArrayList<>();
+            for (Object hash : args) {
+                if (storedHashes.contains(hash)) {
+                    found.add((T) hash);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            // no members to match player names against
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (failBatch) {
+                throw new DataIntegrityViolationException("batch failed");
+            }
+            for (T arg : batchArgs) {
+                insert(ps -> pss.setValues(ps, arg));
+            }
+            return new int[0][];
+        }
+
+        @Override
+        public int update(String sql, PreparedStatementSetter pss) {
+            return insert(pss);
+        }
+
+        private int insert(PreparedStatementSetter pss) {
+            Map<Integer, Object> values = new HashMap<>();
+            PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set")) {
+                            values.put((Integer) args[0], args[1]);
+                        }
+                        return null;
+                    });
+            try {
+                pss.setValues(ps);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            String white = (String) values.get(6);
+            if (white.equals(failWhite)) {
+                throw new DataIntegrityViolationException("row failed");
+            }
+            insertedWhite.add(white);
+            storedHashes.add((String) values.get(15));
+            return 1;
+        }
+    }
+}
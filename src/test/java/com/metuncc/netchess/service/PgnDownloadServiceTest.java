@@ -0,0 +1,137 @@
+package com.metuncc.netchess.service;
+
+import com.metuncc.netchess.entity.Game;
+import com.metuncc.netchess.service.storage.GzipCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PgnDownloadServiceTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private InMemoryS3 s3;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryS3();
+        s3.objects.put("a.pgn", "[Event \"A\"]\n\n1. e4 e5 1-0\n".getBytes(StandardCharsets.UTF_8));
+        s3.objects.put("b.pgn", "[Event \"B\"]\n\n1. d4 d5 0-1\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void servesRepeatedDownloadsFromDisk() throws IOException {
+        PgnDownloadService service = service(1024);
+
+        assertEquals("[Event \"A\"]\n\n1. e4 e5 1-0\n", read(service, "a.pgn", 0, -1));
+        assertEquals("1. e4", read(service, "a.pgn", 13, 5));
+        assertEquals(1, s3.gets);
+
+        // a new instance picks up the files already on disk
+        assertEquals("1-0\n", read(service(1024), "a.pgn", 22, 4));
+        assertEquals(1, s3.gets);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedObjects() throws IOException {
+        PgnDownloadService service = service(40);
+
+        read(service, "a.pgn", 0, -1);
+        read(service, "b.pgn", 0, -1);
+        read(service, "a.pgn", 0, -1);
+
+        assertEquals(3, s3.gets);
+    }
+
+    @Test
+    void inflatesCompressedObjectsOnRequest() throws IOException {
+        s3.objects.put("c.pgn", GzipCodec.compress("1. c4 *\n".getBytes(StandardCharsets.UTF_8)));
+        Game game = new Game();
+        game.setS3Key("c.pgn");
+
+        try (PgnDownloadService.PgnContent content = service(1024).open(game)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            content.writeDecodedTo(out);
+
+            assertTrue(content.isCompressed());
+            assertEquals("1. c4 *\n", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void tagsInMemoryTextByTheBytesServed() throws IOException {
+        Game game = new Game();
+        game.setId(UUID.randomUUID());
+        game.setContentSha256("0123abcd");
+        byte[] text = "1. e4 *\n".getBytes(StandardCharsets.UTF_8);
+        PgnDownloadService service = service(1024);
+
+        String tag = service.etag(new PgnDownloadService.PgnContent(text));
+
+        assertEquals("\"" + HexFormat.of().formatHex(StorageService.sha256().digest(text)) + "\"", tag);
+        assertNotEquals(service.etag(game, false), tag);
+        assertNotEquals(tag, service.etag(new PgnDownloadService.PgnContent("1. d4 *\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private PgnDownloadService service(long maxBytes) throws IOException {
+        return new PgnDownloadService(new StorageService(s3, "test"), null, cacheDir, maxBytes);
+    }
+
+    private static String read(PgnDownloadService service, String key, long position, long count) throws IOException {
+        Game game = new Game();
+        game.setId(UUID.randomUUID());
+        game.setS3Key(key);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PgnDownloadService.PgnContent content = service.open(game)) {
+            content.writeTo(out, position, count < 0 ? content.length() : count);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static class InMemoryS3 implements S3Client {
+
+        final Map<String, byte[]> objects = new HashMap<>();
+        int gets;
+
+        @Override
+        public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+            byte[] data = objects.get(request.key());
+            if (data == null) {
+                throw NoSuchKeyException.builder().message(request.key()).build();
+            }
+            gets++;
+            return new ResponseInputStream<>(GetObjectResponse.builder().contentLength((long) data.length).build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(data)));
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
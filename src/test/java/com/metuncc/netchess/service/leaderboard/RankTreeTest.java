@@ -0,0 +1,55 @@
+package com.metuncc.netchess.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankTreeTest {
+
+    @Test
+    void agreesWithASortedListUnderRandomUpdates() {
+        Random random = new Random(7);
+        RankTree tree = new RankTree();
+        Map<UUID, LeaderboardPlayer> current = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            LeaderboardPlayer old = current.remove(id);
+            if (old != null) {
+                tree.remove(old);
+            }
+            if (random.nextInt(4) != 0) {
+                // a narrow range so ties are common
+                LeaderboardPlayer player = new LeaderboardPlayer(id, "u", null, 1150 + random.nextInt(100), step);
+                tree.insert(player);
+                current.put(id, player);
+            }
+
+            if (step % 50 == 0) {
+                List<LeaderboardPlayer> sorted = new ArrayList<>(current.values());
+                sorted.sort(LeaderboardPlayer.ORDER);
+                assertEquals(sorted.size(), tree.size());
+                assertEquals(sorted, tree.range(0, sorted.size()));
+                assertEquals(sorted.subList(Math.min(10, sorted.size()), Math.min(25, sorted.size())), tree.range(10, 15));
+                for (int i = 0; i < sorted.size(); i++) {
+                    LeaderboardPlayer player = sorted.get(i);
+                    assertEquals(player, tree.get(i));
+                    assertEquals(i, tree.indexOf(player));
+                    long above = sorted.stream().filter(other -> other.getRating() > player.getRating()).count();
+                    assertEquals(above, tree.countAbove(player.getRating()));
+                }
+            }
+        }
+    }
+}
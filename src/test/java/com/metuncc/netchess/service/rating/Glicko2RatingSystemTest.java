@@ -0,0 +1,51 @@
+package com.metuncc.netchess.service.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Glicko2RatingSystemTest {
+
+    private static final Timestamp NOW = new Timestamp(0);
+
+    @Test
+    void matchesTheExampleFromGlickmansPaper() {
+        RatingState state = new RatingState();
+        int player = state.add(UUID.randomUUID(), 1500, 200, 0.06, 0);
+        int a = state.add(UUID.randomUUID(), 1400, 30, 0.06, 0);
+        int b = state.add(UUID.randomUUID(), 1550, 100, 0.06, 0);
+        int c = state.add(UUID.randomUUID(), 1700, 300, 0.06, 0);
+        RatedGames games = new RatedGames();
+        games.add(UUID.randomUUID(), player, a, RatingReplay.WHITE_WIN, NOW);
+        games.add(UUID.randomUUID(), b, player, RatingReplay.WHITE_WIN, NOW);
+        games.add(UUID.randomUUID(), player, c, RatingReplay.BLACK_WIN, NOW);
+
+        List<Integer> changed = new ArrayList<>();
+        new Glicko2RatingSystem(0.5).ratePeriod(state, games, (p, game, oldRating, newRating, k) -> changed.add(p));
+
+        assertEquals(1464.06, state.rating(player), 0.01);
+        assertEquals(151.52, state.deviation(player), 0.01);
+        assertEquals(0.05999, state.volatility(player), 0.00001);
+        assertEquals(3, state.gamesPlayed(player));
+        assertEquals(List.of(player, a, b, c), changed);
+    }
+
+    @Test
+    void idlePlayersOnlyGainDeviation() {
+        RatingState state = new RatingState();
+        int idle = state.add(UUID.randomUUID(), 1800, 50, 0.06, 40);
+
+        new Glicko2RatingSystem(0.5).ratePeriod(state, new RatedGames(), (p, game, oldRating, newRating, k) -> {
+            throw new AssertionError("no games were played");
+        });
+
+        assertEquals(1800, state.rating(idle), 0);
+        assertEquals(Math.sqrt(50 * 50 + Math.pow(0.06 * 173.7178, 2)), state.deviation(idle), 0.0001);
+        assertEquals(40, state.gamesPlayed(idle));
+    }
+}
@@ -0,0 +1,41 @@
+package com.metuncc.netchess.service.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbTest {
+
+    @Test
+    void keepsEndpointsAndSpikesWithinTheBudget() {
+        int count = 1000;
+        long[] x = new long[count];
+        int[] y = new int[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = i * 86_400_000L;
+            y[i] = 1200 + (i % 7);
+        }
+        y[500] = 1600;
+
+        int[] kept = Lttb.select(x, y, count, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(count - 1, kept[49]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+        boolean spike = false;
+        for (int index : kept) {
+            spike |= index == 500;
+        }
+        assertTrue(spike);
+    }
+
+    @Test
+    void returnsEveryPointWhenWithinBudget() {
+        assertArrayEquals(new int[] { 0, 1, 2 }, Lttb.select(new long[] { 1, 2, 3 }, new int[] { 5, 6, 7 }, 3, 10));
+    }
+}
@@ -0,0 +1,70 @@
+package com.metuncc.netchess.service.rating;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory replay of a synthetic game history. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.metuncc.netchess.service.rating.RatingReplayBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatingReplayBenchmark {
+
+    @Param({ "100000" })
+    public int games;
+
+    @Param({ "500" })
+    public int players;
+
+    private final EloCalculator elo = new EloCalculator(1200, 24, 16, 30);
+    private int[] white;
+    private int[] black;
+    private byte[] outcome;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        white = new int[games];
+        black = new int[games];
+        outcome = new byte[games];
+        for (int i = 0; i < games; i++) {
+            white[i] = random.nextInt(players);
+            black[i] = (white[i] + 1 + random.nextInt(players - 1)) % players;
+            outcome[i] = (byte) random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    public int replay() {
+        RatingReplay replay = new RatingReplay(players, elo.initialRating());
+        replay.replay(elo, white, black, outcome, games);
+        return replay.rating(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RatingReplayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
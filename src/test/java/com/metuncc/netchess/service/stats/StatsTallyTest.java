@@ -0,0 +1,57 @@
+package com.metuncc.netchess.service.stats;
+
+import com.metuncc.netchess.service.rating.RatingReplay;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsTallyTest {
+
+    @Test
+    void countsResultsByColourAndTracksStreaks() {
+        StatsTally stats = new StatsTally(3);
+        stats.game(0, 1, RatingReplay.WHITE_WIN, 1200, 1300);
+        stats.game(1, 0, RatingReplay.BLACK_WIN, 1290, 1210);
+        stats.game(0, 1, RatingReplay.DRAW, 1220, 1280);
+        stats.game(1, 0, RatingReplay.WHITE_WIN, 1280, 1220);
+
+        assertEquals(1, stats.results(0, 0, StatsTally.WIN));
+        assertEquals(1, stats.results(0, 0, StatsTally.DRAW));
+        assertEquals(1, stats.results(0, 1, StatsTally.WIN));
+        assertEquals(1, stats.results(0, 1, StatsTally.LOSS));
+        assertEquals(4, stats.games(0));
+        assertEquals(-1, stats.currentStreak(0));
+        assertEquals(2, stats.bestWinStreak(0));
+        assertEquals(1, stats.currentStreak(1));
+        assertEquals(1300L + 1290 + 1280 + 1280, stats.opponentRatingSum(0));
+        assertFalse(stats.touched(2));
+    }
+
+    @Test
+    void continuesFromStoredRow() {
+        StatsTally stats = new StatsTally(2);
+        stats.load(0, new int[] { 3, 0, 1 }, new int[] { 2, 1, 0 }, 4, 4, 1350, 7000);
+        stats.rating(0, 1340);
+        stats.game(1, 0, RatingReplay.BLACK_WIN, 1400, 1340);
+        stats.rating(0, 1360);
+
+        assertTrue(stats.touched(0));
+        assertEquals(3, stats.results(0, 1, StatsTally.WIN));
+        assertEquals(5, stats.currentStreak(0));
+        assertEquals(5, stats.bestWinStreak(0));
+        assertEquals(1360, stats.peakRating(0));
+        assertEquals(8400L, stats.opponentRatingSum(0));
+    }
+
+    @Test
+    void skipsSidesOutsideTheTally() {
+        StatsTally stats = new StatsTally(1);
+        stats.game(-1, 0, RatingReplay.WHITE_WIN, 1500, 1200);
+
+        assertEquals(1, stats.results(0, 1, StatsTally.LOSS));
+        assertEquals(1500L, stats.opponentRatingSum(0));
+        assertEquals(-1, stats.currentStreak(0));
+    }
+}
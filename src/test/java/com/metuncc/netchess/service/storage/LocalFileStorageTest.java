@@ -0,0 +1,69 @@
+package com.metuncc.netchess.service.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesReadsAndDeletesObjects() throws IOException {
+        LocalFileStorage storage = new LocalFileStorage(root);
+        byte[] pgn = "1. e4 e5 *".getBytes(StandardCharsets.UTF_8);
+        String key = "pgn/sha256/abc.pgn";
+
+        storage.put(key, new ByteArrayInputStream(pgn), pgn.length, "application/x-chess-pgn", null);
+        storage.put(key, new ByteArrayInputStream(pgn), pgn.length, "application/x-chess-pgn", null);
+
+        assertTrue(storage.exists(key));
+        assertArrayEquals(pgn, storage.read(key));
+        assertEquals(root.resolve("pgn/sha256"), storage.path(key).getParent().getParent().getParent());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+
+        storage.delete(key);
+        assertFalse(storage.exists(key));
+    }
+
+    @Test
+    void listsKeysInByteOrder() throws IOException {
+        LocalFileStorage storage = new LocalFileStorage(root);
+        for (String name : List.of("c", "a", "d", "b")) {
+            storage.put("pgn/sha256/" + name + ".pgn", new ByteArrayInputStream(new byte[1]), 1, null, null);
+        }
+        storage.put("other/e.pgn", new ByteArrayInputStream(new byte[1]), 1, null, null);
+
+        List<String> all = new ArrayList<>();
+        storage.forEach("pgn/", object -> all.add(object.key()));
+
+        assertEquals(List.of("pgn/sha256/a.pgn", "pgn/sha256/b.pgn", "pgn/sha256/c.pgn", "pgn/sha256/d.pgn"), all);
+        assertEquals(List.of("pgn/sha256/b.pgn", "pgn/sha256/c.pgn"),
+                storage.list("pgn/", "pgn/sha256/a.pgn", 2).stream().map(StoredObject::key).toList());
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() throws IOException {
+        LocalFileStorage storage = new LocalFileStorage(root);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.exists("../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> storage.exists("/etc/passwd"));
+    }
+}
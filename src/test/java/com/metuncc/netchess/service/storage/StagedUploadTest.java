@@ -0,0 +1,41 @@
+package com.metuncc.netchess.service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StagedUploadTest {
+
+    @Test
+    void stagesAndHashesBytesTheReaderNeverRead() throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[100_000];
+        new Random(7).nextBytes(data);
+
+        Path file;
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (StagedUpload upload = new StagedUpload(new ByteArrayInputStream(data), digest)) {
+            try (InputStream in = upload.stream()) {
+                in.readNBytes(100);
+                in.skip(5_000);
+            }
+            assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)), upload.finish());
+            file = upload.handOff();
+        }
+
+        assertTrue(Files.exists(file));
+        assertArrayEquals(data, GzipCodec.decompress(Files.readAllBytes(file)));
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,95 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BergerTableTest {
+
+    @Test
+    void sixPlayersFollowTheFideTable() {
+        String[] expected = {
+                "1-6 2-5 3-4",
+                "6-4 5-3 1-2",
+                "2-6 3-1 4-5",
+                "6-5 1-4 2-3",
+                "3-6 4-2 5-1"
+        };
+        List<List<Pairing>> rounds = BergerTable.schedule(players(6), false);
+
+        assertEquals(expected.length, rounds.size());
+        for (int r = 0; r < expected.length; r++) {
+            assertEquals(expected[r], format(rounds.get(r)));
+        }
+    }
+
+    @Test
+    void oddFieldSitsEachPlayerOutOnce() {
+        List<List<Pairing>> rounds = BergerTable.schedule(players(7), false);
+
+        assertEquals(7, rounds.size());
+        Map<Integer, Integer> sittingOut = new HashMap<>();
+        for (List<Pairing> round : rounds) {
+            assertEquals(3, round.size());
+            Set<Integer> playing = new HashSet<>();
+            for (Pairing pairing : round) {
+                playing.add(number(pairing.getWhite()));
+                playing.add(number(pairing.getBlack()));
+            }
+            for (int p = 1; p <= 7; p++) {
+                if (!playing.contains(p)) {
+                    sittingOut.merge(p, 1, Integer::sum);
+                }
+            }
+        }
+        assertEquals(7, sittingOut.size());
+        assertTrue(sittingOut.values().stream().allMatch(times -> times == 1));
+    }
+
+    @Test
+    void doubleRoundRobinMeetsEveryPairOnceWithEachColour() {
+        int n = 10;
+        List<List<Pairing>> rounds = BergerTable.schedule(players(n), true);
+
+        assertEquals(2 * (n - 1), rounds.size());
+        Set<String> games = new HashSet<>();
+        for (List<Pairing> round : rounds) {
+            for (Pairing pairing : round) {
+                assertTrue(games.add(number(pairing.getWhite()) + "-" + number(pairing.getBlack())));
+            }
+        }
+        assertEquals(n * (n - 1), games.size());
+    }
+
+    private static List<UUID> players(int count) {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            players.add(new UUID(0, i));
+        }
+        return players;
+    }
+
+    private static int number(UUID player) {
+        return (int) player.getLeastSignificantBits();
+    }
+
+    private static String format(List<Pairing> round) {
+        StringBuilder games = new StringBuilder();
+        for (Pairing pairing : round) {
+            if (games.length() > 0) {
+                games.append(' ');
+            }
+            games.append(number(pairing.getWhite())).append('-').append(number(pairing.getBlack()));
+        }
+        return games.toString();
+    }
+}
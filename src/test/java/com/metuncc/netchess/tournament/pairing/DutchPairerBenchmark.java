@@ -0,0 +1,64 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pairing one round of a synthetic open after some random rounds. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.metuncc.netchess.tournament.pairing.DutchPairerBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DutchPairerBenchmark {
+
+    @Param({ "300", "301" })
+    public int players;
+
+    @Param({ "0", "5" })
+    public int roundsPlayed;
+
+    private final DutchPairer pairer = new DutchPairer();
+    private List<SwissPlayer> field;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        DutchPairerTest.Field event = new DutchPairerTest.Field(players, random);
+        for (int round = 0; round < roundsPlayed; round++) {
+            event.play(pairer.pair(event.players()), random);
+        }
+        field = event.players();
+    }
+
+    @Benchmark
+    public List<Pairing> pairRound() {
+        return pairer.pair(field);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DutchPairerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DutchPairerTest {
+
+    private final DutchPairer pairer = new DutchPairer();
+
+    @Test
+    void firstRoundPairsTopHalfAgainstBottomHalf() {
+        List<SwissPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            players.add(new SwissPlayer(new UUID(0, i), 2000 - i * 10, 0, "", Set.of(), false,
+                    SwissPlayer.FloatDirection.NONE));
+        }
+        List<Pairing> pairings = pairer.pair(players);
+
+        assertEquals(4, pairings.size());
+        for (int board = 0; board < 4; board++) {
+            Pairing pairing = pairings.get(board);
+            UUID top = new UUID(0, board);
+            UUID bottom = new UUID(0, board + 4);
+            // the higher-ranked player alternates between white and black down the boards
+            assertEquals(board % 2 == 0 ? top : bottom, pairing.getWhite());
+            assertEquals(board % 2 == 0 ? bottom : top, pairing.getBlack());
+        }
+    }
+
+    @Test
+    void simulatedEventKeepsTheAbsoluteCriteria() {
+        SplittableRandom random = new SplittableRandom(3);
+        Field field = new Field(41, random);
+        for (int round = 0; round < 9; round++) {
+            Map<UUID, SwissPlayer> standings = new HashMap<>();
+            for (SwissPlayer player : field.players()) {
+                standings.put(player.getId(), player);
+            }
+            List<Pairing> pairings = pairer.pair(field.players());
+            Set<UUID> seen = new HashSet<>();
+            for (Pairing pairing : pairings) {
+                assertTrue(seen.add(pairing.getWhite()));
+                if (pairing.isBye()) {
+                    assertFalse(standings.get(pairing.getWhite()).hadBye());
+                } else {
+                    assertTrue(seen.add(pairing.getBlack()));
+                    assertFalse(standings.get(pairing.getWhite()).getOpponents().contains(pairing.getBlack()));
+                }
+            }
+            assertEquals(41, seen.size());
+            field.play(pairings, random);
+        }
+        int total = 0;
+        for (SwissPlayer player : field.players()) {
+            String colours = player.getColours();
+            assertEquals(9, colours.length());
+            int difference = 0;
+            for (char c : colours.toCharArray()) {
+                difference += c == 'W' ? 1 : c == 'B' ? -1 : 0;
+            }
+            assertTrue(Math.abs(difference) <= 2);
+            assertFalse(colours.replace("-", "").contains("WWW"));
+            assertFalse(colours.replace("-", "").contains("BBB"));
+            total += player.getPoints();
+        }
+        // 20 games and a bye a round
+        assertEquals(9 * (20 * 2 + 2), total);
+    }
+
+    /**
+     * A synthetic event: players with random ratings whose games are decided at random.
+     */
+    static final class Field {
+
+        private static final String[] RESULTS = { "0-1", "1/2-1/2", "1-0" };
+
+        final Map<UUID, Integer> ratings = new HashMap<>();
+        final SwissStandings standings = new SwissStandings();
+
+        Field(int size, SplittableRandom random) {
+            for (int i = 0; i < size; i++) {
+                ratings.put(new UUID(random.nextLong(), random.nextLong()), 1000 + random.nextInt(1500));
+            }
+        }
+
+        List<SwissPlayer> players() {
+            return standings.players(ratings);
+        }
+
+        void play(List<Pairing> pairings, SplittableRandom random) {
+            for (Pairing pairing : pairings) {
+                if (pairing.isBye()) {
+                    standings.bye(pairing.getWhite());
+                } else {
+                    standings.game(pairing.getWhite(), pairing.getBlack(), RESULTS[random.nextInt(3)]);
+                }
+            }
+            standings.endRound();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.metuncc.netchess.tournament.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeightedMatchingTest {
+
+    @Test
+    void prefersMoreEdgesOverMoreWeight() {
+        // a path 0-1-2-3 where the heavy middle edge alone would leave two vertices single
+        int[] mate = WeightedMatching.match(4, new int[] { 0, 1, 2 }, new int[] { 1, 2, 3 }, new long[] { 1, 10, 1 });
+        assertArrayEquals(new int[] { 1, 0, 3, 2 }, mate);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomGraphs() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 500; round++) {
+            int n = 2 + random.nextInt(9);
+            int[] from = new int[n * n];
+            int[] to = new int[n * n];
+            long[] weights = new long[n * n];
+            long[][] matrix = new long[n][n];
+            for (long[] row : matrix) {
+                Arrays.fill(row, -1);
+            }
+            int edges = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (random.nextInt(3) > 0) {
+                        from[edges] = i;
+                        to[edges] = j;
+                        weights[edges] = random.nextInt(20);
+                        matrix[i][j] = matrix[j][i] = weights[edges];
+                        edges++;
+                    }
+                }
+            }
+            int[] mate = WeightedMatching.match(n, Arrays.copyOf(from, edges), Arrays.copyOf(to, edges),
+                    Arrays.copyOf(weights, edges));
+
+            int pairs = 0;
+            long total = 0;
+            for (int v = 0; v < n; v++) {
+                if (mate[v] > v) {
+                    assertEquals(v, mate[mate[v]]);
+                    pairs++;
+                    total += matrix[v][mate[v]];
+                }
+            }
+            long[] best = best(matrix, 0, new boolean[n]);
+            assertEquals(best[0], pairs);
+            assertEquals(best[1], total);
+        }
+    }
+
+    /**
+     * {pairs, weight} of the best matching of the vertices from v on.
+     */
+    private static long[] best(long[][] matrix, int v, boolean[] used) {
+        int n = matrix.length;
+        while (v < n && used[v]) {
+            v++;
+        }
+        if (v >= n) {
+            return new long[] { 0, 0 };
+        }
+        used[v] = true;
+        long[] best = best(matrix, v + 1, used);
+        for (int u = v + 1; u < n; u++) {
+            if (!used[u] && matrix[v][u] >= 0) {
+                used[u] = true;
+                long[] rest = best(matrix, v + 1, used);
+                used[u] = false;
+                if (rest[0] + 1 > best[0] || (rest[0] + 1 == best[0] && rest[1] + matrix[v][u] > best[1])) {
+                    best = new long[] { rest[0] + 1, rest[1] + matrix[v][u] };
+                }
+            }
+        }
+        used[v] = false;
+        return best;
+    }
+}